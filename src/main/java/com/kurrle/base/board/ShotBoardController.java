@@ -0,0 +1,36 @@
+package com.kurrle.base.board;
+
+import com.kurrle.coffee.ShotBoardService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event stream for café display boards showing a team's shots as they are pulled.
+ * Requires a logged-in team member, like the rest of the application.
+ */
+@RestController
+class ShotBoardController {
+
+    private final ShotBoardService boardService;
+
+    ShotBoardController(ShotBoardService boardService) {
+        this.boardService = boardService;
+    }
+
+    @GetMapping(path = "/api/board/teams/{teamId}/shots", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter shots(@PathVariable Long teamId) {
+        return boardService.subscribe(teamId);
+    }
+
+    // Unknown teams and teams the user is not a member of look the same
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    void notFound() {
+    }
+}
@@ -0,0 +1,101 @@
+package com.kurrle.base.ui.admin;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.OutboxLag;
+import com.kurrle.coffee.OutboxService;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import jakarta.annotation.security.RolesAllowed;
+
+@Route("admin/outbox")
+@PageTitle("Outbox")
+@Menu(order = 8, icon = "vaadin:exchange", title = "Outbox")
+@RolesAllowed("ADMIN")
+public class OutboxView extends VerticalLayout {
+
+    private final OutboxService outboxService;
+    private final Grid<OutboxLag> lagGrid;
+
+    public OutboxView(OutboxService outboxService) {
+        this.outboxService = outboxService;
+
+        var refreshButton = new Button("Refresh", VaadinIcon.REFRESH.create(), event -> refresh());
+
+        lagGrid = new Grid<>();
+        lagGrid.addColumn(OutboxLag::consumer).setHeader("Consumer").setFlexGrow(1);
+        lagGrid.addColumn(OutboxLag::position).setHeader("Position").setAutoWidth(true);
+        lagGrid.addColumn(OutboxLag::headPosition).setHeader("Head").setAutoWidth(true);
+        lagGrid.addColumn(OutboxLag::pendingEvents).setHeader("Pending").setAutoWidth(true);
+        lagGrid.addColumn(lag -> lag.oldestPending() != null ? lag.oldestPending().toSeconds() + "s" : "Up to date")
+                .setHeader("Oldest Pending")
+                .setAutoWidth(true);
+        lagGrid.addComponentColumn(this::createReplayButton).setAutoWidth(true);
+        lagGrid.setSizeFull();
+        lagGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.HIDDEN);
+
+        add(new ViewToolbar("Outbox", refreshButton));
+        add(lagGrid);
+
+        refresh();
+    }
+
+    private void refresh() {
+        lagGrid.setItems(outboxService.lag());
+    }
+
+    private Button createReplayButton(OutboxLag lag) {
+        var replayButton = new Button("Replay", VaadinIcon.ROTATE_LEFT.create(), event -> confirmReplay(lag));
+        replayButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_SMALL);
+        replayButton.setEnabled(lag.replayable());
+        if (!lag.replayable()) {
+            replayButton.setTooltipText("Applies deltas, so replayed events would be counted twice");
+        }
+        return replayButton;
+    }
+
+    private void confirmReplay(OutboxLag lag) {
+        var positionField = new IntegerField("From position");
+        positionField.setMin(0);
+        positionField.setValue((int) Math.min(lag.position() + 1, Integer.MAX_VALUE));
+        positionField.setWidthFull();
+
+        var confirmDialog = new ConfirmDialog();
+        confirmDialog.setHeader("Replay " + lag.consumer());
+        confirmDialog.setText(new Span("Events from this position on are delivered to the consumer again."));
+        confirmDialog.add(positionField);
+        confirmDialog.setCancelable(true);
+        confirmDialog.setConfirmText("Replay");
+        confirmDialog.addConfirmListener(event -> {
+            if (positionField.isEmpty()) {
+                return;
+            }
+            try {
+                outboxService.replay(lag.consumer(), positionField.getValue());
+                refresh();
+            } catch (IllegalArgumentException e) {
+                Notification.show(e.getMessage(), 3000, Notification.Position.BOTTOM_END)
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            }
+        });
+        confirmDialog.open();
+    }
+}
@@ -1,9 +1,16 @@
 package com.kurrle.base.ui.beans;
 
 import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.BestRecipe;
 import com.kurrle.coffee.CoffeeBean;
 import com.kurrle.coffee.CoffeeBeanService;
+import com.kurrle.coffee.QuantileSketch;
+import com.kurrle.coffee.RecipeSuggestion;
 import com.kurrle.coffee.RoastLevel;
+import com.kurrle.coffee.ShotPercentiles;
+import com.kurrle.coffee.ShotStatisticsService;
+import com.kurrle.coffee.Team;
+import com.kurrle.coffee.TeamService;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -18,16 +25,27 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.theme.lumo.LumoUtility;
 
 import jakarta.annotation.security.PermitAll;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
 
@@ -38,34 +56,109 @@ import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRe
 public class BeansView extends VerticalLayout {
 
     private final CoffeeBeanService coffeeBeanService;
+    private final ShotStatisticsService statisticsService;
+    private final TeamService teamService;
     private final Grid<CoffeeBean> beanGrid;
+    private final Button deactivateSelectedButton;
+    private final Button deleteSelectedButton;
 
-    public BeansView(CoffeeBeanService coffeeBeanService) {
+    // Percentiles of the beans on the pages fetched so far, loaded in one query per page
+    private final Map<Long, ShotPercentiles> percentiles = new HashMap<>();
+    private final Map<Long, BestRecipe> bestRecipes = new HashMap<>();
+
+    public BeansView(CoffeeBeanService coffeeBeanService, ShotStatisticsService statisticsService,
+                     TeamService teamService) {
         this.coffeeBeanService = coffeeBeanService;
+        this.statisticsService = statisticsService;
+        this.teamService = teamService;
 
         var addButton = new Button("Add Bean", VaadinIcon.PLUS.create(), event -> openBeanDialog(null));
         addButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
 
         beanGrid = new Grid<>();
-        beanGrid.setItems(query -> coffeeBeanService.listActive(toSpringPageRequest(query)).stream());
+        beanGrid.setItems(query -> {
+            var beans = coffeeBeanService.listActive(toSpringPageRequest(query));
+            var beanIds = beans.stream().map(CoffeeBean::getId).toList();
+            percentiles.putAll(statisticsService.percentilesByBean(beanIds));
+            bestRecipes.putAll(coffeeBeanService.bestRecipes(beanIds));
+            return beans.stream();
+        });
         beanGrid.addColumn(CoffeeBean::getName).setHeader("Name").setFlexGrow(2).setSortable(true);
         beanGrid.addColumn(CoffeeBean::getOrigin).setHeader("Origin").setFlexGrow(1);
         beanGrid.addColumn(bean -> bean.getRoastLevel().getDisplayName()).setHeader("Roast Level").setAutoWidth(true);
         beanGrid.addColumn(CoffeeBean::getFlavorNotes).setHeader("Flavor Notes").setFlexGrow(2);
+        beanGrid.addColumn(bean -> formatPercentiles(bean, ShotPercentiles::time, "%.0f", "s"))
+                .setHeader("Time p10/p50/p90").setAutoWidth(true);
+        beanGrid.addColumn(bean -> formatPercentiles(bean, ShotPercentiles::ratio, "%.1f", ""))
+                .setHeader("Ratio p10/p50/p90").setAutoWidth(true);
+        beanGrid.addColumn(this::formatBestRecipe).setHeader("Best Recipe").setAutoWidth(true);
+        beanGrid.addColumn(this::formatRemaining).setHeader("Remaining").setAutoWidth(true);
         beanGrid.addComponentColumn(this::createActionButtons).setHeader("Actions").setAutoWidth(true);
         beanGrid.setEmptyStateText("No coffee beans yet. Add your first bean!");
         beanGrid.setSizeFull();
+        beanGrid.setSelectionMode(Grid.SelectionMode.MULTI);
         beanGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
 
+        // Bulk actions on the selected beans
+        deactivateSelectedButton = new Button("Deactivate", VaadinIcon.ARCHIVE.create(),
+                event -> confirmBulk("Deactivate", "deactivated", coffeeBeanService::deactivateBeans));
+        deactivateSelectedButton.setEnabled(false);
+        deleteSelectedButton = new Button("Delete", VaadinIcon.TRASH.create(),
+                event -> confirmBulk("Delete", "deleted", coffeeBeanService::deleteBeans));
+        deleteSelectedButton.addThemeVariants(ButtonVariant.LUMO_ERROR);
+        deleteSelectedButton.setEnabled(false);
+        beanGrid.addSelectionListener(event -> {
+            var selected = event.getAllSelectedItems().size();
+            deactivateSelectedButton.setText(selected > 0 ? "Deactivate (" + selected + ")" : "Deactivate");
+            deactivateSelectedButton.setEnabled(selected > 0);
+            deleteSelectedButton.setText(selected > 0 ? "Delete (" + selected + ")" : "Delete");
+            deleteSelectedButton.setEnabled(selected > 0);
+        });
+
         setSizeFull();
         setPadding(false);
         setSpacing(false);
         getStyle().setOverflow(Style.Overflow.HIDDEN);
 
-        add(new ViewToolbar("Coffee Beans", addButton));
+        add(new ViewToolbar("Coffee Beans", deactivateSelectedButton, deleteSelectedButton, addButton));
         add(beanGrid);
     }
 
+    private String formatPercentiles(CoffeeBean bean, Function<ShotPercentiles, QuantileSketch.Percentiles> metric,
+                                     String format, String unit) {
+        var stats = percentiles.get(bean.getId());
+        if (stats == null || stats.isEmpty()) {
+            return "-";
+        }
+        var values = metric.apply(stats);
+        var pattern = format + " / " + format + " / " + format + "%s";
+        return String.format(pattern, values.p10(), values.p50(), values.p90(), unit);
+    }
+
+    private String formatBestRecipe(CoffeeBean bean) {
+        var recipe = bestRecipes.get(bean.getId());
+        if (recipe == null) {
+            return "-";
+        }
+        return String.format("%.1f · %.1fg → %.1fg · %ds", recipe.getGrindSize(), recipe.getGrindAmount(),
+                recipe.getYield(), recipe.getExtractionTime());
+    }
+
+    private String formatRemaining(CoffeeBean bean) {
+        var remaining = bean.getRemainingGrams();
+        if (remaining == null) {
+            return "-";
+        }
+        return String.format("%.0fg", remaining) + (bean.isLowOnStock() ? " ⚠" : "");
+    }
+
+    private String formatSuggestion(RecipeSuggestion suggestion) {
+        return String.format("Suggested start: %.1fg in, %.1fg out (1:%.1f) in %ds, grind around %.1f"
+                        + " – from %d similar beans of other users",
+                suggestion.dose(), suggestion.yield(), suggestion.brewRatio(), suggestion.extractionTime(),
+                suggestion.grindSize(), suggestion.beanCount());
+    }
+
     private HorizontalLayout createActionButtons(CoffeeBean bean) {
         var editButton = new Button(VaadinIcon.EDIT.create(), event -> openBeanDialog(bean));
         editButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_SMALL);
@@ -107,20 +200,61 @@ public class BeansView extends VerticalLayout {
         flavorNotesField.setPlaceholder("e.g., Chocolate, fruity, nutty...");
         flavorNotesField.setWidthFull();
 
+        var teams = teamService.listMyTeams();
+        var teamField = new ComboBox<Team>("Share with Team");
+        teamField.setItems(teams);
+        teamField.setItemLabelGenerator(Team::getName);
+        teamField.setClearButtonVisible(true);
+        teamField.setPlaceholder("Not shared");
+        teamField.setWidthFull();
+        teamField.setVisible(!teams.isEmpty());
+
+        var remainingField = new NumberField("Remaining (g)");
+        remainingField.setMin(0);
+        remainingField.setStep(1);
+        remainingField.setClearButtonVisible(true);
+        remainingField.setPlaceholder("Not tracked");
+        remainingField.setHelperText("Counts down by each shot's dose");
+        remainingField.setWidthFull();
+
         if (existingBean != null) {
             nameField.setValue(existingBean.getName());
             originField.setValue(Optional.ofNullable(existingBean.getOrigin()).orElse(""));
             roastLevelField.setValue(existingBean.getRoastLevel());
             flavorNotesField.setValue(Optional.ofNullable(existingBean.getFlavorNotes()).orElse(""));
+            remainingField.setValue(existingBean.getRemainingGrams());
+            if (existingBean.getTeam() != null) {
+                var teamId = existingBean.getTeam().getId();
+                teams.stream().filter(team -> team.getId().equals(teamId)).findFirst().ifPresent(teamField::setValue);
+            }
         }
 
-        var formLayout = new FormLayout(nameField, originField, roastLevelField, flavorNotesField);
+        var formLayout = new FormLayout(nameField, originField, roastLevelField, teamField, remainingField,
+                flavorNotesField);
         formLayout.setResponsiveSteps(
                 new FormLayout.ResponsiveStep("0", 1),
                 new FormLayout.ResponsiveStep("400px", 2)
         );
         formLayout.setColspan(flavorNotesField, 2);
 
+        // Starting recipe from other users' similar beans, for beans without own history yet
+        var suggestion = new Span();
+        suggestion.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        if (existingBean == null) {
+            Runnable updateSuggestion = () -> suggestion.setText(coffeeBeanService.suggestStartingRecipe(
+                            originField.isEmpty() ? null : originField.getValue(),
+                            Optional.ofNullable(roastLevelField.getValue()).orElse(RoastLevel.MEDIUM),
+                            flavorNotesField.isEmpty() ? null : flavorNotesField.getValue())
+                    .map(this::formatSuggestion)
+                    .orElse(""));
+            originField.setValueChangeMode(ValueChangeMode.LAZY);
+            flavorNotesField.setValueChangeMode(ValueChangeMode.LAZY);
+            originField.addValueChangeListener(event -> updateSuggestion.run());
+            roastLevelField.addValueChangeListener(event -> updateSuggestion.run());
+            flavorNotesField.addValueChangeListener(event -> updateSuggestion.run());
+            updateSuggestion.run();
+        }
+
         var cancelButton = new Button("Cancel", event -> dialog.close());
 
         var saveButton = new Button(existingBean == null ? "Add" : "Save", event -> {
@@ -137,13 +271,34 @@ public class BeansView extends VerticalLayout {
 
             String origin = originField.isEmpty() ? null : originField.getValue();
             String flavorNotes = flavorNotesField.isEmpty() ? null : flavorNotesField.getValue();
+            Long teamId = teamField.isEmpty() ? null : teamField.getValue().getId();
+            Double remaining = remainingField.getValue();
 
             if (existingBean == null) {
-                coffeeBeanService.createBean(nameField.getValue(), roastLevelField.getValue(), origin, flavorNotes);
+                var bean = coffeeBeanService.createBean(nameField.getValue(), roastLevelField.getValue(), origin, flavorNotes);
+                coffeeBeanService.shareWithTeam(bean.getId(), teamId);
+                if (remaining != null) {
+                    coffeeBeanService.setRemainingGrams(bean.getId(), remaining);
+                }
                 Notification.show("Bean added!", 3000, Notification.Position.BOTTOM_END)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             } else {
-                coffeeBeanService.updateBean(existingBean.getId(), nameField.getValue(), roastLevelField.getValue(), origin, flavorNotes);
+                try {
+                    coffeeBeanService.updateBean(existingBean.getId(), existingBean.getVersion(), nameField.getValue(),
+                            roastLevelField.getValue(), origin, flavorNotes);
+                } catch (OptimisticLockingFailureException e) {
+                    Notification.show("This bean was changed in the meantime. Please reopen it and try again.",
+                                    5000, Notification.Position.BOTTOM_END)
+                            .addThemeVariants(NotificationVariant.LUMO_ERROR);
+                    beanGrid.getDataProvider().refreshAll();
+                    dialog.close();
+                    return;
+                }
+                coffeeBeanService.shareWithTeam(existingBean.getId(), teamId);
+                // Only written when edited, so shots pulled while the dialog was open still count
+                if (!Objects.equals(remaining, existingBean.getRemainingGrams())) {
+                    coffeeBeanService.setRemainingGrams(existingBean.getId(), remaining);
+                }
                 Notification.show("Bean updated!", 3000, Notification.Position.BOTTOM_END)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             }
@@ -153,7 +308,7 @@ public class BeansView extends VerticalLayout {
         });
         saveButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
 
-        dialog.add(formLayout);
+        dialog.add(formLayout, suggestion);
         dialog.getFooter().add(cancelButton, saveButton);
         dialog.open();
     }
@@ -167,10 +322,30 @@ public class BeansView extends VerticalLayout {
         confirmDialog.setConfirmButtonTheme("error primary");
         confirmDialog.addConfirmListener(event -> {
             coffeeBeanService.deleteBean(bean.getId());
+            beanGrid.deselect(bean);
             beanGrid.getDataProvider().refreshAll();
             Notification.show("Bean deleted", 3000, Notification.Position.BOTTOM_END)
                     .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
         });
         confirmDialog.open();
     }
+
+    private void confirmBulk(String action, String done, ToIntFunction<List<Long>> operation) {
+        var beanIds = beanGrid.getSelectedItems().stream().map(CoffeeBean::getId).toList();
+        var confirmDialog = new ConfirmDialog();
+        confirmDialog.setHeader(action + " Beans");
+        confirmDialog.setText(new Span("Are you sure you want to " + action.toLowerCase(Locale.ROOT) + " "
+                + beanIds.size() + " beans? Their shots are kept."));
+        confirmDialog.setCancelable(true);
+        confirmDialog.setConfirmText(action);
+        confirmDialog.setConfirmButtonTheme("error primary");
+        confirmDialog.addConfirmListener(event -> {
+            var affected = operation.applyAsInt(beanIds);
+            beanGrid.deselectAll();
+            beanGrid.getDataProvider().refreshAll();
+            Notification.show(affected + " beans " + done, 3000, Notification.Position.BOTTOM_END)
+                    .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
+        });
+        confirmDialog.open();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.kurrle.base.ui.community;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.CommunityStat;
+import com.kurrle.coffee.CommunityStatsService;
+import com.kurrle.coffee.RoastLevel;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.theme.lumo.LumoUtility;
+
+import jakarta.annotation.security.PermitAll;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+@Route("community")
+@PageTitle("Community")
+@Menu(order = 5, icon = "vaadin:users", title = "Community")
+@PermitAll
+public class CommunityView extends VerticalLayout {
+
+    private static final int TOP_ORIGINS = 20;
+
+    public CommunityView(CommunityStatsService statsService) {
+        var originGrid = new Grid<CommunityStat>();
+        originGrid.addColumn(stat -> capitalize(stat.getKey())).setHeader("Origin").setFlexGrow(2);
+        originGrid.addColumn(CommunityStat::getShotCount).setHeader("Shots").setAutoWidth(true);
+        originGrid.addColumn(CommunityView::formatShare).setHeader("Balanced").setAutoWidth(true);
+        originGrid.setItems(statsService.topOrigins(TOP_ORIGINS));
+        originGrid.setEmptyStateText("No origins tracked yet.");
+        originGrid.setAllRowsVisible(true);
+        originGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
+
+        var roastGrid = new Grid<CommunityStat>();
+        roastGrid.addColumn(stat -> RoastLevel.valueOf(stat.getKey()).getDisplayName())
+                .setHeader("Roast Level").setFlexGrow(2);
+        roastGrid.addColumn(CommunityStat::getShotCount).setHeader("Shots").setAutoWidth(true);
+        roastGrid.addColumn(CommunityView::formatShare).setHeader("Balanced").setAutoWidth(true);
+        roastGrid.addColumn(stat -> stat.getAverageRatio() > 0 ? String.format("1:%.2f", stat.getAverageRatio()) : "-")
+                .setHeader("Avg Ratio").setAutoWidth(true);
+        roastGrid.setItems(statsService.roastLevels());
+        roastGrid.setEmptyStateText("No shots tracked yet.");
+        roastGrid.setAllRowsVisible(true);
+        roastGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
+
+        var content = new Div(createSection("Most Tracked Origins", originGrid),
+                createSection("Roast Levels", roastGrid));
+        content.setWidthFull();
+        content.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.MEDIUM, LumoUtility.Padding.MEDIUM);
+        content.getStyle().set("grid-template-columns", "repeat(auto-fit, minmax(400px, 1fr))");
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.AUTO);
+
+        add(new ViewToolbar("Community"));
+        add(content);
+    }
+
+    private static Div createSection(String title, Grid<CommunityStat> grid) {
+        var header = new H3(title);
+        header.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Bottom.SMALL);
+        return new Div(header, grid);
+    }
+
+    private static String formatShare(CommunityStat stat) {
+        return stat.getReviewedCount() > 0 ? String.format("%.0f%%", stat.getBalancedShare() * 100) : "-";
+    }
+
+    private static String capitalize(String origin) {
+        return Arrays.stream(origin.split(" "))
+                .map(word -> word.isEmpty() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1))
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,157 @@
+package com.kurrle.base.ui.dashboard;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.CoffeeBean;
+import com.kurrle.coffee.CoffeeBeanService;
+import com.kurrle.coffee.MonthlyReportService;
+import com.kurrle.coffee.ReportFormat;
+import com.kurrle.coffee.RollupStats;
+import com.kurrle.coffee.ShotAnalyticsService;
+import com.kurrle.coffee.ShotRollupService;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.charts.Chart;
+import com.vaadin.flow.component.charts.model.AxisType;
+import com.vaadin.flow.component.charts.model.ChartType;
+import com.vaadin.flow.component.charts.model.DataSeries;
+import com.vaadin.flow.component.charts.model.DataSeriesItem;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import com.vaadin.flow.theme.lumo.LumoUtility;
+
+import jakarta.annotation.security.PermitAll;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+@Route("dashboard")
+@PageTitle("Dashboard")
+@Menu(order = 3, icon = "vaadin:chart", title = "Dashboard")
+@PermitAll
+public class DashboardView extends VerticalLayout {
+
+    private final ShotRollupService rollupService;
+    private final CoffeeBeanService beanService;
+    private final ShotAnalyticsService analyticsService;
+    private final ComboBox<Integer> rangeSelect;
+    private final Div chartContainer;
+
+    public DashboardView(ShotRollupService rollupService, CoffeeBeanService beanService,
+                         ShotAnalyticsService analyticsService, MonthlyReportService reportService) {
+        this.rollupService = rollupService;
+        this.beanService = beanService;
+        this.analyticsService = analyticsService;
+
+        rangeSelect = new ComboBox<>();
+        rangeSelect.setItems(3, 6, 12, 24);
+        rangeSelect.setItemLabelGenerator(months -> "Last " + months + " months");
+        rangeSelect.setValue(3);
+        rangeSelect.addValueChangeListener(event -> buildCharts());
+
+        chartContainer = new Div();
+        chartContainer.setWidthFull();
+        chartContainer.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.MEDIUM, LumoUtility.Padding.MEDIUM);
+        chartContainer.getStyle().set("grid-template-columns", "repeat(auto-fit, minmax(400px, 1fr))");
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.AUTO);
+
+        // Downloads of last month's report, once the monthly report job has written it
+        var toolbarComponents = new ArrayList<Component>(List.of(rangeSelect));
+        for (var format : ReportFormat.values()) {
+            reportService.latestReport(format).ifPresent(report -> {
+                var download = new Anchor(DownloadHandler.forFile(report.path().toFile(), report.fileName()),
+                        "Monthly report (" + format.name() + ")");
+                download.setTarget("_blank");
+                toolbarComponents.add(download);
+            });
+        }
+        add(new ViewToolbar("Dashboard", toolbarComponents.toArray(Component[]::new)));
+        add(createAllTimeSummary());
+        add(chartContainer);
+
+        buildCharts();
+    }
+
+    private Span createAllTimeSummary() {
+        var summary = analyticsService.summarize(null);
+        var text = new Span(String.format("All time: %d shots · avg %.1fg → %.1fg in %.0fs (1:%.1f) · %.0f%% balanced",
+                summary.shotCount(), summary.meanDose(), summary.meanYield(), summary.meanTime(),
+                summary.meanRatio(), summary.balancedShare() * 100));
+        text.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.Padding.Horizontal.MEDIUM,
+                LumoUtility.Padding.Top.MEDIUM);
+        return text;
+    }
+
+    private void buildCharts() {
+        chartContainer.removeAll();
+
+        var months = rangeSelect.getValue() != null ? rangeSelect.getValue() : 3;
+        var from = LocalDate.now(ZoneOffset.UTC).minusMonths(months);
+        var daily = rollupService.dailyTotals(from);
+        var monthly = rollupService.monthlyByBean(from.withDayOfMonth(1));
+
+        chartContainer.add(
+                createDailyChart("Shots per Day", ChartType.COLUMN, "Shots", daily, RollupStats::shotCount),
+                createDailyChart("Balanced Shots", ChartType.LINE, "% of reviewed", daily,
+                        stats -> Math.round(stats.balancedShare() * 1000) / 10.0),
+                createBeanTrendChart("Average Ratio per Bean", "Ratio (1:x)", monthly, RollupStats::averageRatio),
+                createBeanTrendChart("Average Time per Bean", "Seconds", monthly, RollupStats::averageTime)
+        );
+    }
+
+    private Chart createDailyChart(String title, ChartType type, String axisTitle, List<RollupStats> stats,
+                                   ToDoubleFunction<RollupStats> value) {
+        var chart = createChart(title, type, axisTitle);
+        var series = new DataSeries(axisTitle);
+        stats.forEach(day -> series.add(new DataSeriesItem(toInstant(day.period()), value.applyAsDouble(day))));
+        chart.getConfiguration().addSeries(series);
+        return chart;
+    }
+
+    private Chart createBeanTrendChart(String title, String axisTitle, List<RollupStats> stats,
+                                       ToDoubleFunction<RollupStats> value) {
+        var chart = createChart(title, ChartType.LINE, axisTitle);
+        var beanNames = beanService.listAll().stream()
+                .collect(Collectors.toMap(CoffeeBean::getId, CoffeeBean::getName));
+
+        Map<Long, DataSeries> seriesByBean = new LinkedHashMap<>();
+        for (var month : stats) {
+            var series = seriesByBean.computeIfAbsent(month.beanId(),
+                    beanId -> new DataSeries(beanNames.getOrDefault(beanId, "No bean")));
+            series.add(new DataSeriesItem(toInstant(month.period()), Math.round(value.applyAsDouble(month) * 10) / 10.0));
+        }
+        seriesByBean.values().forEach(chart.getConfiguration()::addSeries);
+        return chart;
+    }
+
+    private Chart createChart(String title, ChartType type, String axisTitle) {
+        var chart = new Chart(type);
+        var configuration = chart.getConfiguration();
+        configuration.setTitle(title);
+        configuration.getxAxis().setType(AxisType.DATETIME);
+        configuration.getyAxis().setTitle(axisTitle);
+        chart.setHeight("320px");
+        return chart;
+    }
+
+    private static Instant toInstant(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
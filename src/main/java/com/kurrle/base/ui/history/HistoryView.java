@@ -0,0 +1,128 @@
+package com.kurrle.base.ui.history;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.CoffeeBean;
+import com.kurrle.coffee.CoffeeBeanService;
+import com.kurrle.coffee.ShotHistory;
+import com.kurrle.coffee.ShotHistoryService;
+import com.vaadin.flow.component.charts.Chart;
+import com.vaadin.flow.component.charts.model.AxisType;
+import com.vaadin.flow.component.charts.model.ChartType;
+import com.vaadin.flow.component.charts.model.DataSeries;
+import com.vaadin.flow.component.charts.model.DataSeriesItem;
+import com.vaadin.flow.component.charts.model.Dimension;
+import com.vaadin.flow.component.charts.model.Marker;
+import com.vaadin.flow.component.charts.model.PlotOptionsLine;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.theme.lumo.LumoUtility;
+
+import jakarta.annotation.security.PermitAll;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@Route("history")
+@PageTitle("Shot History")
+@Menu(order = 7, icon = "vaadin:line-chart", title = "History")
+@PermitAll
+public class HistoryView extends VerticalLayout {
+
+    private static final int ALL_TIME = 0;
+
+    private final ShotHistoryService historyService;
+    private final ComboBox<CoffeeBean> beanSelect;
+    private final ComboBox<Integer> rangeSelect;
+    private final Span caption;
+    private final Div chartContainer;
+
+    public HistoryView(ShotHistoryService historyService, CoffeeBeanService beanService) {
+        this.historyService = historyService;
+
+        beanSelect = new ComboBox<>();
+        beanSelect.setPlaceholder("Select bean...");
+        beanSelect.setItems(beanService.listUsable());
+        beanSelect.setItemLabelGenerator(CoffeeBean::getName);
+        beanSelect.addValueChangeListener(event -> buildCharts());
+
+        rangeSelect = new ComboBox<>();
+        rangeSelect.setItems(1, 3, 12, ALL_TIME);
+        rangeSelect.setItemLabelGenerator(months -> months == ALL_TIME ? "All time" : "Last " + months + " months");
+        rangeSelect.setValue(12);
+        rangeSelect.addValueChangeListener(event -> buildCharts());
+
+        caption = new Span();
+        caption.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.Padding.Horizontal.MEDIUM,
+                LumoUtility.Padding.Top.MEDIUM);
+
+        chartContainer = new Div();
+        chartContainer.setWidthFull();
+        chartContainer.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.MEDIUM, LumoUtility.Padding.MEDIUM);
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.AUTO);
+
+        add(new ViewToolbar("Shot History", beanSelect, rangeSelect));
+        add(caption);
+        add(chartContainer);
+
+        buildCharts();
+    }
+
+    private void buildCharts() {
+        chartContainer.removeAll();
+
+        var bean = beanSelect.getValue();
+        if (bean == null) {
+            caption.setText("Select a bean to see how its shots developed.");
+            return;
+        }
+        var months = rangeSelect.getValue() != null ? rangeSelect.getValue() : ALL_TIME;
+        var from = months == ALL_TIME ? null : LocalDate.now(ZoneOffset.UTC).minusMonths(months);
+        var history = historyService.history(bean.getId(), from);
+
+        var plotted = history.grindSize().size();
+        caption.setText(plotted < history.shotCount()
+                ? String.format("%d shots, downsampled to %d points per chart. Drag across a chart to zoom in.",
+                        history.shotCount(), plotted)
+                : history.shotCount() + " shots");
+
+        chartContainer.add(
+                createChart("Grind Size", "Grind", history.grindSize()),
+                createChart("Extraction Time", "Seconds", history.extractionTime()),
+                createChart("Brew Ratio", "Ratio (1:x)", history.ratio())
+        );
+    }
+
+    private Chart createChart(String title, String axisTitle, ShotHistory.TimeSeries points) {
+        var chart = new Chart(ChartType.LINE);
+        var configuration = chart.getConfiguration();
+        configuration.setTitle(title);
+        configuration.getChart().setZoomType(Dimension.X);
+        configuration.getxAxis().setType(AxisType.DATETIME);
+        configuration.getyAxis().setTitle(axisTitle);
+        configuration.getLegend().setEnabled(false);
+
+        var options = new PlotOptionsLine();
+        options.setMarker(new Marker(false));
+        configuration.setPlotOptions(options);
+
+        var series = new DataSeries(axisTitle);
+        for (var i = 0; i < points.size(); i++) {
+            series.add(new DataSeriesItem(Instant.ofEpochMilli(points.timesMillis()[i]),
+                    Math.round(points.values()[i] * 10) / 10.0));
+        }
+        configuration.addSeries(series);
+        chart.setHeight("320px");
+        return chart;
+    }
+}
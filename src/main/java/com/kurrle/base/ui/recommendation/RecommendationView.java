@@ -4,8 +4,15 @@ import com.kurrle.base.ui.ViewToolbar;
 import com.kurrle.coffee.CoffeeBean;
 import com.kurrle.coffee.EspressoShot;
 import com.kurrle.coffee.EspressoShotService;
+import com.kurrle.coffee.QuantileSketch;
+import com.kurrle.coffee.RecommendationService;
+import com.kurrle.coffee.ShotInsights;
+import com.kurrle.coffee.ShotPercentiles;
+import com.kurrle.coffee.SimilarShot;
 import com.kurrle.coffee.TasteProfile;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.html.Div;
@@ -19,6 +26,7 @@ import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
@@ -28,7 +36,14 @@ import com.vaadin.flow.theme.lumo.LumoUtility;
 
 import jakarta.annotation.security.PermitAll;
 
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Route("recommendation/:shotId")
 @PageTitle("Dial-In Recommendations")
@@ -36,12 +51,16 @@ import java.util.Optional;
 public class RecommendationView extends VerticalLayout implements BeforeEnterObserver {
 
     private final EspressoShotService shotService;
+    private final RecommendationService recommendationService;
     
     private EspressoShot currentShot;
     private final Div contentContainer;
+    // Cancelled when the view is left, so late results are not pushed into a stale page
+    private CompletableFuture<ShotInsights> pendingInsights = new CompletableFuture<>();
 
-    public RecommendationView(EspressoShotService shotService) {
+    public RecommendationView(EspressoShotService shotService, RecommendationService recommendationService) {
         this.shotService = shotService;
+        this.recommendationService = recommendationService;
 
         contentContainer = new Div();
         contentContainer.setWidthFull();
@@ -99,7 +118,14 @@ public class RecommendationView extends VerticalLayout implements BeforeEnterObs
         }
     }
 
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        super.onDetach(detachEvent);
+        pendingInsights.cancel(false);
+    }
+
     private void buildRecommendationContent() {
+        pendingInsights.cancel(false);
         contentContainer.removeAll();
 
         var content = new VerticalLayout();
@@ -116,10 +142,95 @@ public class RecommendationView extends VerticalLayout implements BeforeEnterObs
         // Recommendations card
         content.add(createRecommendationsCard());
 
+        // History-based insights, filled in once computed in the background
+        var insightsContainer = new Div();
+        insightsContainer.setWidthFull();
+        insightsContainer.add(createInsightsPlaceholder());
+        content.add(insightsContainer);
+
         // Action buttons
         content.add(createActionButtons());
 
         contentContainer.add(content);
+        loadInsights(insightsContainer);
+    }
+
+    private void loadInsights(Div insightsContainer) {
+        var ui = UI.getCurrent();
+        var shot = currentShot;
+        var future = recommendationService.insights(shot);
+        pendingInsights = future;
+        future.whenComplete((insights, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            try {
+                ui.access(() -> {
+                    insightsContainer.removeAll();
+                    if (error == null) {
+                        showInsights(insightsContainer, shot, insights);
+                    } else {
+                        insightsContainer.add(createInsightsError(error));
+                    }
+                });
+            } catch (UIDetachedException e) {
+                // The user navigated away before the insights were ready
+            }
+        });
+    }
+
+    private void showInsights(Div insightsContainer, EspressoShot shot, ShotInsights insights) {
+        var layout = new VerticalLayout();
+        layout.setPadding(false);
+        layout.setSpacing(true);
+
+        // Typical range of this bean and of all beans
+        layout.add(createTypicalRangeCard(shot, insights));
+
+        // What usually followed this taste on this bean
+        createTransitionCard(shot, insights).ifPresent(layout::add);
+
+        // Past shots of this bean with the closest parameters
+        createSimilarShotsCard(insights).ifPresent(layout::add);
+
+        insightsContainer.add(layout);
+    }
+
+    private Div createInsightsPlaceholder() {
+        var card = new Div();
+        card.addClassNames(
+                LumoUtility.Background.CONTRAST_5,
+                LumoUtility.BorderRadius.MEDIUM,
+                LumoUtility.Padding.MEDIUM
+        );
+
+        var progress = new ProgressBar();
+        progress.setIndeterminate(true);
+
+        var hint = new Span("Analyzing your shot history…");
+        hint.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+
+        card.add(progress, hint);
+        return card;
+    }
+
+    private Div createInsightsError(Throwable error) {
+        var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        var message = cause instanceof TimeoutException || cause instanceof RejectedExecutionException
+                ? "Your shot history is taking longer than usual to analyze. Try again in a moment."
+                : "Your shot history could not be analyzed.";
+
+        var card = new Div();
+        card.addClassNames(
+                LumoUtility.Background.CONTRAST_5,
+                LumoUtility.BorderRadius.MEDIUM,
+                LumoUtility.Padding.MEDIUM
+        );
+
+        var text = new Span(message);
+        text.addClassNames(LumoUtility.TextColor.SECONDARY);
+        card.add(text);
+        return card;
     }
 
     private Div createShotInfoCard() {
@@ -282,14 +393,16 @@ public class RecommendationView extends VerticalLayout implements BeforeEnterObs
             adjustmentsContainer.add(createAdjustmentItem(
                     VaadinIcon.ARROW_UP,
                     "Increase Yield",
-                    String.format("Try %.0fg → %.0fg", currentShot.getYield(), currentShot.getYield() + 2),
+                    String.format("Try %.0fg → %.0fg", currentShot.getYield(),
+                            profile.adjustYield(currentShot.getYield(), currentShot.getGrindAmount())),
                     "Higher yield extracts more, reducing sourness"
             ));
         } else if (profile.shouldDecreaseYield()) {
             adjustmentsContainer.add(createAdjustmentItem(
                     VaadinIcon.ARROW_DOWN,
                     "Decrease Yield",
-                    String.format("Try %.0fg → %.0fg", currentShot.getYield(), Math.max(currentShot.getYield() - 2, currentShot.getGrindAmount())),
+                    String.format("Try %.0fg → %.0fg", currentShot.getYield(),
+                            profile.adjustYield(currentShot.getYield(), currentShot.getGrindAmount())),
                     "Lower yield reduces over-extraction and bitterness"
             ));
         }
@@ -299,14 +412,16 @@ public class RecommendationView extends VerticalLayout implements BeforeEnterObs
             adjustmentsContainer.add(createAdjustmentItem(
                     VaadinIcon.MINUS,
                     "Grind Finer",
-                    String.format("Try %.1f → %.1f", currentShot.getGrindSize(), currentShot.getGrindSize() - 0.5),
+                    String.format("Try %.1f → %.1f", currentShot.getGrindSize(),
+                            profile.adjustGrindSize(currentShot.getGrindSize())),
                     "Finer grind increases extraction and body"
             ));
         } else if (profile.shouldGrindCoarser()) {
             adjustmentsContainer.add(createAdjustmentItem(
                     VaadinIcon.PLUS,
                     "Grind Coarser",
-                    String.format("Try %.1f → %.1f", currentShot.getGrindSize(), currentShot.getGrindSize() + 0.5),
+                    String.format("Try %.1f → %.1f", currentShot.getGrindSize(),
+                            profile.adjustGrindSize(currentShot.getGrindSize())),
                     "Coarser grind reduces muddiness and over-extraction"
             ));
         }
@@ -350,6 +465,141 @@ public class RecommendationView extends VerticalLayout implements BeforeEnterObs
         return item;
     }
 
+    private Div createTypicalRangeCard(EspressoShot shot, ShotInsights insights) {
+        var card = new Div();
+        card.addClassNames(
+                LumoUtility.Background.CONTRAST_5,
+                LumoUtility.BorderRadius.MEDIUM,
+                LumoUtility.Padding.MEDIUM
+        );
+
+        var header = new H3("Your Typical Range");
+        header.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Bottom.SMALL);
+        card.add(header);
+
+        var bean = shot.getCoffeeBean();
+        var beanStats = insights.beanPercentiles();
+        if (bean != null && beanStats != null && !beanStats.isEmpty()) {
+            card.add(createRangeRow(bean.getName(), beanStats));
+        }
+        var userStats = insights.userPercentiles();
+        if (!userStats.isEmpty()) {
+            card.add(createRangeRow("All beans", userStats));
+        }
+
+        var hint = new Span("10th / 50th / 90th percentile of your shots");
+        hint.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        card.add(hint);
+        return card;
+    }
+
+    private Optional<Div> createTransitionCard(EspressoShot shot, ShotInsights insights) {
+        var bean = shot.getCoffeeBean();
+        if (bean == null) {
+            return Optional.empty();
+        }
+        var from = shot.getReview().getTasteProfile();
+        var transitions = insights.transitions();
+        var total = transitions.total(from);
+        if (total == 0) {
+            return Optional.empty();
+        }
+
+        var card = new Div();
+        card.addClassNames(
+                LumoUtility.Background.CONTRAST_5,
+                LumoUtility.BorderRadius.MEDIUM,
+                LumoUtility.Padding.MEDIUM
+        );
+
+        var header = new H3("What Came Next");
+        header.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Bottom.SMALL);
+        card.add(header);
+
+        var row = new Div();
+        row.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.SMALL, LumoUtility.Margin.Bottom.SMALL);
+        row.getStyle().set("grid-template-columns", "repeat(auto-fit, minmax(150px, 1fr))");
+        row.add(createParameterItem("Next shot balanced",
+                String.format("%.0f%%", transitions.probability(from, TasteProfile.BALANCED) * 100),
+                VaadinIcon.CHECK_CIRCLE));
+        transitions.mostLikelyNext(from).ifPresent(next -> row.add(createParameterItem("Most often followed by",
+                next.getDisplayName(), VaadinIcon.ARROW_RIGHT)));
+        card.add(row);
+
+        var hint = new Span("Based on " + total + " reviewed shots of " + bean.getName()
+                + " that followed a \"" + from.getDisplayName() + "\" shot");
+        hint.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        card.add(hint);
+        return Optional.of(card);
+    }
+
+    private Optional<Div> createSimilarShotsCard(ShotInsights insights) {
+        var similarShots = insights.similarShots();
+        if (similarShots.isEmpty()) {
+            return Optional.empty();
+        }
+
+        var card = new Div();
+        card.addClassNames(
+                LumoUtility.Background.CONTRAST_5,
+                LumoUtility.BorderRadius.MEDIUM,
+                LumoUtility.Padding.MEDIUM
+        );
+
+        var header = new H3("Similar Past Shots");
+        header.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Bottom.SMALL);
+        card.add(header);
+
+        var dateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM)
+                .withLocale(getLocale())
+                .withZone(ZoneId.systemDefault());
+        for (var shot : similarShots) {
+            card.add(createSimilarShotRow(shot, dateFormatter));
+        }
+        return Optional.of(card);
+    }
+
+    private Div createSimilarShotRow(SimilarShot shot, DateTimeFormatter dateFormatter) {
+        var row = new Div();
+        row.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.SMALL, LumoUtility.Margin.Bottom.SMALL);
+        row.getStyle().set("grid-template-columns", "repeat(auto-fit, minmax(120px, 1fr))");
+        row.addClickListener(event -> UI.getCurrent().navigate("review/" + shot.shotId()));
+        row.getStyle().set("cursor", "pointer");
+
+        var date = new Span(dateFormatter.format(shot.createdAt()));
+        date.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        var outcome = new Span(shot.tasteProfile() != null ? shot.tasteProfile().getDisplayName() : "Not reviewed");
+        outcome.addClassNames(LumoUtility.FontWeight.SEMIBOLD);
+        if (shot.tasteProfile() == TasteProfile.BALANCED) {
+            outcome.addClassNames(LumoUtility.TextColor.SUCCESS);
+        }
+
+        row.add(
+                date,
+                new Span(String.format("Grind %.1f", shot.grindSize())),
+                new Span(String.format("%.1fg → %.1fg", shot.grindAmount(), shot.yield())),
+                new Span(shot.extractionTime() + "s"),
+                outcome
+        );
+        return row;
+    }
+
+    private Div createRangeRow(String label, ShotPercentiles stats) {
+        var row = new Div();
+        row.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.SMALL, LumoUtility.Margin.Bottom.SMALL);
+        row.getStyle().set("grid-template-columns", "repeat(auto-fit, minmax(150px, 1fr))");
+        row.add(
+                createParameterItem(label, stats.time().count() + " shots", VaadinIcon.COFFEE),
+                createParameterItem("Time", formatRange(stats.time(), "%.0f") + "s", VaadinIcon.TIMER),
+                createParameterItem("Ratio", "1:" + formatRange(stats.ratio(), "%.1f"), VaadinIcon.CALC_BOOK)
+        );
+        return row;
+    }
+
+    private static String formatRange(QuantileSketch.Percentiles percentiles, String format) {
+        return String.format(format + " / " + format + " / " + format, percentiles.p10(), percentiles.p50(), percentiles.p90());
+    }
+
     private HorizontalLayout createActionButtons() {
         var trackNewShot = new Button("Track New Shot", VaadinIcon.PLUS.create(),
                 event -> UI.getCurrent().navigate(""));
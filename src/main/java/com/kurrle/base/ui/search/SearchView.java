@@ -0,0 +1,82 @@
+package com.kurrle.base.ui.search;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.EspressoShotService;
+import com.kurrle.coffee.NoteSearchHit;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import jakarta.annotation.security.PermitAll;
+
+import java.util.Optional;
+
+@Route("search")
+@PageTitle("Search Notes")
+@Menu(order = 2, icon = "vaadin:search", title = "Search")
+@PermitAll
+public class SearchView extends VerticalLayout {
+
+    private static final int MAX_RESULTS = 50;
+
+    private final EspressoShotService shotService;
+    private final TextField searchField;
+    private final Grid<NoteSearchHit> resultGrid;
+
+    public SearchView(EspressoShotService shotService) {
+        this.shotService = shotService;
+
+        searchField = new TextField();
+        searchField.setPlaceholder("Search shot, review and flavor notes...");
+        searchField.setPrefixComponent(VaadinIcon.SEARCH.create());
+        searchField.setClearButtonVisible(true);
+        searchField.setValueChangeMode(ValueChangeMode.LAZY);
+        searchField.setMinWidth("20em");
+        searchField.addValueChangeListener(event -> search());
+
+        resultGrid = new Grid<>();
+        resultGrid.addColumn(hit -> hit.getSourceType().getDisplayName())
+                .setHeader("Found in")
+                .setAutoWidth(true);
+        resultGrid.addColumn(hit -> Optional.ofNullable(hit.getBeanName()).orElse("-"))
+                .setHeader("Bean")
+                .setFlexGrow(1);
+        resultGrid.addColumn(NoteSearchHit::getText)
+                .setHeader("Notes")
+                .setFlexGrow(3);
+        resultGrid.addItemClickListener(event -> openHit(event.getItem()));
+        resultGrid.setEmptyStateText("Type to search your notes.");
+        resultGrid.setSizeFull();
+        resultGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.HIDDEN);
+
+        add(new ViewToolbar("Search Notes", searchField));
+        add(resultGrid);
+    }
+
+    private void search() {
+        var hits = shotService.searchNotes(searchField.getValue(), MAX_RESULTS);
+        resultGrid.setItems(hits);
+        resultGrid.setEmptyStateText(searchField.isEmpty() ? "Type to search your notes." : "No matching notes.");
+    }
+
+    private void openHit(NoteSearchHit hit) {
+        if (hit.getShotId() != null) {
+            UI.getCurrent().navigate("review/" + hit.getShotId());
+        } else {
+            UI.getCurrent().navigate("beans");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.kurrle.base.ui.sessions;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.CoffeeBean;
+import com.kurrle.coffee.CoffeeBeanService;
+import com.kurrle.coffee.DialInSession;
+import com.kurrle.coffee.DialInSessionService;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import jakarta.annotation.security.PermitAll;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
+
+@Route("sessions")
+@PageTitle("Dial-In Sessions")
+@Menu(order = 4, icon = "vaadin:flask", title = "Sessions")
+@PermitAll
+public class SessionsView extends VerticalLayout {
+
+    public SessionsView(DialInSessionService sessionService, CoffeeBeanService beanService) {
+        Map<Long, String> beanNames = beanService.listAll().stream()
+                .collect(Collectors.toMap(CoffeeBean::getId, CoffeeBean::getName));
+
+        var dateTimeFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
+                .withLocale(getLocale())
+                .withZone(ZoneId.systemDefault());
+
+        var sessionGrid = new Grid<DialInSession>();
+        sessionGrid.setItems(query -> sessionService.list(toSpringPageRequest(query)).stream());
+        sessionGrid.addColumn(session -> dateTimeFormatter.format(session.getStartedAt()))
+                .setHeader("Started")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> beanNames.getOrDefault(session.getBeanId(), "-"))
+                .setHeader("Bean")
+                .setFlexGrow(1);
+        sessionGrid.addColumn(DialInSession::getShotCount)
+                .setHeader("Shots")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> session.getShotsToBalanced() != null
+                        ? String.valueOf(session.getShotsToBalanced()) : "Not yet")
+                .setHeader("Shots to Balanced")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> String.format("%+.1f", session.getGrindSizeDrift()))
+                .setHeader("Grind Δ")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> String.format("%+.1fg", session.getGrindAmountDrift()))
+                .setHeader("Dose Δ")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> String.format("%+.1fg", session.getYieldDrift()))
+                .setHeader("Yield Δ")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> String.format("%+ds", session.getExtractionTimeDrift()))
+                .setHeader("Time Δ")
+                .setAutoWidth(true);
+        sessionGrid.addColumn(session -> session.getDuration().toMinutes() + " min")
+                .setHeader("Duration")
+                .setAutoWidth(true);
+        sessionGrid.setEmptyStateText("No dial-in sessions yet. Track a few shots of a bean!");
+        sessionGrid.setSizeFull();
+        sessionGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.HIDDEN);
+
+        add(new ViewToolbar("Dial-In Sessions"));
+        add(sessionGrid);
+    }
+}
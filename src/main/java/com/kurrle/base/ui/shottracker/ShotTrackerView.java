@@ -5,14 +5,24 @@ import com.kurrle.coffee.CoffeeBean;
 import com.kurrle.coffee.CoffeeBeanService;
 import com.kurrle.coffee.EspressoShot;
 import com.kurrle.coffee.EspressoShotService;
+import com.kurrle.coffee.ShotComparison;
+import com.kurrle.coffee.ShotFilter;
+import com.kurrle.coffee.ShotSortKey;
+import com.kurrle.coffee.TasteProfile;
+import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
 import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
@@ -22,15 +32,22 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.NumberField;
+import com.vaadin.flow.data.provider.SortDirection;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.theme.lumo.LumoUtility;
+import org.jspecify.annotations.Nullable;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import jakarta.annotation.security.PermitAll;
 
@@ -42,9 +59,13 @@ import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRe
 @PermitAll
 public class ShotTrackerView extends VerticalLayout {
 
+    // Row count assumed while a filter is active, until the grid reaches the real end of the data
+    private static final int FILTERED_COUNT_ESTIMATE = 200;
+
     private final EspressoShotService shotService;
     private final CoffeeBeanService beanService;
     private final Grid<EspressoShot> shotGrid;
+    private final Grid.Column<EspressoShot> dateColumn;
 
     // Quick entry form fields
     private final ComboBox<CoffeeBean> beanSelect;
@@ -53,13 +74,29 @@ public class ShotTrackerView extends VerticalLayout {
     private final NumberField yieldField;
     private final IntegerField timeField;
 
+    // Grid filters
+    private final ComboBox<CoffeeBean> beanFilter;
+    private final DatePicker fromFilter;
+    private final DatePicker toFilter;
+    private final ComboBox<TasteProfile> tasteFilter;
+    private final ComboBox<Boolean> reviewedFilter;
+    private final DatePicker jumpToDate;
+    private final Button compareButton;
+    private final Button deleteSelectedButton;
+
+    // Identifies the shot being entered, so a double submit of the form creates it only once
+    private UUID submissionToken = UUID.randomUUID();
+
+    // End of the day chosen with jump to date: the newest-first list starts there, seeking the index to it
+    private @Nullable Instant jumpBefore;
+
     public ShotTrackerView(EspressoShotService shotService, CoffeeBeanService beanService) {
         this.shotService = shotService;
         this.beanService = beanService;
 
         // Quick entry form
         beanSelect = new ComboBox<>("Bean");
-        beanSelect.setItems(beanService.listActive());
+        beanSelect.setItems(beanService.listUsable());
         beanSelect.setItemLabelGenerator(CoffeeBean::toString);
         beanSelect.setPlaceholder("Select bean...");
         beanSelect.setClearButtonVisible(true);
@@ -91,6 +128,13 @@ public class ShotTrackerView extends VerticalLayout {
         timeField.setMax(120);
         timeField.setStepButtonsVisible(true);
 
+        // Continue the bean's dial-in where the last shot left off
+        beanSelect.addValueChangeListener(event -> {
+            if (event.isFromClient() && event.getValue() != null) {
+                prefill(event.getValue());
+            }
+        });
+
         // Chain focus on Enter key for quick data entry
         grindSizeField.getElement().addEventListener("keydown", e -> grindAmountField.focus())
                 .setFilter("event.key === 'Enter'");
@@ -120,6 +164,35 @@ public class ShotTrackerView extends VerticalLayout {
         formContainer.add(formLayout, addButton);
         formContainer.setFlexGrow(1, formLayout);
 
+        // Grid filters
+        beanFilter = new ComboBox<>("Bean");
+        beanFilter.setItems(beanService.listUsable());
+        beanFilter.setItemLabelGenerator(CoffeeBean::toString);
+        beanFilter.setPlaceholder("All beans");
+        beanFilter.setClearButtonVisible(true);
+
+        fromFilter = new DatePicker("From");
+        fromFilter.setClearButtonVisible(true);
+
+        toFilter = new DatePicker("To");
+        toFilter.setClearButtonVisible(true);
+
+        tasteFilter = new ComboBox<>("Taste");
+        tasteFilter.setItems(TasteProfile.values());
+        tasteFilter.setItemLabelGenerator(TasteProfile::getDisplayName);
+        tasteFilter.setPlaceholder("Any taste");
+        tasteFilter.setClearButtonVisible(true);
+
+        reviewedFilter = new ComboBox<>("Reviewed");
+        reviewedFilter.setItems(true, false);
+        reviewedFilter.setItemLabelGenerator(reviewed -> reviewed ? "Reviewed" : "Not reviewed");
+        reviewedFilter.setPlaceholder("All shots");
+        reviewedFilter.setClearButtonVisible(true);
+
+        var filterBar = new HorizontalLayout(beanFilter, fromFilter, toFilter, tasteFilter, reviewedFilter);
+        filterBar.setWidthFull();
+        filterBar.setWrap(true);
+
         // Date formatter for the grid
         var dateTimeFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
                 .withLocale(getLocale())
@@ -127,17 +200,18 @@ public class ShotTrackerView extends VerticalLayout {
 
         // Shot grid
         shotGrid = new Grid<>();
-        shotGrid.setItems(query -> shotService.list(toSpringPageRequest(query)).stream());
+        shotGrid.setItems(query -> shotService.list(currentFilter(), toSpringPageRequest(query)).stream());
         
         shotGrid.addColumn(shot -> Optional.ofNullable(shot.getCoffeeBean())
                         .map(CoffeeBean::getName).orElse("-"))
                 .setHeader("Bean")
                 .setFlexGrow(2)
-                .setSortable(true);
+                .setSortProperty(ShotSortKey.BEAN.getProperty());
         
         shotGrid.addColumn(EspressoShot::getGrindSize)
                 .setHeader("Grind")
-                .setAutoWidth(true);
+                .setAutoWidth(true)
+                .setSortProperty(ShotSortKey.GRIND.getProperty());
         
         shotGrid.addColumn(shot -> String.format("%.1fg", shot.getGrindAmount()))
                 .setHeader("Dose")
@@ -149,19 +223,26 @@ public class ShotTrackerView extends VerticalLayout {
         
         shotGrid.addColumn(shot -> shot.getExtractionTime() + "s")
                 .setHeader("Time")
-                .setAutoWidth(true);
+                .setAutoWidth(true)
+                .setSortProperty(ShotSortKey.TIME.getProperty());
         
         shotGrid.addColumn(shot -> String.format("1:%.1f", shot.getBrewRatio()))
                 .setHeader("Ratio")
                 .setAutoWidth(true);
         
-        shotGrid.addColumn(shot -> dateTimeFormatter.format(shot.getCreatedAt()))
+        dateColumn = shotGrid.addColumn(shot -> dateTimeFormatter.format(shot.getCreatedAt()))
                 .setHeader("Date")
-                .setAutoWidth(true);
+                .setAutoWidth(true)
+                .setSortProperty(ShotSortKey.DATE.getProperty());
         
         shotGrid.addColumn(shot -> shot.getReview() != null ? "✓" : "")
                 .setHeader("Reviewed")
                 .setAutoWidth(true);
+
+        shotGrid.addColumn(shot -> shot.isOutlier() ? "⚠" : "")
+                .setHeader("Outlier")
+                .setTooltipGenerator(shot -> shot.isOutlier() ? "Unusual values, excluded from statistics" : null)
+                .setAutoWidth(true);
         
         shotGrid.addComponentColumn(this::createActionButtons)
                 .setHeader("Actions")
@@ -169,17 +250,61 @@ public class ShotTrackerView extends VerticalLayout {
 
         shotGrid.setEmptyStateText("No shots yet. Pull your first shot and track it!");
         shotGrid.setSizeFull();
+        shotGrid.setSelectionMode(Grid.SelectionMode.MULTI);
         shotGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
 
+        beanFilter.addValueChangeListener(this::filterChanged);
+        fromFilter.addValueChangeListener(this::filterChanged);
+        toFilter.addValueChangeListener(this::filterChanged);
+        tasteFilter.addValueChangeListener(this::filterChanged);
+        reviewedFilter.addValueChangeListener(this::filterChanged);
+        // Only sorts an index serves together with the filters are listed; fall back to newest first
+        shotGrid.addSortListener(event -> {
+            if (jumpBefore != null && !isNewestFirst()) {
+                // The jump only positions the newest-first list
+                clearJump();
+            }
+            if (!currentSortKey().supports(currentFilter())) {
+                Notification.show("This column cannot be sorted while these filters are set", 3000,
+                                Notification.Position.BOTTOM_END)
+                        .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
+                sortNewestFirst();
+            }
+        });
+        refreshGrid();
+
+        // Jump to date: starts the newest-first list at the end of the chosen day, leaving the filters alone
+        jumpToDate = new DatePicker();
+        jumpToDate.setPlaceholder("Jump to date...");
+        jumpToDate.setClearButtonVisible(true);
+        jumpToDate.addValueChangeListener(event -> jumpTo(event.getValue()));
+
+        // Side-by-side comparison of the selected shots
+        compareButton = new Button("Compare", VaadinIcon.SPLIT.create(), event -> openComparison());
+        compareButton.setEnabled(false);
+
+        // Bulk delete of the selected shots
+        deleteSelectedButton = new Button("Delete", VaadinIcon.TRASH.create(), event -> confirmDeleteSelected());
+        deleteSelectedButton.addThemeVariants(ButtonVariant.LUMO_ERROR);
+        deleteSelectedButton.setEnabled(false);
+
+        shotGrid.addSelectionListener(event -> {
+            var selected = event.getAllSelectedItems().size();
+            compareButton.setText(selected > 0 ? "Compare (" + selected + ")" : "Compare");
+            compareButton.setEnabled(selected >= ShotComparison.MIN_SHOTS && selected <= ShotComparison.MAX_SHOTS);
+            deleteSelectedButton.setText(selected > 0 ? "Delete (" + selected + ")" : "Delete");
+            deleteSelectedButton.setEnabled(selected > 0);
+        });
+
         setSizeFull();
         setPadding(false);
         setSpacing(false);
         getStyle().setOverflow(Style.Overflow.HIDDEN);
 
-        add(new ViewToolbar("Shot Tracker"));
+        add(new ViewToolbar("Shot Tracker", jumpToDate, compareButton, deleteSelectedButton));
         
         // Quick entry section
-        var entrySection = new VerticalLayout(formContainer);
+        var entrySection = new VerticalLayout(formContainer, filterBar);
         entrySection.setPadding(true);
         entrySection.setSpacing(false);
         add(entrySection);
@@ -187,6 +312,82 @@ public class ShotTrackerView extends VerticalLayout {
         add(shotGrid);
     }
 
+    private <V> void filterChanged(HasValue.ValueChangeEvent<V> event) {
+        var filter = currentFilter();
+        if (!ShotSortKey.DATE.supports(filter)) {
+            // No index serves this combination in any order, so the change is undone
+            Notification.show("The taste and reviewed filters cannot be combined with a bean filter", 3000,
+                            Notification.Position.BOTTOM_END)
+                    .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
+            event.getHasValue().setValue(event.getOldValue());
+            return;
+        }
+        if (!currentSortKey().supports(filter)) {
+            sortNewestFirst();
+        }
+        refreshGrid();
+    }
+
+    /**
+     * Starts the list at the newest shot of the given day or older, or at the newest shot if the date is
+     * cleared. The day's end bounds {@code created_at} like the To filter, so the first page is a seek on the
+     * (user_id, created_at) index in {@code created_at DESC, id DESC} order instead of skipping the newer shots.
+     */
+    private void jumpTo(@Nullable LocalDate date) {
+        jumpBefore = date != null ? date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant() : null;
+        if (jumpBefore != null && !isNewestFirst()) {
+            sortNewestFirst();
+        }
+        refreshGrid();
+        shotGrid.scrollToStart();
+    }
+
+    private void clearJump() {
+        jumpToDate.clear();
+    }
+
+    private boolean isNewestFirst() {
+        return shotGrid.getSortOrder().stream().findFirst()
+                .map(order -> order.getSorted() == dateColumn && order.getDirection() == SortDirection.DESCENDING)
+                .orElse(true);
+    }
+
+    private ShotSortKey currentSortKey() {
+        return shotGrid.getSortOrder().stream().findFirst()
+                .flatMap(order -> order.getSorted().getSortOrder(order.getDirection()).findFirst())
+                .flatMap(order -> ShotSortKey.ofProperty(order.getSorted()))
+                .orElse(ShotSortKey.DATE);
+    }
+
+    private void sortNewestFirst() {
+        shotGrid.sort(List.of(new GridSortOrder<>(dateColumn, SortDirection.DESCENDING)));
+    }
+
+    private void refreshGrid() {
+        var filter = currentFilter();
+        var estimate = filter.isEmpty() ? shotService.estimateShotCount() : FILTERED_COUNT_ESTIMATE;
+        if (estimate > 0) {
+            shotGrid.getLazyDataView().setItemCountEstimate((int) Math.min(estimate, Integer.MAX_VALUE));
+        }
+        shotGrid.getDataProvider().refreshAll();
+    }
+
+    private ShotFilter currentFilter() {
+        var zone = ZoneId.systemDefault();
+        Long beanId = beanFilter.getValue() != null ? beanFilter.getValue().getId() : null;
+        Instant from = Optional.ofNullable(fromFilter.getValue())
+                .map(date -> date.atStartOfDay(zone).toInstant())
+                .orElse(null);
+        Instant to = Optional.ofNullable(toFilter.getValue())
+                .map(LocalDate::plusDays)
+                .map(date -> date.atStartOfDay(zone).toInstant())
+                .orElse(null);
+        if (jumpBefore != null && (to == null || jumpBefore.isBefore(to))) {
+            to = jumpBefore;
+        }
+        return new ShotFilter(beanId, from, to, tasteFilter.getValue(), reviewedFilter.getValue());
+    }
+
     private void addShot() {
         // Validate required fields
         if (grindSizeField.isEmpty()) {
@@ -217,6 +418,7 @@ public class ShotTrackerView extends VerticalLayout {
         Long beanId = beanSelect.getValue() != null ? beanSelect.getValue().getId() : null;
         
         var shot = shotService.createShot(
+                submissionToken,
                 grindSizeField.getValue(),
                 grindAmountField.getValue(),
                 yieldField.getValue(),
@@ -224,9 +426,10 @@ public class ShotTrackerView extends VerticalLayout {
                 beanId
         );
 
-        shotGrid.getDataProvider().refreshAll();
+        refreshGrid();
         
         // Clear form but keep bean selection for consecutive shots
+        submissionToken = UUID.randomUUID();
         grindSizeField.clear();
         grindAmountField.clear();
         yieldField.clear();
@@ -235,13 +438,123 @@ public class ShotTrackerView extends VerticalLayout {
         // Focus first field for next entry
         grindSizeField.focus();
 
-        Notification.show("Shot tracked! Ready to review?", 3000, Notification.Position.BOTTOM_END)
-                .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+        if (shot.isOutlier()) {
+            Notification.show("These values look unusual for this bean. The shot is excluded from statistics.",
+                            5000, Notification.Position.BOTTOM_END)
+                    .addThemeVariants(NotificationVariant.LUMO_WARNING);
+        } else {
+            Notification.show("Shot tracked! Ready to review?", 3000, Notification.Position.BOTTOM_END)
+                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+        }
+        var bean = shot.getCoffeeBean();
+        if (bean != null && bean.isLowOnStock()) {
+            Notification.show(String.format("Only %.0fg of %s left", bean.getRemainingGrams(), bean.getName()),
+                            5000, Notification.Position.BOTTOM_END)
+                    .addThemeVariants(NotificationVariant.LUMO_WARNING);
+        }
         
         // Optionally navigate to review
         navigateToReview(shot.getId());
     }
 
+    private void prefill(CoffeeBean bean) {
+        shotService.nextShotParameters(bean.getId()).ifPresent(parameters -> {
+            grindSizeField.setValue(parameters.grindSize());
+            grindAmountField.setValue(parameters.grindAmount());
+            yieldField.setValue(parameters.yield());
+            timeField.setValue(parameters.extractionTime());
+        });
+    }
+
+    private void openComparison() {
+        var shotIds = shotGrid.getSelectedItems().stream().map(EspressoShot::getId).toList();
+        var comparison = shotService.compare(shotIds);
+
+        var dialog = new Dialog();
+        dialog.setHeaderTitle("Compare Shots");
+        dialog.setWidth("min(95vw, 1200px)");
+
+        var cards = new Div();
+        cards.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.MEDIUM);
+        cards.getStyle().set("grid-template-columns",
+                "repeat(" + comparison.entries().size() + ", minmax(200px, 1fr))");
+        cards.getStyle().setOverflow(Style.Overflow.AUTO);
+        comparison.entries().forEach(entry -> cards.add(createComparisonCard(entry)));
+
+        var closeButton = new Button("Close", event -> dialog.close());
+        dialog.add(cards);
+        dialog.getFooter().add(closeButton);
+        dialog.open();
+    }
+
+    private Div createComparisonCard(ShotComparison.Entry entry) {
+        var shot = entry.shot();
+        var card = new Div();
+        card.addClassNames(
+                LumoUtility.Background.CONTRAST_5,
+                LumoUtility.BorderRadius.MEDIUM,
+                LumoUtility.Padding.MEDIUM,
+                LumoUtility.Display.FLEX,
+                LumoUtility.FlexDirection.COLUMN,
+                LumoUtility.Gap.XSMALL
+        );
+
+        var header = new H3(Optional.ofNullable(shot.getCoffeeBean()).map(CoffeeBean::getName).orElse("No bean"));
+        header.addClassNames(LumoUtility.Margin.NONE, LumoUtility.FontSize.MEDIUM);
+        var date = new Span(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
+                .withLocale(getLocale())
+                .withZone(ZoneId.systemDefault())
+                .format(shot.getCreatedAt()));
+        date.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        card.add(header, date);
+
+        card.add(
+                createComparisonRow("Grind", String.format("%.1f", shot.getGrindSize()),
+                        String.format("%+.1f", entry.grindSizeDelta()), entry.grindSizeDelta() != 0),
+                createComparisonRow("Dose", String.format("%.1fg", shot.getGrindAmount()),
+                        String.format("%+.1fg", entry.grindAmountDelta()), entry.grindAmountDelta() != 0),
+                createComparisonRow("Yield", String.format("%.1fg", shot.getYield()),
+                        String.format("%+.1fg", entry.yieldDelta()), entry.yieldDelta() != 0),
+                createComparisonRow("Time", shot.getExtractionTime() + "s",
+                        String.format("%+ds", entry.extractionTimeDelta()), entry.extractionTimeDelta() != 0),
+                createComparisonRow("Ratio", String.format("1:%.1f", shot.getBrewRatio()),
+                        String.format("%+.2f", entry.ratioDelta()), Math.abs(entry.ratioDelta()) >= 0.005)
+        );
+
+        var review = shot.getReview();
+        var taste = new Span(review != null ? review.getTasteProfile().getDisplayName() : "Not reviewed");
+        taste.addClassNames(LumoUtility.FontWeight.SEMIBOLD, LumoUtility.Margin.Top.SMALL);
+        card.add(taste);
+        if (review != null && review.getNotes() != null) {
+            card.add(createNotes(review.getNotes()));
+        }
+        if (shot.getNotes() != null) {
+            card.add(createNotes(shot.getNotes()));
+        }
+        return card;
+    }
+
+    private static Div createComparisonRow(String label, String value, String delta, boolean changed) {
+        var labelSpan = new Span(label);
+        labelSpan.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.SMALL);
+        var valueSpan = new Span(value);
+        valueSpan.addClassNames(LumoUtility.FontWeight.SEMIBOLD);
+        var deltaSpan = new Span(changed ? delta : "");
+        deltaSpan.addClassNames(LumoUtility.TextColor.SECONDARY, LumoUtility.FontSize.XSMALL);
+
+        var row = new Div(labelSpan, valueSpan, deltaSpan);
+        row.addClassNames(LumoUtility.Display.FLEX, LumoUtility.AlignItems.BASELINE, LumoUtility.Gap.SMALL);
+        labelSpan.getStyle().set("flex", "1");
+        return row;
+    }
+
+    private static Span createNotes(String notes) {
+        var span = new Span(notes);
+        span.addClassNames(LumoUtility.FontSize.SMALL);
+        span.getStyle().set("white-space", "pre-wrap");
+        return span;
+    }
+
     private HorizontalLayout createActionButtons(EspressoShot shot) {
         var reviewButton = new Button(VaadinIcon.CHECK_CIRCLE.create(), 
                 event -> navigateToReview(shot.getId()));
@@ -273,10 +586,29 @@ public class ShotTrackerView extends VerticalLayout {
         confirmDialog.setConfirmButtonTheme("error primary");
         confirmDialog.addConfirmListener(event -> {
             shotService.deleteShot(shot.getId());
-            shotGrid.getDataProvider().refreshAll();
+            shotGrid.deselect(shot);
+            refreshGrid();
             Notification.show("Shot deleted", 3000, Notification.Position.BOTTOM_END)
                     .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
         });
         confirmDialog.open();
     }
+
+    private void confirmDeleteSelected() {
+        var shotIds = shotGrid.getSelectedItems().stream().map(EspressoShot::getId).toList();
+        var confirmDialog = new ConfirmDialog();
+        confirmDialog.setHeader("Delete Shots");
+        confirmDialog.setText(new Span("Are you sure you want to delete " + shotIds.size() + " shots?"));
+        confirmDialog.setCancelable(true);
+        confirmDialog.setConfirmText("Delete");
+        confirmDialog.setConfirmButtonTheme("error primary");
+        confirmDialog.addConfirmListener(event -> {
+            var deleted = shotService.deleteShots(shotIds);
+            shotGrid.deselectAll();
+            refreshGrid();
+            Notification.show(deleted + " shots deleted", 3000, Notification.Position.BOTTOM_END)
+                    .addThemeVariants(NotificationVariant.LUMO_CONTRAST);
+        });
+        confirmDialog.open();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.kurrle.base.ui.team;
+
+import com.kurrle.base.ui.ViewToolbar;
+import com.kurrle.coffee.CoffeeBean;
+import com.kurrle.coffee.EspressoShot;
+import com.kurrle.coffee.RollupStats;
+import com.kurrle.coffee.ShotFilter;
+import com.kurrle.coffee.ShotSortKey;
+import com.kurrle.coffee.Team;
+import com.kurrle.coffee.TeamMembership;
+import com.kurrle.coffee.TeamRole;
+import com.kurrle.coffee.TeamService;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.EmailField;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.theme.lumo.LumoUtility;
+
+import jakarta.annotation.security.PermitAll;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
+
+@Route("team")
+@PageTitle("Team")
+@Menu(order = 6, icon = "vaadin:group", title = "Team")
+@PermitAll
+public class TeamView extends VerticalLayout {
+
+    private static final int TOTALS_DAYS = 30;
+    private static final int MAX_MEMBERS = 100;
+
+    private final TeamService teamService;
+    private final ComboBox<Team> teamSelect;
+    private final Grid<TeamMembership> memberGrid;
+    private final Grid<RollupStats> beanGrid;
+    private final Grid<EspressoShot> shotGrid;
+    private final Div content;
+
+    // Names of the selected team's members, to label shots without loading each shot's user
+    private final Map<UUID, String> memberNames = new HashMap<>();
+    private final Map<Long, String> beanNames = new HashMap<>();
+
+    public TeamView(TeamService teamService) {
+        this.teamService = teamService;
+
+        teamSelect = new ComboBox<>();
+        teamSelect.setPlaceholder("Select team...");
+        teamSelect.setItemLabelGenerator(Team::getName);
+        teamSelect.addValueChangeListener(event -> showTeam());
+
+        var newTeamButton = new Button("New Team", VaadinIcon.PLUS.create(), event -> openNewTeamDialog());
+        newTeamButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+
+        var dateTimeFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT)
+                .withLocale(getLocale())
+                .withZone(ZoneId.systemDefault());
+
+        memberGrid = new Grid<>();
+        memberGrid.addColumn(membership -> membership.getUser().getFullName()).setHeader("Member").setFlexGrow(1);
+        memberGrid.addColumn(membership -> membership.getRole().getDisplayName()).setHeader("Role").setAutoWidth(true);
+        memberGrid.addComponentColumn(this::createRemoveButton).setAutoWidth(true);
+        memberGrid.setAllRowsVisible(true);
+        memberGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_COMPACT);
+
+        var emailField = new EmailField();
+        emailField.setPlaceholder("Member email");
+        var addMemberButton = new Button("Add", VaadinIcon.USER_CHECK.create(), event -> {
+            if (emailField.isEmpty() || teamSelect.isEmpty()) {
+                return;
+            }
+            try {
+                teamService.addMember(teamSelect.getValue().getId(), emailField.getValue());
+                emailField.clear();
+                showTeam();
+            } catch (IllegalArgumentException e) {
+                Notification.show(e.getMessage(), 3000, Notification.Position.BOTTOM_END)
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            }
+        });
+        var addMember = new HorizontalLayout(emailField, addMemberButton);
+
+        beanGrid = new Grid<>();
+        beanGrid.addColumn(stats -> beanNames.getOrDefault(stats.beanId(), "-")).setHeader("Bean").setFlexGrow(1);
+        beanGrid.addColumn(RollupStats::shotCount).setHeader("Shots").setAutoWidth(true);
+        beanGrid.addColumn(stats -> String.format("%.0f%%", stats.balancedShare() * 100))
+                .setHeader("Balanced").setAutoWidth(true);
+        beanGrid.addColumn(stats -> String.format("1:%.1f", stats.averageRatio())).setHeader("Avg Ratio").setAutoWidth(true);
+        beanGrid.setEmptyStateText("No shared beans with shots in the last " + TOTALS_DAYS + " days.");
+        beanGrid.setAllRowsVisible(true);
+        beanGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_COMPACT);
+
+        shotGrid = new Grid<>();
+        shotGrid.setItems(query -> teamSelect.isEmpty() ? Stream.empty()
+                : teamService.listShots(teamSelect.getValue().getId(), ShotFilter.NONE, toSpringPageRequest(query)).stream());
+        shotGrid.addColumn(shot -> Optional.ofNullable(shot.getCoffeeBean()).map(CoffeeBean::getName).orElse("-"))
+                .setHeader("Bean")
+                .setFlexGrow(2)
+                .setSortProperty(ShotSortKey.BEAN.getProperty());
+        shotGrid.addColumn(shot -> memberNames.getOrDefault(shot.getUser().getId(), "Former member"))
+                .setHeader("Barista")
+                .setFlexGrow(1);
+        // Team lists are only indexed by date and bean, so grind and time are not sortable here
+        shotGrid.addColumn(EspressoShot::getGrindSize)
+                .setHeader("Grind")
+                .setAutoWidth(true);
+        shotGrid.addColumn(shot -> String.format("%.1fg → %.1fg", shot.getGrindAmount(), shot.getYield()))
+                .setHeader("Dose → Yield")
+                .setAutoWidth(true);
+        shotGrid.addColumn(shot -> shot.getExtractionTime() + "s")
+                .setHeader("Time")
+                .setAutoWidth(true);
+        shotGrid.addColumn(shot -> dateTimeFormatter.format(shot.getCreatedAt()))
+                .setHeader("Date")
+                .setAutoWidth(true)
+                .setSortProperty(ShotSortKey.DATE.getProperty());
+        shotGrid.setEmptyStateText("No shots on shared beans yet.");
+        shotGrid.setMinHeight("400px");
+        shotGrid.addThemeVariants(GridVariant.LUMO_NO_BORDER, GridVariant.LUMO_ROW_STRIPES);
+
+        var overview = new Div(createSection("Members", memberGrid, addMember),
+                createSection("Shared Beans, last " + TOTALS_DAYS + " days", beanGrid));
+        overview.addClassNames(LumoUtility.Display.GRID, LumoUtility.Gap.MEDIUM);
+        overview.getStyle().set("grid-template-columns", "repeat(auto-fit, minmax(400px, 1fr))");
+
+        content = new Div(overview, createSection("Team Shots", shotGrid));
+        content.setWidthFull();
+        content.addClassNames(LumoUtility.Padding.MEDIUM);
+
+        setSizeFull();
+        setPadding(false);
+        setSpacing(false);
+        getStyle().setOverflow(Style.Overflow.AUTO);
+
+        add(new ViewToolbar("Team", teamSelect, newTeamButton));
+        add(content);
+
+        var teams = teamService.listMyTeams();
+        teamSelect.setItems(teams);
+        teams.stream().findFirst().ifPresentOrElse(teamSelect::setValue, this::showTeam);
+    }
+
+    private static Div createSection(String title, Component... components) {
+        var header = new H3(title);
+        header.addClassNames(LumoUtility.Margin.NONE, LumoUtility.Margin.Bottom.SMALL);
+        var section = new Div(header);
+        section.add(components);
+        return section;
+    }
+
+    private void showTeam() {
+        var team = teamSelect.getValue();
+        content.setVisible(team != null);
+        if (team == null) {
+            return;
+        }
+        var members = teamService.listMembers(team.getId(), PageRequest.of(0, MAX_MEMBERS));
+        memberNames.clear();
+        members.forEach(membership -> memberNames.put(membership.getUser().getId(), membership.getUser().getFullName()));
+        memberGrid.setItems(members);
+
+        beanNames.clear();
+        teamService.listBeans(team.getId()).forEach(bean -> beanNames.put(bean.getId(), bean.getName()));
+        beanGrid.setItems(teamService.beanTotals(team.getId(), LocalDate.now(ZoneOffset.UTC).minusDays(TOTALS_DAYS)));
+
+        shotGrid.getDataProvider().refreshAll();
+    }
+
+    private Button createRemoveButton(TeamMembership membership) {
+        var removeButton = new Button(VaadinIcon.CLOSE_SMALL.create(), event -> {
+            try {
+                teamService.removeMember(membership.getTeam().getId(), membership.getId());
+                showTeam();
+            } catch (IllegalArgumentException e) {
+                Notification.show(e.getMessage(), 3000, Notification.Position.BOTTOM_END)
+                        .addThemeVariants(NotificationVariant.LUMO_ERROR);
+            }
+        });
+        removeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_SMALL);
+        removeButton.setAriaLabel("Remove member");
+        removeButton.setVisible(membership.getRole() != TeamRole.OWNER);
+        return removeButton;
+    }
+
+    private void openNewTeamDialog() {
+        var dialog = new Dialog();
+        dialog.setHeaderTitle("New Team");
+
+        var nameField = new TextField("Name");
+        nameField.setRequired(true);
+        nameField.setMaxLength(Team.NAME_MAX_LENGTH);
+        nameField.setWidthFull();
+
+        var cancelButton = new Button("Cancel", event -> dialog.close());
+        var createButton = new Button("Create", event -> {
+            if (nameField.isEmpty()) {
+                nameField.setInvalid(true);
+                nameField.setErrorMessage("Name is required");
+                return;
+            }
+            var team = teamService.createTeam(nameField.getValue());
+            teamSelect.setItems(teamService.listMyTeams());
+            teamSelect.setValue(team);
+            dialog.close();
+        });
+        createButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+
+        dialog.add(nameField);
+        dialog.getFooter().add(cancelButton, createButton);
+        dialog.open();
+    }
+}
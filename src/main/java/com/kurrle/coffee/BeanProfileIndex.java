@@ -0,0 +1,269 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of all beans that have balanced shots, matched by origin, roast level and flavor-note
+ * tokens. The index is rebuilt periodically in the background: the aggregates are loaded with one
+ * grouped query and tokenized in parallel on the common fork/join pool, then published as an immutable
+ * snapshot, so lookups never touch the database.
+ */
+@Component
+class BeanProfileIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BeanProfileIndex.class);
+
+    /** Suggestions are only made from at least this many other users, so no single user's shots show. */
+    static final int MIN_CONTRIBUTING_USERS = 3;
+
+    private static final int MAX_MATCHES = 20;
+    private static final double MIN_SCORE = 1.0;
+    private static final double ORIGIN_WEIGHT = 2.0;
+    private static final int SPLIT_THRESHOLD = 512;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}]+");
+
+    private final CoffeeBeanRepository beanRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    BeanProfileIndex(CoffeeBeanRepository beanRepository, PlatformTransactionManager transactionManager) {
+        this.beanRepository = beanRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(initialDelayString = "${recommendations.bean-index.initial-delay:PT30S}",
+            fixedDelayString = "${recommendations.bean-index.rebuild-interval:PT1H}")
+    void rebuild() {
+        var aggregates = readOnlyTransaction.execute(status -> beanRepository.findBalancedRecipeAggregates());
+        var profiles = new Profile[aggregates.size()];
+        var postings = ForkJoinPool.commonPool().invoke(new BuildTask(aggregates, profiles, 0, profiles.length));
+        snapshot = new Snapshot(profiles, postings.origin, postings.flavor, postings.roast);
+        logger.info("Rebuilt bean profile index with {} beans", profiles.length);
+    }
+
+    /**
+     * Suggests a starting recipe for a bean with the given attributes from the beans of other users.
+     */
+    Optional<RecipeSuggestion> suggest(@Nullable String origin, RoastLevel roastLevel, @Nullable String flavorNotes,
+                                       UUID excludedUserId) {
+        var index = snapshot;
+        var originTokens = tokens(origin);
+        var flavorTokens = tokens(flavorNotes);
+
+        var candidates = new HashSet<Integer>();
+        for (var token : originTokens) {
+            addAll(candidates, index.originPostings.get(token));
+        }
+        for (var token : flavorTokens) {
+            addAll(candidates, index.flavorPostings.get(token));
+        }
+        if (candidates.isEmpty()) {
+            addAll(candidates, index.roastPostings[roastLevel.ordinal()]);
+        }
+
+        var matches = new ArrayList<Match>();
+        for (var candidate : candidates) {
+            var profile = index.profiles[candidate];
+            if (profile.aggregate.userId().equals(excludedUserId)) {
+                continue;
+            }
+            var score = ORIGIN_WEIGHT * jaccard(originTokens, profile.originTokens)
+                    + jaccard(flavorTokens, profile.flavorTokens)
+                    + roastSimilarity(roastLevel, profile.aggregate.roastLevel());
+            if (score >= MIN_SCORE) {
+                matches.add(new Match(profile.aggregate, score));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed());
+        var top = matches.subList(0, Math.min(MAX_MATCHES, matches.size()));
+        if (top.stream().map(match -> match.aggregate.userId()).distinct().count() < MIN_CONTRIBUTING_USERS) {
+            return Optional.empty();
+        }
+
+        double weights = 0, grind = 0, dose = 0, yield = 0, time = 0;
+        long shots = 0;
+        for (var match : top) {
+            var aggregate = match.aggregate;
+            var weight = match.score * aggregate.shotCount();
+            weights += weight;
+            grind += weight * aggregate.grindSize();
+            dose += weight * aggregate.dose();
+            yield += weight * aggregate.yield();
+            time += weight * aggregate.extractionTime();
+            shots += aggregate.shotCount();
+        }
+        return Optional.of(new RecipeSuggestion(grind / weights, dose / weights, yield / weights,
+                (int) Math.round(time / weights), top.size(), shots));
+    }
+
+    private static void addAll(Set<Integer> target, int @Nullable [] postings) {
+        if (postings != null) {
+            for (var index : postings) {
+                target.add(index);
+            }
+        }
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        var shared = 0;
+        for (var token : a) {
+            if (b.contains(token)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private static double roastSimilarity(RoastLevel a, RoastLevel b) {
+        return switch (Math.abs(a.ordinal() - b.ordinal())) {
+            case 0 -> 1.0;
+            case 1 -> 0.5;
+            default -> 0.0;
+        };
+    }
+
+    static Set<String> tokens(@Nullable String text) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+        var tokens = new HashSet<String>();
+        for (var token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= 3) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Profile(BeanRecipeAggregate aggregate, Set<String> originTokens, Set<String> flavorTokens) {
+    }
+
+    private record Match(BeanRecipeAggregate aggregate, double score) {
+    }
+
+    private record Snapshot(Profile[] profiles, Map<String, int[]> originPostings, Map<String, int[]> flavorPostings,
+                            int[][] roastPostings) {
+
+        static final Snapshot EMPTY = new Snapshot(new Profile[0], Map.of(), Map.of(),
+                new int[RoastLevel.values().length][0]);
+    }
+
+    /**
+     * Postings of a contiguous range of profiles. Indices in every list are ascending.
+     */
+    private static final class Postings {
+        final Map<String, int[]> origin;
+        final Map<String, int[]> flavor;
+        final int[][] roast;
+
+        Postings(Map<String, int[]> origin, Map<String, int[]> flavor, int[][] roast) {
+            this.origin = origin;
+            this.flavor = flavor;
+            this.roast = roast;
+        }
+
+        /**
+         * Appends the postings of the range that directly follows this one.
+         */
+        Postings merge(Postings next) {
+            next.origin.forEach((token, indices) -> origin.merge(token, indices, Postings::concat));
+            next.flavor.forEach((token, indices) -> flavor.merge(token, indices, Postings::concat));
+            for (var i = 0; i < roast.length; i++) {
+                roast[i] = concat(roast[i], next.roast[i]);
+            }
+            return this;
+        }
+
+        private static int[] concat(int[] a, int[] b) {
+            var result = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, result, a.length, b.length);
+            return result;
+        }
+    }
+
+    /**
+     * Tokenizes the aggregates in {@code [from, to)} into {@code profiles} and returns their postings,
+     * splitting the range in halves until it is small enough.
+     */
+    private static final class BuildTask extends RecursiveTask<Postings> {
+
+        private final List<BeanRecipeAggregate> aggregates;
+        private final Profile[] profiles;
+        private final int from;
+        private final int to;
+
+        BuildTask(List<BeanRecipeAggregate> aggregates, Profile[] profiles, int from, int to) {
+            this.aggregates = aggregates;
+            this.profiles = profiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Postings compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                var middle = (from + to) >>> 1;
+                var right = new BuildTask(aggregates, profiles, middle, to);
+                right.fork();
+                var left = new BuildTask(aggregates, profiles, from, middle).compute();
+                return left.merge(right.join());
+            }
+            var origin = new HashMap<String, List<Integer>>();
+            var flavor = new HashMap<String, List<Integer>>();
+            var roast = new ArrayList<List<Integer>>();
+            for (var i = 0; i < RoastLevel.values().length; i++) {
+                roast.add(new ArrayList<>());
+            }
+            for (var i = from; i < to; i++) {
+                var aggregate = aggregates.get(i);
+                var profile = new Profile(aggregate, tokens(aggregate.origin()), tokens(aggregate.flavorNotes()));
+                profiles[i] = profile;
+                for (var token : profile.originTokens) {
+                    origin.computeIfAbsent(token, key -> new ArrayList<>()).add(i);
+                }
+                for (var token : profile.flavorTokens) {
+                    flavor.computeIfAbsent(token, key -> new ArrayList<>()).add(i);
+                }
+                roast.get(aggregate.roastLevel().ordinal()).add(i);
+            }
+            return new Postings(toArrays(origin), toArrays(flavor),
+                    roast.stream().map(BuildTask::toArray).toArray(int[][]::new));
+        }
+
+        private static Map<String, int[]> toArrays(Map<String, List<Integer>> postings) {
+            var result = new HashMap<String, int[]>(postings.size() * 2);
+            postings.forEach((token, indices) -> result.put(token, toArray(indices)));
+            return result;
+        }
+
+        private static int[] toArray(List<Integer> indices) {
+            return indices.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
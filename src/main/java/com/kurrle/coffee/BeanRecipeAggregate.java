@@ -0,0 +1,21 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Mean parameters of one bean's balanced, non-outlier shots, together with the bean attributes used to
+ * match it against other beans. Loaded by {@link BeanProfileIndex}; never leaves this package.
+ */
+record BeanRecipeAggregate(Long beanId,
+                           UUID userId,
+                           @Nullable String origin,
+                           RoastLevel roastLevel,
+                           @Nullable String flavorNotes,
+                           long shotCount,
+                           double grindSize,
+                           double dose,
+                           double yield,
+                           double extractionTime) {
+}
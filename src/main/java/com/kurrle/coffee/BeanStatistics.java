@@ -0,0 +1,183 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Running statistics of one user's shots of one bean, updated incrementally on every shot write by
+ * {@link BeanStatisticsUpdater}, so no request has to scan the bean's shot history. A bean shared with a
+ * team has one row per member who pulled shots of it, as every member reads statistics of their own shots.
+ */
+@Entity
+@Table(name = "bean_user_statistics", indexes = {
+        @Index(name = "idx_bean_user_statistics_user", columnList = "user_id")
+})
+public class BeanStatistics {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "time_sketch")
+    @Nullable
+    private byte[] timeSketch;
+
+    @Column(name = "ratio_sketch")
+    @Nullable
+    private byte[] ratioSketch;
+
+    @Embedded
+    @AttributeOverride(name = "count", column = @Column(name = "dose_count", columnDefinition = "bigint default 0"))
+    @AttributeOverride(name = "mean", column = @Column(name = "dose_mean", columnDefinition = "float(53) default 0"))
+    @AttributeOverride(name = "m2", column = @Column(name = "dose_m2", columnDefinition = "float(53) default 0"))
+    private RunningStats dose = new RunningStats();
+
+    @Embedded
+    @AttributeOverride(name = "count", column = @Column(name = "time_count", columnDefinition = "bigint default 0"))
+    @AttributeOverride(name = "mean", column = @Column(name = "time_mean", columnDefinition = "float(53) default 0"))
+    @AttributeOverride(name = "m2", column = @Column(name = "time_m2", columnDefinition = "float(53) default 0"))
+    private RunningStats time = new RunningStats();
+
+    @Embedded
+    @AttributeOverride(name = "count", column = @Column(name = "ratio_count", columnDefinition = "bigint default 0"))
+    @AttributeOverride(name = "mean", column = @Column(name = "ratio_mean", columnDefinition = "float(53) default 0"))
+    @AttributeOverride(name = "m2", column = @Column(name = "ratio_m2", columnDefinition = "float(53) default 0"))
+    private RunningStats ratio = new RunningStats();
+
+    @Column(name = "taste_transitions")
+    @Nullable
+    private byte[] tasteTransitions;
+
+    /** The newest reviewed shot of the bean, i.e. the end of the chain the transitions were counted on. */
+    @Column(name = "last_reviewed_shot_id")
+    @Nullable
+    private Long lastReviewedShotId;
+
+    @Column(name = "last_reviewed_at")
+    @Nullable
+    private Instant lastReviewedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_taste")
+    @Nullable
+    private TasteProfile lastTaste;
+
+    /** Taste of the reviewed shot before the last one, so a changed last review can be re-counted. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_taste")
+    @Nullable
+    private TasteProfile previousTaste;
+
+    protected BeanStatistics() { // For Hibernate
+    }
+
+    public Long getBeanId() {
+        return id.beanId();
+    }
+
+    public UUID getUserId() {
+        return id.userId();
+    }
+
+    public QuantileSketch getTimeSketch() {
+        return timeSketch != null ? QuantileSketch.fromBytes(timeSketch) : new QuantileSketch();
+    }
+
+    public QuantileSketch getRatioSketch() {
+        return ratioSketch != null ? QuantileSketch.fromBytes(ratioSketch) : new QuantileSketch();
+    }
+
+    public RunningStats getDoseStats() {
+        return dose != null ? dose : new RunningStats();
+    }
+
+    public RunningStats getTimeStats() {
+        return time != null ? time : new RunningStats();
+    }
+
+    public RunningStats getRatioStats() {
+        return ratio != null ? ratio : new RunningStats();
+    }
+
+    public TransitionMatrix getTasteTransitions() {
+        return TransitionMatrix.fromBytes(tasteTransitions);
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or removes ({@code sign = -1}) a shot's values. Outliers are left out.
+     */
+    void record(ShotSnapshot shot, int sign) {
+        if (shot.outlier()) {
+            return;
+        }
+        var timeValues = getTimeSketch();
+        var ratioValues = getRatioSketch();
+        dose = getDoseStats();
+        time = getTimeStats();
+        ratio = getRatioStats();
+        if (sign > 0) {
+            timeValues.add(shot.extractionTime());
+            ratioValues.add(shot.brewRatio());
+            dose.add(shot.grindAmount());
+            time.add(shot.extractionTime());
+            ratio.add(shot.brewRatio());
+        } else {
+            timeValues.remove(shot.extractionTime());
+            ratioValues.remove(shot.brewRatio());
+            dose.remove(shot.grindAmount());
+            time.remove(shot.extractionTime());
+            ratio.remove(shot.brewRatio());
+        }
+        timeSketch = timeValues.toBytes();
+        ratioSketch = ratioValues.toBytes();
+    }
+
+    /**
+     * Follows a shot's taste profile changing from {@code before} to {@code after} (either may be null for
+     * a missing review or a deleted shot). Transitions are counted between consecutively reviewed shots:
+     * reviewing a shot newer than the last reviewed one extends the chain, changing or removing the last
+     * review corrects its transition, and reviews of older shots leave the chain alone.
+     */
+    void recordTaste(ShotSnapshot shot, @Nullable TasteProfile before, @Nullable TasteProfile after) {
+        var transitions = getTasteTransitions();
+        var isLast = Objects.equals(shot.shotId(), lastReviewedShotId);
+        if (isLast) {
+            if (previousTaste != null && before != null) {
+                transitions.decrement(previousTaste, before);
+            }
+            if (after != null) {
+                if (previousTaste != null) {
+                    transitions.increment(previousTaste, after);
+                }
+                lastTaste = after;
+            } else {
+                // The chain now ends at the previous review, whose own predecessor is not known here.
+                lastReviewedShotId = null;
+                lastTaste = previousTaste;
+                previousTaste = null;
+            }
+        } else if (after != null && before == null
+                && (lastReviewedAt == null || shot.createdAt().isAfter(lastReviewedAt))) {
+            if (lastTaste != null) {
+                transitions.increment(lastTaste, after);
+            }
+            previousTaste = lastTaste;
+            lastTaste = after;
+            lastReviewedShotId = shot.shotId();
+            lastReviewedAt = shot.createdAt();
+        } else {
+            return;
+        }
+        tasteTransitions = transitions.toBytes();
+    }
+
+    @Embeddable
+    public record Key(
+            @Column(name = "bean_id", nullable = false) Long beanId,
+            @Column(name = "user_id", nullable = false) UUID userId) implements Serializable {
+    }
+}
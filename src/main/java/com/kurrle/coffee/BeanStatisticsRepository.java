@@ -0,0 +1,48 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+interface BeanStatisticsRepository extends JpaRepository<BeanStatistics, BeanStatistics.Key> {
+
+    /**
+     * Creates the statistics row for a user's shots of a bean unless it already exists or the bean has been
+     * deleted; all statistics start out empty.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO bean_user_statistics (bean_id, user_id)
+            SELECT :beanId, :userId WHERE EXISTS (SELECT 1 FROM coffee_bean b WHERE b.bean_id = :beanId)
+            ON CONFLICT (bean_id, user_id) DO NOTHING
+            """, nativeQuery = true)
+    void ensureExists(Long beanId, UUID userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BeanStatistics s WHERE s.id.beanId = :beanId AND s.id.userId = :userId")
+    Optional<BeanStatistics> findForUpdate(Long beanId, UUID userId);
+
+    @Query("SELECT s FROM BeanStatistics s WHERE s.id.userId = :userId AND s.id.beanId IN :beanIds")
+    List<BeanStatistics> findByUserIdAndBeanIdIn(UUID userId, Collection<Long> beanIds);
+
+    @Query("SELECT s FROM BeanStatistics s WHERE s.id.userId = :userId")
+    List<BeanStatistics> findByUserId(UUID userId);
+
+    /**
+     * Deletes the statistics of all users for the user's given beans, so the beans can be deleted.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM BeanStatistics s
+            WHERE s.id.beanId IN (SELECT b.id FROM CoffeeBean b WHERE b.id IN :beanIds AND b.user = :user)
+            """)
+    int deleteByBeans(Collection<Long> beanIds, User user);
+}
@@ -0,0 +1,108 @@
+package com.kurrle.coffee;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Applies shot writes and review changes from the shot outbox to the {@link BeanStatistics} of the shot's
+ * user and bean. The row is locked while it is updated so concurrent updates do not lose writes. Rows of
+ * deleted beans are never created again, so events delivered after the bean was deleted are dropped.
+ * Ordered first so caches of derived results, like {@link ShotInsightsCache}, are invalidated after it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class BeanStatisticsUpdater implements ShotEventConsumer {
+
+    private final BeanStatisticsRepository repository;
+    private final EspressoShotRepository shotRepository;
+
+    BeanStatisticsUpdater(BeanStatisticsRepository repository, EspressoShotRepository shotRepository) {
+        this.repository = repository;
+        this.shotRepository = shotRepository;
+    }
+
+    @Override
+    public String consumerName() {
+        return "bean-statistics";
+    }
+
+    @Override
+    public void accept(ShotChangedEvent event) {
+        var before = event.before();
+        var after = event.after();
+        if (before == null || after == null || measurementsChanged(before, after)) {
+            if (before != null && before.beanId() != null) {
+                lockExisting(before).ifPresent(statistics -> statistics.record(before, -1));
+            }
+            if (after != null && after.beanId() != null) {
+                lock(after).ifPresent(statistics -> statistics.record(after, 1));
+            }
+        }
+        if (before != null && after != null && Objects.equals(before.beanId(), after.beanId())) {
+            if (after.beanId() != null && before.tasteProfile() != after.tasteProfile()) {
+                lock(after).ifPresent(statistics ->
+                        statistics.recordTaste(after, before.tasteProfile(), after.tasteProfile()));
+            }
+        } else {
+            if (before != null && before.beanId() != null && before.tasteProfile() != null) {
+                lockExisting(before)
+                        .ifPresent(statistics -> statistics.recordTaste(before, before.tasteProfile(), null));
+            }
+            if (after != null && after.beanId() != null && after.tasteProfile() != null) {
+                lock(after).ifPresent(statistics -> statistics.recordTaste(after, null, after.tasteProfile()));
+            }
+        }
+    }
+
+    /**
+     * Recomputes all statistics from the shots, one user's bean at a time. Shots are replayed in time order,
+     * so the taste transitions follow the reviews as they were made.
+     */
+    @Override
+    public void rebuild() {
+        repository.deleteAllInBatch();
+        try (var shots = shotRepository.streamSnapshotsByUserAndBean()) {
+            BeanStatistics statistics = null;
+            for (var iterator = shots.iterator(); iterator.hasNext(); ) {
+                var shot = iterator.next();
+                if (statistics == null || !statistics.getBeanId().equals(shot.beanId())
+                        || !statistics.getUserId().equals(shot.userId())) {
+                    statistics = lock(shot).orElseThrow(() ->
+                            new IllegalStateException("Statistics missing for bean " + shot.beanId()));
+                }
+                statistics.record(shot, 1);
+                if (shot.tasteProfile() != null) {
+                    statistics.recordTaste(shot, null, shot.tasteProfile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Locks the statistics a shot is counted in, creating them if needed, unless its bean has been deleted
+     * since the shot was written.
+     */
+    private Optional<BeanStatistics> lock(ShotSnapshot shot) {
+        repository.ensureExists(shot.beanId(), shot.userId());
+        return lockExisting(shot);
+    }
+
+    /**
+     * Locks the statistics a shot was counted in, unless they were deleted together with its bean.
+     */
+    private Optional<BeanStatistics> lockExisting(ShotSnapshot shot) {
+        return repository.findForUpdate(shot.beanId(), shot.userId());
+    }
+
+    private static boolean measurementsChanged(ShotSnapshot before, ShotSnapshot after) {
+        return !Objects.equals(before.beanId(), after.beanId())
+                || before.outlier() != after.outlier()
+                || before.grindAmount() != after.grindAmount()
+                || before.extractionTime() != after.extractionTime()
+                || before.brewRatio() != after.brewRatio();
+    }
+}
@@ -0,0 +1,83 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The parameters of a bean's most recent balanced shot, maintained by {@link BestRecipeUpdater} in the
+ * transaction that saves or removes a {@link TasteProfile#BALANCED} review. There is no row for beans
+ * without balanced shots.
+ */
+@Entity
+@Table(name = "best_recipe", indexes = {
+        @Index(name = "idx_best_recipe_user", columnList = "user_id"),
+        @Index(name = "idx_best_recipe_shot", columnList = "shot_id")
+})
+public class BestRecipe {
+
+    @Id
+    @Column(name = "bean_id")
+    private Long beanId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "shot_id", nullable = false)
+    private Long shotId;
+
+    @Column(name = "grind_size", nullable = false)
+    private double grindSize;
+
+    @Column(name = "grind_amount", nullable = false)
+    private double grindAmount;
+
+    @Column(name = "yield", nullable = false)
+    private double yield;
+
+    @Column(name = "extraction_time", nullable = false)
+    private int extractionTime;
+
+    @Column(name = "achieved_at", nullable = false)
+    private Instant achievedAt;
+
+    protected BestRecipe() { // For Hibernate
+    }
+
+    public Long getBeanId() {
+        return beanId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Long getShotId() {
+        return shotId;
+    }
+
+    public double getGrindSize() {
+        return grindSize;
+    }
+
+    public double getGrindAmount() {
+        return grindAmount;
+    }
+
+    public double getYield() {
+        return yield;
+    }
+
+    public int getExtractionTime() {
+        return extractionTime;
+    }
+
+    public Instant getAchievedAt() {
+        return achievedAt;
+    }
+
+    public double getBrewRatio() {
+        return yield / grindAmount;
+    }
+}
@@ -0,0 +1,68 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+interface BestRecipeRepository extends JpaRepository<BestRecipe, Long> {
+
+    /**
+     * Records a balanced shot as the bean's best recipe unless a more recent one is already recorded.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO best_recipe (bean_id, user_id, shot_id, grind_size, grind_amount, yield, extraction_time,
+                                     achieved_at)
+            VALUES (:beanId, :userId, :shotId, :grindSize, :grindAmount, :yield, :extractionTime, :achievedAt)
+            ON CONFLICT (bean_id) DO UPDATE SET
+                user_id = EXCLUDED.user_id,
+                shot_id = EXCLUDED.shot_id,
+                grind_size = EXCLUDED.grind_size,
+                grind_amount = EXCLUDED.grind_amount,
+                yield = EXCLUDED.yield,
+                extraction_time = EXCLUDED.extraction_time,
+                achieved_at = EXCLUDED.achieved_at
+            WHERE best_recipe.achieved_at <= EXCLUDED.achieved_at
+            """, nativeQuery = true)
+    void offer(Long beanId, UUID userId, Long shotId, double grindSize, double grindAmount, double yield,
+               int extractionTime, Instant achievedAt);
+
+    @Modifying
+    @Query("DELETE FROM BestRecipe r WHERE r.shotId = :shotId")
+    int deleteByShot(Long shotId);
+
+    /**
+     * Records the bean's most recent remaining balanced, non-outlier shot, if it has any.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO best_recipe (bean_id, user_id, shot_id, grind_size, grind_amount, yield, extraction_time,
+                                     achieved_at)
+            SELECT s.bean_id, s.user_id, s.shot_id, s.grind_size, s.grind_amount, s.yield, s.extraction_time,
+                   s.created_at
+            FROM espresso_shot s JOIN shot_review r ON r.shot_id = s.shot_id
+            WHERE s.bean_id = :beanId AND r.taste_profile = 'BALANCED' AND NOT s.outlier
+            ORDER BY s.created_at DESC
+            LIMIT 1
+            ON CONFLICT (bean_id) DO NOTHING
+            """, nativeQuery = true)
+    void recompute(Long beanId);
+
+    List<BestRecipe> findByUserIdAndBeanIdIn(UUID userId, Collection<Long> beanIds);
+
+    /**
+     * Deletes the best recipes of the user's given beans, so the beans can be deleted.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM BestRecipe r
+            WHERE r.beanId IN (SELECT b.id FROM CoffeeBean b WHERE b.id IN :beanIds AND b.user = :user)
+            """)
+    int deleteByBeans(Collection<Long> beanIds, User user);
+}
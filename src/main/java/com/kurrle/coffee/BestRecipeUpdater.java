@@ -0,0 +1,51 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Keeps {@link BestRecipe} current in the writing transaction. A new balanced shot replaces the recipe
+ * if it is more recent; when the recorded shot stops being balanced, changes or is deleted, the recipe
+ * falls back to the bean's latest remaining balanced shot.
+ */
+@Component
+class BestRecipeUpdater {
+
+    private final BestRecipeRepository repository;
+
+    BestRecipeUpdater(BestRecipeRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener
+    void on(ShotChangedEvent event) {
+        var before = event.before();
+        var after = event.after();
+        if (isBalanced(before) && !sameRecipe(before, after)) {
+            if (repository.deleteByShot(before.shotId()) > 0) {
+                repository.recompute(before.beanId());
+            }
+        }
+        if (isBalanced(after)) {
+            repository.offer(after.beanId(), after.userId(), after.shotId(), after.grindSize(), after.grindAmount(),
+                    after.yield(), after.extractionTime(), after.createdAt());
+        }
+    }
+
+    private static boolean isBalanced(@Nullable ShotSnapshot shot) {
+        return shot != null && shot.beanId() != null && !shot.outlier()
+                && shot.tasteProfile() == TasteProfile.BALANCED;
+    }
+
+    private static boolean sameRecipe(ShotSnapshot before, @Nullable ShotSnapshot after) {
+        return isBalanced(after)
+                && Objects.equals(before.beanId(), after.beanId())
+                && before.grindSize() == after.grindSize()
+                && before.grindAmount() == after.grindAmount()
+                && before.yield() == after.yield()
+                && before.extractionTime() == after.extractionTime();
+    }
+}
@@ -0,0 +1,21 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A shot as shown on a team's live board, sent to its subscribers as JSON.
+ * {@code tasteProfile} is null until the shot is reviewed.
+ */
+public record BoardShot(Long shotId,
+                        String barista,
+                        String bean,
+                        double grindSize,
+                        double grindAmount,
+                        double yield,
+                        int extractionTime,
+                        double brewRatio,
+                        @Nullable TasteProfile tasteProfile,
+                        Instant createdAt) {
+}
@@ -0,0 +1,93 @@
+package com.kurrle.coffee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Runs work over an ordered key space in chunks on a bounded executor. Keys are fetched one wave at a
+ * time, a wave being {@code parallelism} chunks of {@code chunkSize} keys, and each chunk is processed
+ * key by key on one executor thread. Only after the whole wave finished is its last key reported as
+ * the checkpoint, so a run resumed from the last checkpoint repeats at most one wave and the work per
+ * key must be idempotent. A key whose work fails is reported and skipped, so one bad key does not hold
+ * back all keys after it.
+ * <p>
+ * Each executor thread handles one key at a time, so with an executor of {@code parallelism} threads
+ * the job never holds more than {@code parallelism} database connections for its work.
+ *
+ * @param <K> the key type, e.g. a user id
+ */
+final class ChunkedJobRunner<K> {
+
+    /**
+     * Returns up to {@code limit} keys following {@code after}, in key order.
+     */
+    @FunctionalInterface
+    interface KeySource<K> {
+        List<K> next(K after, int limit);
+    }
+
+    /**
+     * Receives the last key of a finished wave, the number of keys in the wave and how many of them failed.
+     */
+    @FunctionalInterface
+    interface Checkpoint<K> {
+        void reached(K last, int keys, int failed);
+    }
+
+    private final Executor executor;
+    private final int parallelism;
+    private final int chunkSize;
+
+    ChunkedJobRunner(Executor executor, int parallelism, int chunkSize) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Processes all keys after {@code start}.
+     *
+     * @param failed     called on the executor thread with a key whose work threw, before the chunk moves on
+     * @param checkpoint called after every wave
+     * @return the number of keys processed, including failed ones
+     */
+    int run(K start, KeySource<K> keys, Consumer<K> work, BiConsumer<K, RuntimeException> failed,
+            Checkpoint<K> checkpoint) {
+        var after = start;
+        var processed = 0;
+        var waveSize = parallelism * chunkSize;
+        while (true) {
+            var wave = keys.next(after, waveSize);
+            if (wave.isEmpty()) {
+                return processed;
+            }
+            var failures = new AtomicInteger();
+            var chunks = new ArrayList<CompletableFuture<Void>>();
+            for (var from = 0; from < wave.size(); from += chunkSize) {
+                var chunk = wave.subList(from, Math.min(from + chunkSize, wave.size()));
+                chunks.add(CompletableFuture.runAsync(() -> {
+                    for (var key : chunk) {
+                        try {
+                            work.accept(key);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                            failed.accept(key, e);
+                        }
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+            after = wave.getLast();
+            processed += wave.size();
+            checkpoint.reached(after, wave.size(), failures.get());
+            if (wave.size() < waveSize) {
+                return processed;
+            }
+        }
+    }
+}
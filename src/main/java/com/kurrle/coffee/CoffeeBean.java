@@ -7,12 +7,17 @@ import org.jspecify.annotations.Nullable;
 import java.time.Instant;
 
 @Entity
-@Table(name = "coffee_bean")
+@Table(name = "coffee_bean", indexes = {
+        @Index(name = "idx_coffee_bean_user_name", columnList = "user_id, name"),
+        @Index(name = "idx_coffee_bean_team_name", columnList = "team_id, name")
+})
 public class CoffeeBean {
 
     public static final int NAME_MAX_LENGTH = 100;
     public static final int ORIGIN_MAX_LENGTH = 100;
     public static final int FLAVOR_NOTES_MAX_LENGTH = 500;
+    // Enough for two or three more shots
+    public static final double LOW_STOCK_GRAMS = 50;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -23,6 +28,12 @@ public class CoffeeBean {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Shared with this team's members; the owner stays the only one who can edit the bean
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id")
+    @Nullable
+    private Team team;
+
     @Column(name = "name", nullable = false, length = NAME_MAX_LENGTH)
     private String name = "";
 
@@ -44,6 +55,16 @@ public class CoffeeBean {
     @Column(name = "active", nullable = false)
     private boolean active = true;
 
+    // Written only by the atomic statements in CoffeeBeanRepository, so saving the bean never overwrites a
+    // concurrent decrement; null while the inventory is not tracked
+    @Column(name = "remaining_grams", insertable = false, updatable = false)
+    @Nullable
+    private Double remainingGrams;
+
+    @Version
+    @Column(name = "version", columnDefinition = "integer default 0")
+    private int version;
+
     protected CoffeeBean() { // For Hibernate
     }
 
@@ -66,6 +87,14 @@ public class CoffeeBean {
         this.user = user;
     }
 
+    public @Nullable Team getTeam() {
+        return team;
+    }
+
+    void setTeam(@Nullable Team team) {
+        this.team = team;
+    }
+
     public String getName() {
         return name;
     }
@@ -119,6 +148,23 @@ public class CoffeeBean {
         this.active = active;
     }
 
+    public @Nullable Double getRemainingGrams() {
+        return remainingGrams;
+    }
+
+    // Reflects an atomic update in memory; the column is not written from the entity
+    void setRemainingGrams(@Nullable Double remainingGrams) {
+        this.remainingGrams = remainingGrams;
+    }
+
+    public boolean isLowOnStock() {
+        return remainingGrams != null && remainingGrams < LOW_STOCK_GRAMS;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return name + (origin != null ? " (" + origin + ")" : "");
@@ -1,18 +1,81 @@
 package com.kurrle.coffee;
 
 import com.kurrle.security.User;
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 interface CoffeeBeanRepository extends JpaRepository<CoffeeBean, Long>, JpaSpecificationExecutor<CoffeeBean> {
 
     Slice<CoffeeBean> findAllByUser(User user, Pageable pageable);
 
+    List<CoffeeBean> findByUser(User user);
+
     List<CoffeeBean> findByUserAndActiveTrue(User user);
 
     Slice<CoffeeBean> findByUserAndActiveTrue(User user, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE CoffeeBean b SET b.active = false WHERE b.id IN :ids AND b.user = :user")
+    int deactivateAllByIdInAndUser(Collection<Long> ids, User user);
+
+    @Modifying
+    @Query("DELETE FROM CoffeeBean b WHERE b.id IN :ids AND b.user = :user")
+    int deleteAllByIdInAndUser(Collection<Long> ids, User user);
+
+    /**
+     * Subtracts a shot's dose from the bean's remaining grams, stopping at zero, and returns the new amount.
+     * A single statement, so concurrent shots of the same bean never lose each other's decrements. Returns
+     * null if the bean's inventory is not tracked.
+     */
+    @Query(value = """
+            UPDATE coffee_bean SET remaining_grams = GREATEST(remaining_grams - :dose, 0)
+            WHERE bean_id = :beanId AND remaining_grams IS NOT NULL
+            RETURNING remaining_grams
+            """, nativeQuery = true)
+    @Nullable
+    Double decrementRemainingGrams(Long beanId, double dose);
+
+    /**
+     * Restocks one of the user's beans, or stops tracking its inventory when {@code grams} is null.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE coffee_bean SET remaining_grams = CAST(:grams AS double precision)
+            WHERE bean_id = :beanId AND user_id = :userId
+            """, nativeQuery = true)
+    int updateRemainingGrams(Long beanId, UUID userId, @Nullable Double grams);
+
+    /**
+     * Active beans the user owns or that are shared with one of the user's teams.
+     */
+    @Query("""
+            SELECT b FROM CoffeeBean b
+            WHERE b.active = true
+              AND (b.user = :user OR b.team IN (SELECT m.team FROM TeamMembership m WHERE m.user = :user))
+            ORDER BY b.name
+            """)
+    List<CoffeeBean> findUsableBy(User user);
+
+    List<CoffeeBean> findByTeamAndActiveTrueOrderByName(Team team);
+
+    /**
+     * Mean parameters of the balanced, non-outlier shots of every bean that has any.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.BeanRecipeAggregate(b.id, b.user.id, b.origin, b.roastLevel, b.flavorNotes,
+                   count(s), avg(s.grindSize), avg(s.grindAmount), avg(s.yield), avg(s.extractionTime))
+            FROM EspressoShot s JOIN s.coffeeBean b JOIN s.review r
+            WHERE r.tasteProfile = com.kurrle.coffee.TasteProfile.BALANCED AND s.outlier = false
+            GROUP BY b.id, b.user.id, b.origin, b.roastLevel, b.flavorNotes
+            """)
+    List<BeanRecipeAggregate> findBalancedRecipeAggregates();
 }
@@ -3,22 +3,55 @@ package com.kurrle.coffee;
 import com.kurrle.security.AuthenticatedUser;
 import com.kurrle.security.User;
 import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CoffeeBeanService {
 
     private final CoffeeBeanRepository repository;
+    private final BestRecipeRepository bestRecipeRepository;
+    private final BeanStatisticsRepository statisticsRepository;
+    private final DialInSessionRepository sessionRepository;
+    private final DailyShotRollupRepository rollupRepository;
+    private final TeamRepository teamRepository;
+    private final TeamMembershipRepository membershipRepository;
+    private final EspressoShotRepository shotRepository;
+    private final BeanProfileIndex profileIndex;
+    private final RecentShotBuffer recentShots;
     private final AuthenticatedUser authenticatedUser;
+    private final ApplicationEventPublisher eventPublisher;
 
-    CoffeeBeanService(CoffeeBeanRepository repository, AuthenticatedUser authenticatedUser) {
+    CoffeeBeanService(CoffeeBeanRepository repository, BestRecipeRepository bestRecipeRepository,
+                      BeanStatisticsRepository statisticsRepository, DialInSessionRepository sessionRepository,
+                      DailyShotRollupRepository rollupRepository, TeamRepository teamRepository,
+                      TeamMembershipRepository membershipRepository, EspressoShotRepository shotRepository,
+                      BeanProfileIndex profileIndex, RecentShotBuffer recentShots,
+                      AuthenticatedUser authenticatedUser, ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.bestRecipeRepository = bestRecipeRepository;
+        this.statisticsRepository = statisticsRepository;
+        this.sessionRepository = sessionRepository;
+        this.rollupRepository = rollupRepository;
+        this.teamRepository = teamRepository;
+        this.membershipRepository = membershipRepository;
+        this.shotRepository = shotRepository;
+        this.profileIndex = profileIndex;
+        this.recentShots = recentShots;
         this.authenticatedUser = authenticatedUser;
+        this.eventPublisher = eventPublisher;
     }
 
     private User getCurrentUser() {
@@ -34,39 +67,116 @@ public class CoffeeBeanService {
         return repository.saveAndFlush(bean);
     }
 
+    /**
+     * Updates one of the current user's beans, as last read at {@code version}. A changed roast level or
+     * origin publishes a {@link ShotChangedEvent} per shot of the bean, which moves the shots to their new
+     * community statistics.
+     *
+     * @throws OptimisticLockingFailureException if the bean was changed since it was read
+     */
     @Transactional
-    public CoffeeBean updateBean(Long id, String name, RoastLevel roastLevel, @Nullable String origin, @Nullable String flavorNotes) {
+    public CoffeeBean updateBean(Long id, int version, String name, RoastLevel roastLevel, @Nullable String origin,
+                                 @Nullable String flavorNotes) {
+        var user = getCurrentUser();
         var bean = repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Bean not found: " + id));
         // Verify ownership
-        if (!bean.getUser().getId().equals(getCurrentUser().getId())) {
+        if (!bean.getUser().getId().equals(user.getId())) {
             throw new IllegalArgumentException("Not authorized to update this bean");
         }
+        if (bean.getVersion() != version) {
+            throw new OptimisticLockingFailureException("Bean was changed in the meantime: " + id);
+        }
+        var roastBefore = bean.getRoastLevel();
+        var originBefore = CommunityCounters.normalizeOrigin(bean.getOrigin());
         bean.setName(name);
         bean.setRoastLevel(roastLevel);
         bean.setOrigin(origin);
         bean.setFlavorNotes(flavorNotes);
-        return repository.saveAndFlush(bean);
+        var saved = repository.saveAndFlush(bean);
+        if (roastLevel != roastBefore || !Objects.equals(CommunityCounters.normalizeOrigin(origin), originBefore)) {
+            shotRepository.findSnapshotsOfBeans(List.of(id), user).forEach(shot -> eventPublisher.publishEvent(
+                    ShotChangedEvent.updated(shot.withBean(roastBefore, originBefore), shot)));
+        }
+        // Buffered shots show the bean's name
+        recentShots.clear();
+        return saved;
     }
 
+    /**
+     * Sets the grams left of one of the current user's beans, or stops tracking them when {@code grams}
+     * is null. Shots of the bean count down from this amount.
+     *
+     * @throws IllegalArgumentException if the bean is not found or belongs to another user
+     */
+    @Transactional
+    public void setRemainingGrams(Long beanId, @Nullable Double grams) {
+        if (grams != null && grams < 0) {
+            throw new IllegalArgumentException("Remaining grams must not be negative");
+        }
+        if (repository.updateRemainingGrams(beanId, getCurrentUser().getId(), grams) == 0) {
+            throw new IllegalArgumentException("Bean not found: " + beanId);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bean is not found or belongs to another user
+     */
     @Transactional
     public void deleteBean(Long id) {
-        var bean = repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Bean not found: " + id));
-        // Verify ownership
-        if (!bean.getUser().getId().equals(getCurrentUser().getId())) {
-            throw new IllegalArgumentException("Not authorized to delete this bean");
+        if (deleteBeans(List.of(id)) == 0) {
+            throw new IllegalArgumentException("Bean not found: " + id);
         }
-        repository.deleteById(id);
     }
 
+    /**
+     * Deletes the given beans of the current user with set-based statements. Their shots, including team
+     * members' shots of shared beans, are kept without a bean or dial-in session; the beans' sessions,
+     * statistics, best recipes and rollups are deleted with them, and the shots' new totals follow through the
+     * published {@link ShotChangedEvent}s. Beans that are not found or belong to another user are skipped.
+     *
+     * @return the number of beans deleted
+     */
+    @Transactional
+    public int deleteBeans(Collection<Long> beanIds) {
+        if (beanIds.isEmpty()) {
+            return 0;
+        }
+        var user = getCurrentUser();
+        var ids = Set.copyOf(beanIds);
+        var shots = shotRepository.findSnapshotsOfBeans(ids, user);
+        shotRepository.unlinkFromBeans(ids, user);
+        sessionRepository.deleteByBeans(ids, user);
+        statisticsRepository.deleteByBeans(ids, user);
+        bestRecipeRepository.deleteByBeans(ids, user);
+        rollupRepository.deleteByBeans(ids, user);
+        var deleted = repository.deleteAllByIdInAndUser(ids, user);
+        shots.forEach(shot -> eventPublisher.publishEvent(ShotChangedEvent.updated(shot, shot.withoutBean())));
+        recentShots.clear();
+        return deleted;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bean is not found or belongs to another user
+     */
     @Transactional
     public void deactivateBean(Long id) {
-        var bean = repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Bean not found: " + id));
-        // Verify ownership
-        if (!bean.getUser().getId().equals(getCurrentUser().getId())) {
-            throw new IllegalArgumentException("Not authorized to deactivate this bean");
+        if (deactivateBeans(List.of(id)) == 0) {
+            throw new IllegalArgumentException("Bean not found: " + id);
         }
-        bean.setActive(false);
-        repository.saveAndFlush(bean);
+    }
+
+    /**
+     * Deactivates the given beans of the current user with one statement. Beans that are not found or
+     * belong to another user are skipped.
+     *
+     * @return the number of beans deactivated
+     */
+    @Transactional
+    public int deactivateBeans(Collection<Long> beanIds) {
+        if (beanIds.isEmpty()) {
+            return 0;
+        }
+        return repository.deactivateAllByIdInAndUser(Set.copyOf(beanIds), getCurrentUser());
     }
 
     @Transactional(readOnly = true)
@@ -74,6 +184,11 @@ public class CoffeeBeanService {
         return repository.findAllByUser(getCurrentUser(), pageable).toList();
     }
 
+    @Transactional(readOnly = true)
+    public List<CoffeeBean> listAll() {
+        return repository.findByUser(getCurrentUser());
+    }
+
     @Transactional(readOnly = true)
     public List<CoffeeBean> listActive() {
         return repository.findByUserAndActiveTrue(getCurrentUser());
@@ -84,9 +199,69 @@ public class CoffeeBeanService {
         return repository.findByUserAndActiveTrue(getCurrentUser(), pageable).toList();
     }
 
+    /**
+     * Active beans the current user can track shots with: their own and those shared with their teams.
+     */
+    @Transactional(readOnly = true)
+    public List<CoffeeBean> listUsable() {
+        return repository.findUsableBy(getCurrentUser());
+    }
+
+    /**
+     * Shares one of the current user's beans with a team the user belongs to, or stops sharing it when
+     * {@code teamId} is null. The bean's existing shots move along so they show up in team views; a
+     * {@link ShotChangedEvent} per shot takes them off the previous team's live board.
+     */
+    @Transactional
+    public void shareWithTeam(Long beanId, @Nullable Long teamId) {
+        var user = getCurrentUser();
+        var bean = repository.findById(beanId).orElseThrow(() -> new IllegalArgumentException("Bean not found: " + beanId));
+        // Verify ownership
+        if (!bean.getUser().getId().equals(user.getId())) {
+            throw new IllegalArgumentException("Not authorized to share this bean");
+        }
+        var currentTeamId = bean.getTeam() != null ? bean.getTeam().getId() : null;
+        if (Objects.equals(currentTeamId, teamId)) {
+            return;
+        }
+        Team team = null;
+        if (teamId != null) {
+            team = teamRepository.findById(teamId).orElseThrow(() -> new IllegalArgumentException("Team not found: " + teamId));
+            if (!membershipRepository.existsByTeamAndUser(team, user)) {
+                throw new IllegalArgumentException("Not a member of this team");
+            }
+        }
+        bean.setTeam(team);
+        repository.saveAndFlush(bean);
+        var shots = shotRepository.findSnapshotsOfBeans(List.of(beanId), user);
+        shotRepository.updateTeamOfBean(bean, team);
+        shots.forEach(shot -> eventPublisher.publishEvent(ShotChangedEvent.updated(shot, shot.withTeam(teamId))));
+    }
+
     @Transactional(readOnly = true)
     public Optional<CoffeeBean> findById(Long id) {
         return repository.findById(id)
                 .filter(bean -> bean.getUser().getId().equals(getCurrentUser().getId()));
     }
+
+    /**
+     * Suggests a starting recipe for a new bean with the given attributes, averaged over other users'
+     * balanced shots on similar beans. Answered from an in-memory index that is rebuilt in the background.
+     */
+    public Optional<RecipeSuggestion> suggestStartingRecipe(@Nullable String origin, RoastLevel roastLevel,
+                                                            @Nullable String flavorNotes) {
+        return profileIndex.suggest(origin, roastLevel, flavorNotes, getCurrentUser().getId());
+    }
+
+    /**
+     * The best recipe of each of the given beans that belongs to the current user and has a balanced shot.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BestRecipe> bestRecipes(Collection<Long> beanIds) {
+        if (beanIds.isEmpty()) {
+            return Map.of();
+        }
+        return bestRecipeRepository.findByUserIdAndBeanIdIn(getCurrentUser().getId(), beanIds).stream()
+                .collect(Collectors.toMap(BestRecipe::getBeanId, Function.identity()));
+    }
 }
@@ -0,0 +1,170 @@
+package com.kurrle.coffee;
+
+import jakarta.annotation.PreDestroy;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts committed shot writes per origin and roast level in striped in-memory counters
+ * ({@link LongAdder}, {@link DoubleAdder}), so concurrent writers never contend on a row. The buckets are
+ * taken from the roast level and origin on the {@link ShotSnapshot}s, i.e. as the bean was when the shot was
+ * written, so a shot is always subtracted from the buckets it was added to. The counted
+ * deltas are added to {@link CommunityStat} periodically in one transaction and put back into the
+ * counters if that fails. Writes counted since the last flush are lost if the process dies.
+ */
+@Component
+class CommunityCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommunityCounters.class);
+
+    private final CommunityStatRepository statRepository;
+    private final TransactionTemplate transaction;
+    private final ConcurrentHashMap<CommunityStat.Key, Cell> cells = new ConcurrentHashMap<>();
+
+    CommunityCounters(CommunityStatRepository statRepository, PlatformTransactionManager transactionManager) {
+        this.statRepository = statRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void seed() {
+        var rows = transaction.execute(status -> statRepository.seed());
+        if (rows != null && rows > 0) {
+            logger.info("Seeded community statistics with {} rows from existing shots", rows);
+        }
+    }
+
+    @TransactionalEventListener
+    void on(ShotChangedEvent event) {
+        var before = event.before();
+        var after = event.after();
+        if (before != null && after != null && !countsChanged(before, after)) {
+            return;
+        }
+        if (before != null) {
+            record(before, -1);
+        }
+        if (after != null) {
+            record(after, 1);
+        }
+    }
+
+    private void record(ShotSnapshot shot, int sign) {
+        if (shot.roastLevel() != null) {
+            cell(CommunityStat.Dimension.ROAST, shot.roastLevel().name()).add(shot, sign);
+        }
+        if (shot.origin() != null) {
+            cell(CommunityStat.Dimension.ORIGIN, shot.origin()).add(shot, sign);
+        }
+    }
+
+    private Cell cell(CommunityStat.Dimension dimension, String key) {
+        return cells.computeIfAbsent(new CommunityStat.Key(dimension, key), k -> new Cell());
+    }
+
+    /**
+     * Same grouping as the seed query in {@link CommunityStatRepository#seed()}.
+     */
+    static @Nullable String normalizeOrigin(@Nullable String origin) {
+        if (origin == null || origin.isBlank()) {
+            return null;
+        }
+        return origin.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean countsChanged(ShotSnapshot before, ShotSnapshot after) {
+        return !Objects.equals(before.beanId(), after.beanId())
+                || before.roastLevel() != after.roastLevel()
+                || !Objects.equals(before.origin(), after.origin())
+                || before.tasteProfile() != after.tasteProfile()
+                || before.outlier() != after.outlier()
+                || before.brewRatio() != after.brewRatio();
+    }
+
+    @Scheduled(fixedDelayString = "${community.flush-interval:PT1M}")
+    @PreDestroy
+    void flush() {
+        var drained = new ArrayList<Drained>();
+        cells.forEach((key, cell) -> {
+            var delta = cell.drain();
+            if (!delta.isZero()) {
+                drained.add(new Drained(key, cell, delta));
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(status -> drained.forEach(entry -> statRepository.add(
+                    entry.key.dimension().name(), entry.key.key(), entry.delta.shots, entry.delta.reviewed,
+                    entry.delta.balanced, entry.delta.ratioSum, entry.delta.ratioCount)));
+        } catch (RuntimeException e) {
+            drained.forEach(entry -> entry.cell.restore(entry.delta));
+            logger.warn("Could not flush {} community statistics, retrying on the next flush", drained.size(), e);
+        }
+    }
+
+    private record Drained(CommunityStat.Key key, Cell cell, Delta delta) {
+    }
+
+    private record Delta(long shots, long reviewed, long balanced, double ratioSum, long ratioCount) {
+
+        boolean isZero() {
+            return shots == 0 && reviewed == 0 && balanced == 0 && ratioSum == 0 && ratioCount == 0;
+        }
+    }
+
+    private static final class Cell {
+        final LongAdder shots = new LongAdder();
+        final LongAdder reviewed = new LongAdder();
+        final LongAdder balanced = new LongAdder();
+        final DoubleAdder ratioSum = new DoubleAdder();
+        final LongAdder ratioCount = new LongAdder();
+
+        void add(ShotSnapshot shot, int sign) {
+            shots.add(sign);
+            if (shot.tasteProfile() != null) {
+                reviewed.add(sign);
+                if (shot.tasteProfile() == TasteProfile.BALANCED) {
+                    balanced.add(sign);
+                }
+            }
+            if (!shot.outlier()) {
+                ratioSum.add(sign * shot.brewRatio());
+                ratioCount.add(sign);
+            }
+        }
+
+        /**
+         * Takes the counts accumulated since the last drain. Adds racing with this are either part of the
+         * result or stay in the counters for the next drain.
+         */
+        Delta drain() {
+            return new Delta(shots.sumThenReset(), reviewed.sumThenReset(), balanced.sumThenReset(),
+                    ratioSum.sumThenReset(), ratioCount.sumThenReset());
+        }
+
+        void restore(Delta delta) {
+            shots.add(delta.shots);
+            reviewed.add(delta.reviewed);
+            balanced.add(delta.balanced);
+            ratioSum.add(delta.ratioSum);
+            ratioCount.add(delta.ratioCount);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+/**
+ * Shot totals over all users per origin or roast level. Written only by {@link CommunityCounters},
+ * which flushes its in-memory counters here periodically; community pages read nothing else.
+ */
+@Entity
+@Table(name = "community_stat")
+public class CommunityStat {
+
+    public enum Dimension {
+        ORIGIN,
+        ROAST
+    }
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "shot_count", nullable = false)
+    private long shotCount;
+
+    @Column(name = "reviewed_count", nullable = false)
+    private long reviewedCount;
+
+    @Column(name = "balanced_count", nullable = false)
+    private long balancedCount;
+
+    // Sum and count of brew ratios of non-outlier shots
+    @Column(name = "ratio_sum", nullable = false)
+    private double ratioSum;
+
+    @Column(name = "ratio_count", nullable = false)
+    private long ratioCount;
+
+    protected CommunityStat() { // For Hibernate
+    }
+
+    public Key getId() {
+        return id;
+    }
+
+    /**
+     * @return the lower-cased origin, or the {@link RoastLevel} name
+     */
+    public String getKey() {
+        return id.key();
+    }
+
+    public long getShotCount() {
+        return shotCount;
+    }
+
+    public long getReviewedCount() {
+        return reviewedCount;
+    }
+
+    public long getBalancedCount() {
+        return balancedCount;
+    }
+
+    public double getBalancedShare() {
+        return reviewedCount == 0 ? 0 : (double) balancedCount / reviewedCount;
+    }
+
+    public double getAverageRatio() {
+        return ratioCount == 0 ? 0 : ratioSum / ratioCount;
+    }
+
+    @Embeddable
+    public record Key(
+            @Enumerated(EnumType.STRING) @Column(name = "dimension", nullable = false) Dimension dimension,
+            @Column(name = "stat_key", nullable = false) String key) implements Serializable {
+    }
+}
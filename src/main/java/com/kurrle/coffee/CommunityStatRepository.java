@@ -0,0 +1,58 @@
+package com.kurrle.coffee;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+interface CommunityStatRepository extends JpaRepository<CommunityStat, CommunityStat.Key> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO community_stat (dimension, stat_key, shot_count, reviewed_count, balanced_count,
+                                        ratio_sum, ratio_count)
+            VALUES (:dimension, :key, :shots, :reviewed, :balanced, :ratioSum, :ratioCount)
+            ON CONFLICT (dimension, stat_key) DO UPDATE SET
+                shot_count = community_stat.shot_count + EXCLUDED.shot_count,
+                reviewed_count = community_stat.reviewed_count + EXCLUDED.reviewed_count,
+                balanced_count = community_stat.balanced_count + EXCLUDED.balanced_count,
+                ratio_sum = community_stat.ratio_sum + EXCLUDED.ratio_sum,
+                ratio_count = community_stat.ratio_count + EXCLUDED.ratio_count
+            """, nativeQuery = true)
+    void add(String dimension, String key, long shots, long reviewed, long balanced, double ratioSum,
+             long ratioCount);
+
+    /**
+     * Fills the table from all existing shots, once: does nothing if the table has any rows.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO community_stat (dimension, stat_key, shot_count, reviewed_count, balanced_count,
+                                        ratio_sum, ratio_count)
+            SELECT * FROM (
+                SELECT 'ROAST', b.roast_level, count(*), count(r.review_id),
+                       count(*) FILTER (WHERE r.taste_profile = 'BALANCED'),
+                       coalesce(sum(s.yield / s.grind_amount) FILTER (WHERE NOT s.outlier), 0),
+                       count(*) FILTER (WHERE NOT s.outlier)
+                FROM espresso_shot s JOIN coffee_bean b ON b.bean_id = s.bean_id
+                LEFT JOIN shot_review r ON r.shot_id = s.shot_id
+                GROUP BY b.roast_level
+                UNION ALL
+                SELECT 'ORIGIN', lower(trim(b.origin)), count(*), count(r.review_id),
+                       count(*) FILTER (WHERE r.taste_profile = 'BALANCED'),
+                       coalesce(sum(s.yield / s.grind_amount) FILTER (WHERE NOT s.outlier), 0),
+                       count(*) FILTER (WHERE NOT s.outlier)
+                FROM espresso_shot s JOIN coffee_bean b ON b.bean_id = s.bean_id
+                LEFT JOIN shot_review r ON r.shot_id = s.shot_id
+                WHERE trim(b.origin) <> ''
+                GROUP BY lower(trim(b.origin))
+            ) seed
+            WHERE NOT EXISTS (SELECT 1 FROM community_stat)
+            """, nativeQuery = true)
+    int seed();
+
+    @Query("SELECT c FROM CommunityStat c WHERE c.id.dimension = :dimension ORDER BY c.shotCount DESC, c.id.key")
+    List<CommunityStat> findTop(CommunityStat.Dimension dimension, Pageable pageable);
+}
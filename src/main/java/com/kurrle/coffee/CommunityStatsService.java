@@ -0,0 +1,40 @@
+package com.kurrle.coffee;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Anonymous statistics over all users' shots, read from the small {@link CommunityStat} table only.
+ */
+@Service
+public class CommunityStatsService {
+
+    private final CommunityStatRepository repository;
+
+    CommunityStatsService(CommunityStatRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * The origins with the most tracked shots.
+     */
+    @Transactional(readOnly = true)
+    public List<CommunityStat> topOrigins(int limit) {
+        return repository.findTop(CommunityStat.Dimension.ORIGIN, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Statistics per roast level, from light to dark.
+     */
+    @Transactional(readOnly = true)
+    public List<CommunityStat> roastLevels() {
+        return repository.findTop(CommunityStat.Dimension.ROAST, Pageable.unpaged()).stream()
+                .sorted(Comparator.comparing(stat -> RoastLevel.valueOf(stat.getKey())))
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated shot statistics per user, bean and UTC day. Maintained incrementally by
+ * {@link DailyShotRollupUpdater} and reconciled nightly by {@link ShotRollupService}.
+ * Shots without a bean are rolled up under {@link #NO_BEAN}.
+ */
+@Entity
+@Table(name = "daily_shot_rollup", indexes = {
+        @Index(name = "idx_daily_shot_rollup_bean_day", columnList = "bean_id, day")
+})
+public class DailyShotRollup {
+
+    public static final long NO_BEAN = 0L;
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "shot_count", nullable = false)
+    private long shotCount;
+
+    @Column(name = "reviewed_count", nullable = false)
+    private long reviewedCount;
+
+    @Column(name = "balanced_count", nullable = false)
+    private long balancedCount;
+
+    // Outliers are counted here but left out of the sums below
+    @Column(name = "outlier_count", columnDefinition = "bigint default 0")
+    private long outlierCount;
+
+    @Column(name = "ratio_sum", nullable = false)
+    private double ratioSum;
+
+    @Column(name = "time_sum", nullable = false)
+    private long timeSum;
+
+    protected DailyShotRollup() { // For Hibernate
+    }
+
+    public Key getId() {
+        return id;
+    }
+
+    public long getShotCount() {
+        return shotCount;
+    }
+
+    public long getReviewedCount() {
+        return reviewedCount;
+    }
+
+    public long getBalancedCount() {
+        return balancedCount;
+    }
+
+    public long getOutlierCount() {
+        return outlierCount;
+    }
+
+    public double getRatioSum() {
+        return ratioSum;
+    }
+
+    public long getTimeSum() {
+        return timeSum;
+    }
+
+    @Embeddable
+    public record Key(
+            @Column(name = "user_id", nullable = false) UUID userId,
+            @Column(name = "bean_id", nullable = false) Long beanId,
+            @Column(name = "day", nullable = false) LocalDate day) implements Serializable {
+    }
+}
@@ -0,0 +1,148 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+interface DailyShotRollupRepository extends JpaRepository<DailyShotRollup, DailyShotRollup.Key> {
+
+    /**
+     * Adds the given deltas to the rollup row, creating it if needed, unless the bean has been deleted since
+     * the shot was written: rollups have no foreign key to the bean, as shots without one are rolled up
+     * under {@link DailyShotRollup#NO_BEAN}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_shot_rollup (user_id, bean_id, day, shot_count, reviewed_count, balanced_count,
+                                           outlier_count, ratio_sum, time_sum)
+            SELECT :userId, :beanId, :day, :shots, :reviewed, :balanced, :outliers, :ratioSum, :timeSum
+            WHERE :beanId = 0 OR EXISTS (SELECT 1 FROM coffee_bean b WHERE b.bean_id = :beanId)
+            ON CONFLICT (user_id, bean_id, day) DO UPDATE SET
+                shot_count = daily_shot_rollup.shot_count + EXCLUDED.shot_count,
+                reviewed_count = daily_shot_rollup.reviewed_count + EXCLUDED.reviewed_count,
+                balanced_count = daily_shot_rollup.balanced_count + EXCLUDED.balanced_count,
+                outlier_count = daily_shot_rollup.outlier_count + EXCLUDED.outlier_count,
+                ratio_sum = daily_shot_rollup.ratio_sum + EXCLUDED.ratio_sum,
+                time_sum = daily_shot_rollup.time_sum + EXCLUDED.time_sum
+            """, nativeQuery = true)
+    void add(UUID userId, long beanId, LocalDate day, long shots, long reviewed, long balanced, long outliers,
+             double ratioSum, long timeSum);
+
+    /**
+     * Adds the given deltas to the rollup row if it exists. Subtracting a shot must not create a row, since
+     * the row is gone when the shot's bean was deleted.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE daily_shot_rollup SET
+                shot_count = shot_count + :shots,
+                reviewed_count = reviewed_count + :reviewed,
+                balanced_count = balanced_count + :balanced,
+                outlier_count = outlier_count + :outliers,
+                ratio_sum = ratio_sum + :ratioSum,
+                time_sum = time_sum + :timeSum
+            WHERE user_id = :userId AND bean_id = :beanId AND day = :day
+            """, nativeQuery = true)
+    void addToExisting(UUID userId, long beanId, LocalDate day, long shots, long reviewed, long balanced,
+                       long outliers, double ratioSum, long timeSum);
+
+    @Modifying
+    @Query("DELETE FROM DailyShotRollup r WHERE r.id.day >= :since")
+    int deleteSince(LocalDate since);
+
+    /**
+     * Deletes the rollups of all users for the user's given beans, so the beans can be deleted.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM DailyShotRollup r
+            WHERE r.id.beanId IN (SELECT b.id FROM CoffeeBean b WHERE b.id IN :beanIds AND b.user = :user)
+            """)
+    int deleteByBeans(Collection<Long> beanIds, User user);
+
+    /**
+     * Recomputes all rollup rows from {@code since} (a UTC day start) directly from {@code espresso_shot}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_shot_rollup (user_id, bean_id, day, shot_count, reviewed_count, balanced_count,
+                                           outlier_count, ratio_sum, time_sum)
+            SELECT s.user_id, coalesce(s.bean_id, 0), CAST(s.created_at AT TIME ZONE 'UTC' AS date),
+                   count(*), count(r.review_id), count(*) FILTER (WHERE r.taste_profile = 'BALANCED'),
+                   count(*) FILTER (WHERE s.outlier),
+                   coalesce(sum(s.yield / s.grind_amount) FILTER (WHERE NOT s.outlier), 0),
+                   coalesce(sum(s.extraction_time) FILTER (WHERE NOT s.outlier), 0)
+            FROM espresso_shot s
+            LEFT JOIN shot_review r ON r.shot_id = s.shot_id
+            WHERE s.created_at >= :since
+            GROUP BY 1, 2, 3
+            """, nativeQuery = true)
+    int rebuildSince(Instant since);
+
+    @Query("""
+            SELECT new com.kurrle.coffee.RollupStats(null, r.id.day, sum(r.shotCount), sum(r.reviewedCount),
+                   sum(r.balancedCount), sum(r.outlierCount), sum(r.ratioSum), sum(r.timeSum))
+            FROM DailyShotRollup r
+            WHERE r.id.userId = :userId AND r.id.day >= :from
+            GROUP BY r.id.day
+            ORDER BY r.id.day
+            """)
+    List<RollupStats> findDailyTotals(UUID userId, LocalDate from);
+
+    @Query("""
+            SELECT new com.kurrle.coffee.RollupStats(r.id.beanId, year(r.id.day), month(r.id.day), sum(r.shotCount),
+                   sum(r.reviewedCount), sum(r.balancedCount), sum(r.outlierCount), sum(r.ratioSum), sum(r.timeSum))
+            FROM DailyShotRollup r
+            WHERE r.id.userId = :userId AND r.id.day >= :from
+            GROUP BY r.id.beanId, year(r.id.day), month(r.id.day)
+            ORDER BY year(r.id.day), month(r.id.day)
+            """)
+    List<RollupStats> findMonthlyByBean(UUID userId, LocalDate from);
+
+    /**
+     * Totals per bean shared with the team, over all members, starting at {@code from}. The period is the
+     * first day with shots.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.RollupStats(r.id.beanId, min(r.id.day), sum(r.shotCount), sum(r.reviewedCount),
+                   sum(r.balancedCount), sum(r.outlierCount), sum(r.ratioSum), sum(r.timeSum))
+            FROM DailyShotRollup r
+            WHERE r.id.beanId IN (SELECT b.id FROM CoffeeBean b WHERE b.team = :team) AND r.id.day >= :from
+            GROUP BY r.id.beanId
+            """)
+    List<RollupStats> findTeamBeanTotals(Team team, LocalDate from);
+
+    /**
+     * Users with shots between {@code from} (inclusive) and {@code to} (exclusive), in id order after
+     * {@code after}, for keyset-paged batch jobs.
+     */
+    @Query("""
+            SELECT DISTINCT r.id.userId FROM DailyShotRollup r
+            WHERE r.id.day >= :from AND r.id.day < :to AND r.id.userId > :after
+            ORDER BY r.id.userId
+            """)
+    List<UUID> findActiveUsers(LocalDate from, LocalDate to, UUID after, Pageable pageable);
+
+    /**
+     * The user's totals per bean between {@code from} (inclusive) and {@code to} (exclusive), most used
+     * beans first; must be consumed inside a transaction.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.MonthlyReportRow(b.name, sum(r.shotCount), sum(r.reviewedCount),
+                   sum(r.balancedCount), sum(r.outlierCount), sum(r.ratioSum), sum(r.timeSum))
+            FROM DailyShotRollup r LEFT JOIN CoffeeBean b ON b.id = r.id.beanId
+            WHERE r.id.userId = :userId AND r.id.day >= :from AND r.id.day < :to
+            GROUP BY r.id.beanId, b.name
+            ORDER BY sum(r.shotCount) DESC, b.name
+            """)
+    Stream<MonthlyReportRow> streamReportRows(UUID userId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,96 @@
+package com.kurrle.coffee;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+
+/**
+ * Applies shot writes from the shot outbox to {@link DailyShotRollup}: the old snapshot is subtracted
+ * and the new one added, so edits that move a shot to another bean are handled too.
+ */
+@Component
+class DailyShotRollupUpdater implements ShotEventConsumer {
+
+    private final DailyShotRollupRepository repository;
+
+    DailyShotRollupUpdater(DailyShotRollupRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public String consumerName() {
+        return "daily-shot-rollup";
+    }
+
+    @Override
+    public void accept(ShotChangedEvent event) {
+        var deltas = new HashMap<DailyShotRollup.Key, Delta>();
+        if (event.before() != null) {
+            deltas.computeIfAbsent(keyOf(event.before()), key -> new Delta()).add(event.before(), -1);
+        }
+        if (event.after() != null) {
+            deltas.computeIfAbsent(keyOf(event.after()), key -> new Delta()).add(event.after(), 1);
+        }
+        var afterKey = event.after() != null ? keyOf(event.after()) : null;
+        deltas.forEach((key, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            if (key.equals(afterKey)) {
+                repository.add(key.userId(), key.beanId(), key.day(), delta.shots, delta.reviewed,
+                        delta.balanced, delta.outliers, delta.ratioSum, delta.timeSum);
+            } else {
+                // Only subtracted; the row is gone if the bean was deleted
+                repository.addToExisting(key.userId(), key.beanId(), key.day(), delta.shots, delta.reviewed,
+                        delta.balanced, delta.outliers, delta.ratioSum, delta.timeSum);
+            }
+        });
+    }
+
+    /**
+     * Recomputes all rollups from the whole shot history, so dashboards and monthly reports cover the shots
+     * recorded before the rollups existed.
+     */
+    @Override
+    public void rebuild() {
+        repository.deleteAllInBatch();
+        repository.rebuildSince(Instant.EPOCH);
+    }
+
+    static DailyShotRollup.Key keyOf(ShotSnapshot shot) {
+        var beanId = shot.beanId() != null ? shot.beanId() : DailyShotRollup.NO_BEAN;
+        return new DailyShotRollup.Key(shot.userId(), beanId, LocalDate.ofInstant(shot.createdAt(), ZoneOffset.UTC));
+    }
+
+    private static final class Delta {
+        long shots;
+        long reviewed;
+        long balanced;
+        long outliers;
+        double ratioSum;
+        long timeSum;
+
+        void add(ShotSnapshot shot, int sign) {
+            shots += sign;
+            if (shot.tasteProfile() != null) {
+                reviewed += sign;
+                if (shot.tasteProfile() == TasteProfile.BALANCED) {
+                    balanced += sign;
+                }
+            }
+            if (shot.outlier()) {
+                outliers += sign;
+            } else {
+                ratioSum += sign * shot.brewRatio();
+                timeSum += (long) sign * shot.extractionTime();
+            }
+        }
+
+        boolean isZero() {
+            return shots == 0 && reviewed == 0 && balanced == 0 && outliers == 0 && ratioSum == 0 && timeSum == 0;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Consecutive shots of one bean pulled within a short time of each other. The aggregates are kept
+ * up to date by {@link DialInSessionTracker} as shots are created, reviewed and deleted, so sessions
+ * can be listed without reading their shots.
+ */
+@Entity
+@Table(name = "dial_in_session", indexes = {
+        @Index(name = "idx_dial_in_session_user_last_shot", columnList = "user_id, last_shot_at")
+})
+public class DialInSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "session_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "bean_id", nullable = false)
+    private Long beanId;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "last_shot_at", nullable = false)
+    private Instant lastShotAt;
+
+    // Shots currently in the session
+    @Column(name = "shot_count", nullable = false)
+    private int shotCount;
+
+    // Shots ever added, used to number them; not decreased by deletes
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "balanced_count", nullable = false)
+    private int balancedCount;
+
+    // Position of the first balanced shot, i.e. how many shots it took to get there
+    @Column(name = "shots_to_balanced")
+    @Nullable
+    private Integer shotsToBalanced;
+
+    @Column(name = "first_grind_size", nullable = false)
+    private double firstGrindSize;
+
+    @Column(name = "first_grind_amount", nullable = false)
+    private double firstGrindAmount;
+
+    @Column(name = "first_yield", nullable = false)
+    private double firstYield;
+
+    @Column(name = "first_extraction_time", nullable = false)
+    private int firstExtractionTime;
+
+    @Column(name = "last_grind_size", nullable = false)
+    private double lastGrindSize;
+
+    @Column(name = "last_grind_amount", nullable = false)
+    private double lastGrindAmount;
+
+    @Column(name = "last_yield", nullable = false)
+    private double lastYield;
+
+    @Column(name = "last_extraction_time", nullable = false)
+    private int lastExtractionTime;
+
+    protected DialInSession() { // For Hibernate
+    }
+
+    DialInSession(EspressoShot firstShot, Long beanId) {
+        this.userId = firstShot.getUser().getId();
+        this.beanId = beanId;
+        this.startedAt = firstShot.getCreatedAt();
+        this.lastShotAt = firstShot.getCreatedAt();
+        this.firstGrindSize = firstShot.getGrindSize();
+        this.firstGrindAmount = firstShot.getGrindAmount();
+        this.firstYield = firstShot.getYield();
+        this.firstExtractionTime = firstShot.getExtractionTime();
+    }
+
+    public @Nullable Long getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Long getBeanId() {
+        return beanId;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getLastShotAt() {
+        return lastShotAt;
+    }
+
+    public Duration getDuration() {
+        return Duration.between(startedAt, lastShotAt);
+    }
+
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    public int getBalancedCount() {
+        return balancedCount;
+    }
+
+    public @Nullable Integer getShotsToBalanced() {
+        return shotsToBalanced;
+    }
+
+    /**
+     * Change of the grind setting from the first to the latest shot.
+     */
+    public double getGrindSizeDrift() {
+        return lastGrindSize - firstGrindSize;
+    }
+
+    public double getGrindAmountDrift() {
+        return lastGrindAmount - firstGrindAmount;
+    }
+
+    public double getYieldDrift() {
+        return lastYield - firstYield;
+    }
+
+    public int getExtractionTimeDrift() {
+        return lastExtractionTime - firstExtractionTime;
+    }
+
+    /**
+     * Adds the shot as the session's newest attempt and returns its position.
+     */
+    int add(EspressoShot shot) {
+        shotCount++;
+        attempts++;
+        lastShotAt = shot.getCreatedAt();
+        lastGrindSize = shot.getGrindSize();
+        lastGrindAmount = shot.getGrindAmount();
+        lastYield = shot.getYield();
+        lastExtractionTime = shot.getExtractionTime();
+        return attempts;
+    }
+
+    void remove() {
+        shotCount--;
+    }
+
+    void balanced(int position) {
+        balancedCount++;
+        if (shotsToBalanced == null || position < shotsToBalanced) {
+            shotsToBalanced = position;
+        }
+    }
+
+    /**
+     * Takes back a balanced shot; {@code firstRemaining} is the position of the earliest balanced shot left.
+     */
+    void unbalanced(@Nullable Integer firstRemaining) {
+        balancedCount--;
+        shotsToBalanced = firstRemaining;
+    }
+}
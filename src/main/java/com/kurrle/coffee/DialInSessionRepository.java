@@ -0,0 +1,50 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import jakarta.persistence.LockModeType;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+interface DialInSessionRepository extends JpaRepository<DialInSession, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DialInSession> findFirstByUserIdOrderByLastShotAtDesc(UUID userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM DialInSession d WHERE d.id = :id")
+    Optional<DialInSession> findForUpdate(Long id);
+
+    Slice<DialInSession> findByUserId(UUID userId, Pageable pageable);
+
+    /**
+     * Position of the earliest balanced shot of the session other than the excluded one. Only reads the
+     * session's own shots, and only when the session's first balanced shot is taken back.
+     */
+    @Query("""
+            SELECT min(s.sessionPosition) FROM EspressoShot s JOIN s.review r
+            WHERE s.session = :session AND r.tasteProfile = com.kurrle.coffee.TasteProfile.BALANCED
+              AND s.id <> :excludedShotId
+            """)
+    @Nullable
+    Integer findFirstBalancedPosition(DialInSession session, Long excludedShotId);
+
+    /**
+     * Deletes the sessions of all users with the user's given beans, so the beans can be deleted. Their shots
+     * must have been taken out of the sessions first.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM DialInSession d
+            WHERE d.beanId IN (SELECT b.id FROM CoffeeBean b WHERE b.id IN :beanIds AND b.user = :user)
+            """)
+    int deleteByBeans(Collection<Long> beanIds, User user);
+}
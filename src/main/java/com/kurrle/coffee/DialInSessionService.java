@@ -0,0 +1,38 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class DialInSessionService {
+
+    private final DialInSessionRepository repository;
+    private final AuthenticatedUser authenticatedUser;
+
+    DialInSessionService(DialInSessionRepository repository, AuthenticatedUser authenticatedUser) {
+        this.repository = repository;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * Lists the current user's dial-in sessions, most recent first.
+     */
+    @Transactional(readOnly = true)
+    public List<DialInSession> list(Pageable pageable) {
+        var sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(Sort.Direction.DESC, "lastShotAt").and(Sort.by("id")));
+        return repository.findByUserId(getCurrentUser().getId(), sortedPageable).toList();
+    }
+}
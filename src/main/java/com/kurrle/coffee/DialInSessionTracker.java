@@ -0,0 +1,91 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Groups shots into {@link DialInSession}s as they are written. A shot continues the user's latest
+ * session if it is of the same bean and pulled within {@code sessions.max-gap} of that session's
+ * last shot; otherwise it starts a new session.
+ */
+@Component
+class DialInSessionTracker {
+
+    private final DialInSessionRepository repository;
+    private final ShotCounterRepository counterRepository;
+    private final Duration maxGap;
+
+    DialInSessionTracker(DialInSessionRepository repository, ShotCounterRepository counterRepository,
+                         @Value("${sessions.max-gap:PT30M}") Duration maxGap) {
+        this.repository = repository;
+        this.counterRepository = counterRepository;
+        this.maxGap = maxGap;
+    }
+
+    /**
+     * Adds a new shot, not yet saved, to its session. Shots without a bean are not part of any session.
+     * <p>
+     * Concurrent shots of a user are serialized on the user's {@link ShotCounter} row before the latest session
+     * is looked up: locking the session itself guards nothing when there is none yet or the shot switches
+     * beans, and both writers would start a session.
+     */
+    void assign(EspressoShot shot) {
+        var bean = shot.getCoffeeBean();
+        if (bean == null) {
+            return;
+        }
+        var userId = shot.getUser().getId();
+        if (counterRepository.findForUpdate(userId).isEmpty()) {
+            counterRepository.seed(userId);
+            counterRepository.findForUpdate(userId)
+                    .orElseThrow(() -> new IllegalStateException("Shot counter missing for user " + userId));
+        }
+        var session = repository.findFirstByUserIdOrderByLastShotAtDesc(userId)
+                .filter(latest -> latest.getBeanId().equals(bean.getId())
+                        && !latest.getLastShotAt().plus(maxGap).isBefore(shot.getCreatedAt()))
+                .orElseGet(() -> repository.save(new DialInSession(shot, bean.getId())));
+        shot.setSession(session, session.add(shot));
+    }
+
+    /**
+     * Updates the session after the shot's review changed from {@code before} to its current review.
+     */
+    void reviewed(EspressoShot shot, @Nullable TasteProfile before) {
+        var session = lock(shot);
+        if (session == null) {
+            return;
+        }
+        var wasBalanced = before == TasteProfile.BALANCED;
+        var isBalanced = shot.getReview() != null && shot.getReview().getTasteProfile() == TasteProfile.BALANCED;
+        if (!wasBalanced && isBalanced) {
+            session.balanced(shot.getSessionPosition());
+        } else if (wasBalanced && !isBalanced) {
+            session.unbalanced(repository.findFirstBalancedPosition(session, shot.getId()));
+        }
+    }
+
+    /**
+     * Takes a deleted shot out of its session, deleting the session once it is empty.
+     */
+    void removed(EspressoShot shot) {
+        var session = lock(shot);
+        if (session == null) {
+            return;
+        }
+        session.remove();
+        if (shot.getReview() != null && shot.getReview().getTasteProfile() == TasteProfile.BALANCED) {
+            session.unbalanced(repository.findFirstBalancedPosition(session, shot.getId()));
+        }
+        if (session.getShotCount() == 0) {
+            repository.delete(session);
+        }
+    }
+
+    private @Nullable DialInSession lock(EspressoShot shot) {
+        var session = shot.getSession();
+        return session != null ? repository.findForUpdate(session.getId()).orElse(null) : null;
+    }
+}
@@ -5,9 +5,21 @@ import jakarta.persistence.*;
 import org.jspecify.annotations.Nullable;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
-@Table(name = "espresso_shot")
+@Table(name = "espresso_shot", indexes = {
+        @Index(name = "idx_espresso_shot_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_espresso_shot_user_bean_created", columnList = "user_id, bean_id, created_at"),
+        @Index(name = "idx_espresso_shot_user_grind", columnList = "user_id, grind_size"),
+        @Index(name = "idx_espresso_shot_user_time", columnList = "user_id, extraction_time"),
+        @Index(name = "idx_espresso_shot_user_bean_grind", columnList = "user_id, bean_id, grind_size"),
+        @Index(name = "idx_espresso_shot_user_bean_time", columnList = "user_id, bean_id, extraction_time"),
+        @Index(name = "idx_espresso_shot_user_taste_created", columnList = "user_id, taste_profile, created_at"),
+        @Index(name = "idx_espresso_shot_session", columnList = "session_id"),
+        @Index(name = "idx_espresso_shot_team_created", columnList = "team_id, created_at"),
+        @Index(name = "idx_espresso_shot_team_bean_created", columnList = "team_id, bean_id, created_at")
+})
 public class EspressoShot {
 
     @Id
@@ -24,6 +36,17 @@ public class EspressoShot {
     @Nullable
     private CoffeeBean coffeeBean;
 
+    // Read-only view of the bean's foreign key, so sorting by bean orders by the indexed column without a join
+    @Column(name = "bean_id", insertable = false, updatable = false)
+    @Nullable
+    private Long beanId;
+
+    // Copied from the bean when the shot is written, so team-wide shot lists need no join
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id")
+    @Nullable
+    private Team team;
+
     @Column(name = "grind_size", nullable = false)
     private Double grindSize; // Grind setting (e.g., 1-40 or similar scale)
 
@@ -39,14 +62,43 @@ public class EspressoShot {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    // Flagged by ShotOutlierDetector when the values are implausible for the bean; excluded from aggregates
+    @Column(name = "outlier", columnDefinition = "boolean default false")
+    private boolean outlier;
+
     @Column(name = "notes", length = 500)
     @Nullable
     private String notes;
 
+    // Assigned by DialInSessionTracker when the shot is created
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id")
+    @Nullable
+    private DialInSession session;
+
+    // 1-based attempt number within the session
+    @Column(name = "session_position", columnDefinition = "integer default 0")
+    private int sessionPosition;
+
     @OneToOne(mappedBy = "espressoShot", cascade = CascadeType.ALL, orphanRemoval = true)
     @Nullable
     private ShotReview review;
 
+    // Copied from the review, so the taste and reviewed filters are served by an index on the shot itself
+    @Enumerated(EnumType.STRING)
+    @Column(name = "taste_profile")
+    @Nullable
+    private TasteProfile tasteProfile;
+
+    @Version
+    @Column(name = "version", columnDefinition = "integer default 0")
+    private int version;
+
+    // Client token of the submission that created the shot; unique per user (see schema-postgresql.sql)
+    @Column(name = "submission_token")
+    @Nullable
+    private UUID submissionToken;
+
     protected EspressoShot() { // For Hibernate
     }
 
@@ -77,6 +129,11 @@ public class EspressoShot {
 
     public void setCoffeeBean(@Nullable CoffeeBean coffeeBean) {
         this.coffeeBean = coffeeBean;
+        this.team = coffeeBean != null ? coffeeBean.getTeam() : null;
+    }
+
+    public @Nullable Team getTeam() {
+        return team;
     }
 
     public Double getGrindSize() {
@@ -115,6 +172,14 @@ public class EspressoShot {
         return createdAt;
     }
 
+    public boolean isOutlier() {
+        return outlier;
+    }
+
+    void setOutlier(boolean outlier) {
+        this.outlier = outlier;
+    }
+
     public @Nullable String getNotes() {
         return notes;
     }
@@ -123,12 +188,38 @@ public class EspressoShot {
         this.notes = notes;
     }
 
+    public @Nullable DialInSession getSession() {
+        return session;
+    }
+
+    public int getSessionPosition() {
+        return sessionPosition;
+    }
+
+    void setSession(@Nullable DialInSession session, int sessionPosition) {
+        this.session = session;
+        this.sessionPosition = sessionPosition;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public @Nullable UUID getSubmissionToken() {
+        return submissionToken;
+    }
+
+    void setSubmissionToken(@Nullable UUID submissionToken) {
+        this.submissionToken = submissionToken;
+    }
+
     public @Nullable ShotReview getReview() {
         return review;
     }
 
     public void setReview(@Nullable ShotReview review) {
         this.review = review;
+        this.tasteProfile = review != null ? review.getTasteProfile() : null;
         if (review != null) {
             review.setEspressoShot(this);
         }
@@ -1,21 +1,162 @@
 package com.kurrle.coffee;
 
 import com.kurrle.security.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-interface EspressoShotRepository extends JpaRepository<EspressoShot, Long>, JpaSpecificationExecutor<EspressoShot> {
+interface EspressoShotRepository extends JpaRepository<EspressoShot, Long>, JpaSpecificationExecutor<EspressoShot>,
+        ShotSliceRepository {
 
     Slice<EspressoShot> findAllByUser(User user, Pageable pageable);
 
     @Query("SELECT s FROM EspressoShot s LEFT JOIN FETCH s.coffeeBean LEFT JOIN FETCH s.review WHERE s.id = :id AND s.user = :user")
     Optional<EspressoShot> findByIdAndUserWithDetails(Long id, User user);
 
-    @Query("SELECT s FROM EspressoShot s LEFT JOIN FETCH s.coffeeBean WHERE s.user = :user ORDER BY s.createdAt DESC")
-    Slice<EspressoShot> findAllByUserWithBean(User user, Pageable pageable);
+    @Query("""
+            SELECT s FROM EspressoShot s LEFT JOIN FETCH s.coffeeBean LEFT JOIN FETCH s.review
+            WHERE s.user = :user AND s.submissionToken = :submissionToken
+            """)
+    Optional<EspressoShot> findBySubmissionWithDetails(User user, UUID submissionToken);
+
+    @Query("""
+            SELECT s FROM EspressoShot s LEFT JOIN FETCH s.coffeeBean LEFT JOIN FETCH s.review
+            WHERE s.id IN :ids AND s.user = :user
+            ORDER BY s.createdAt, s.id
+            """)
+    List<EspressoShot> findAllByIdInAndUserWithDetails(Collection<Long> ids, User user);
+
+    /**
+     * Streams snapshots of all of the user's shots in id order; must be consumed inside a transaction.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.ShotSnapshot(s.id, s.user.id, b.id, t.id, b.roastLevel,
+                   nullif(lower(trim(b.origin)), ''), s.grindSize, s.grindAmount, s.yield, s.extractionTime,
+                   s.createdAt, r.tasteProfile, s.outlier)
+            FROM EspressoShot s LEFT JOIN s.coffeeBean b LEFT JOIN s.team t LEFT JOIN s.review r
+            WHERE s.user.id = :userId
+            ORDER BY s.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ShotSnapshot> streamSnapshotsByUser(UUID userId);
+
+    /**
+     * Streams snapshots of all shots with a bean, grouped by user and bean and in time order within a group,
+     * read along {@code idx_espresso_shot_user_bean_created}; must be consumed inside a transaction.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.ShotSnapshot(s.id, s.user.id, b.id, t.id, b.roastLevel,
+                   nullif(lower(trim(b.origin)), ''), s.grindSize, s.grindAmount, s.yield, s.extractionTime,
+                   s.createdAt, r.tasteProfile, s.outlier)
+            FROM EspressoShot s JOIN s.coffeeBean b LEFT JOIN s.team t LEFT JOIN s.review r
+            ORDER BY s.user.id, b.id, s.createdAt, s.id
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ShotSnapshot> streamSnapshotsByUserAndBean();
+
+    /**
+     * Streams the user's non-outlier shots of a bean from {@code from} on in time order, read along
+     * {@code idx_espresso_shot_user_bean_created}; must be consumed inside a transaction.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.HistoryPoint(s.createdAt, s.grindSize, s.extractionTime, s.yield,
+                   s.grindAmount)
+            FROM EspressoShot s
+            WHERE s.user.id = :userId AND s.coffeeBean.id = :beanId AND s.createdAt >= :from AND s.outlier = false
+            ORDER BY s.createdAt
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<HistoryPoint> streamHistory(UUID userId, Long beanId, Instant from);
+
+    /**
+     * The most recent non-outlier shot of a bean with its review. Answered by an index-only scan of
+     * {@code idx_espresso_shot_bean_latest} (see schema-postgresql.sql) plus one review lookup.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.LatestShot(s.id, s.grindSize, s.grindAmount, s.yield, s.extractionTime,
+                   r.tasteProfile)
+            FROM EspressoShot s LEFT JOIN s.review r
+            WHERE s.coffeeBean.id = :beanId AND s.user.id = :userId AND s.outlier = false
+            ORDER BY s.createdAt DESC
+            LIMIT 1
+            """)
+    Optional<LatestShot> findLatestByBean(Long beanId, UUID userId);
+
+    /**
+     * Ranks notes of the user's shots, reviews and beans against a web-search style query.
+     * Relies on the generated tsvector columns and GIN indexes from {@code schema-postgresql.sql}.
+     */
+    @Query(value = """
+            SELECT hit.source AS "source", hit.shot_id AS "shotId", hit.bean_id AS "beanId",
+                   b.name AS "beanName", hit.text AS "text"
+            FROM (
+                SELECT 'SHOT' AS source, s.shot_id, s.bean_id, s.notes AS text, s.created_at,
+                       ts_rank(s.notes_tsv, q.query) AS score
+                FROM espresso_shot s, websearch_to_tsquery('simple', :query) q(query)
+                WHERE s.user_id = :userId AND s.notes_tsv @@ q.query
+                UNION ALL
+                SELECT 'REVIEW', s.shot_id, s.bean_id, r.notes, r.created_at,
+                       ts_rank(r.notes_tsv, q.query)
+                FROM shot_review r JOIN espresso_shot s ON s.shot_id = r.shot_id,
+                     websearch_to_tsquery('simple', :query) q(query)
+                WHERE s.user_id = :userId AND r.notes_tsv @@ q.query
+                UNION ALL
+                SELECT 'BEAN', NULL, b.bean_id, b.flavor_notes, b.created_at,
+                       ts_rank(b.flavor_notes_tsv, q.query)
+                FROM coffee_bean b, websearch_to_tsquery('simple', :query) q(query)
+                WHERE b.user_id = :userId AND b.flavor_notes_tsv @@ q.query
+            ) hit
+            LEFT JOIN coffee_bean b ON b.bean_id = hit.bean_id
+            ORDER BY hit.score DESC, hit.created_at DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<NoteSearchHit> searchNotes(UUID userId, String query, int limit);
+
+    /**
+     * Moves a bean's shots along when the bean is shared with a team or unshared.
+     */
+    @Modifying
+    @Query("UPDATE EspressoShot s SET s.team = :team WHERE s.coffeeBean = :bean")
+    int updateTeamOfBean(CoffeeBean bean, @Nullable Team team);
+
+    /**
+     * Snapshots of all shots of the user's given beans, including team members' shots of shared beans.
+     */
+    @Query("""
+            SELECT new com.kurrle.coffee.ShotSnapshot(s.id, s.user.id, b.id, t.id, b.roastLevel,
+                   nullif(lower(trim(b.origin)), ''), s.grindSize, s.grindAmount, s.yield, s.extractionTime,
+                   s.createdAt, r.tasteProfile, s.outlier)
+            FROM EspressoShot s JOIN s.coffeeBean b LEFT JOIN s.team t LEFT JOIN s.review r
+            WHERE b.id IN :beanIds AND b.user = :user
+            """)
+    List<ShotSnapshot> findSnapshotsOfBeans(Collection<Long> beanIds, User user);
+
+    /**
+     * Unlinks all shots from the user's given beans and their dial-in sessions, so the beans and sessions can
+     * be deleted.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EspressoShot s SET s.coffeeBean = null, s.team = null, s.session = null, s.sessionPosition = 0
+            WHERE s.coffeeBean.id IN (SELECT b.id FROM CoffeeBean b WHERE b.id IN :beanIds AND b.user = :user)
+            """)
+    int unlinkFromBeans(Collection<Long> beanIds, User user);
+
+    @Modifying
+    @Query("DELETE FROM EspressoShot s WHERE s.id IN :ids AND s.user = :user")
+    int deleteAllByIdInAndUser(Collection<Long> ids, User user);
 }
@@ -3,12 +3,20 @@ package com.kurrle.coffee;
 import com.kurrle.security.AuthenticatedUser;
 import com.kurrle.security.User;
 import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class EspressoShotService {
@@ -16,14 +24,40 @@ public class EspressoShotService {
     private final EspressoShotRepository shotRepository;
     private final CoffeeBeanRepository beanRepository;
     private final ShotReviewRepository reviewRepository;
+    private final ShotCounterRepository counterRepository;
+    private final BestRecipeRepository bestRecipeRepository;
+    private final TeamMembershipRepository membershipRepository;
+    private final ShotOutlierDetector outlierDetector;
+    private final DialInSessionTracker sessionTracker;
+    private final RecentShotBuffer recentShots;
+    private final ShotSubmissionCache submissions;
     private final AuthenticatedUser authenticatedUser;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
 
     EspressoShotService(EspressoShotRepository shotRepository, CoffeeBeanRepository beanRepository, 
-                        ShotReviewRepository reviewRepository, AuthenticatedUser authenticatedUser) {
+                        ShotReviewRepository reviewRepository, ShotCounterRepository counterRepository,
+                        BestRecipeRepository bestRecipeRepository, TeamMembershipRepository membershipRepository,
+                        ShotOutlierDetector outlierDetector,
+                        DialInSessionTracker sessionTracker, RecentShotBuffer recentShots,
+                        ShotSubmissionCache submissions, AuthenticatedUser authenticatedUser,
+                        ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.shotRepository = shotRepository;
         this.beanRepository = beanRepository;
         this.reviewRepository = reviewRepository;
+        this.counterRepository = counterRepository;
+        this.bestRecipeRepository = bestRecipeRepository;
+        this.membershipRepository = membershipRepository;
+        this.outlierDetector = outlierDetector;
+        this.sessionTracker = sessionTracker;
+        this.recentShots = recentShots;
+        this.submissions = submissions;
         this.authenticatedUser = authenticatedUser;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     private User getCurrentUser() {
@@ -31,53 +65,173 @@ public class EspressoShotService {
                 .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
     }
 
-    @Transactional
-    public EspressoShot createShot(Double grindSize, Double grindAmount, Double yield, Integer extractionTime, @Nullable Long beanId) {
+    /**
+     * Tracks a new shot and takes its dose off the bean's remaining grams. The new amount is reflected on
+     * the returned shot's bean, so {@link CoffeeBean#isLowOnStock()} needs no further query.
+     * <p>
+     * Submissions are idempotent per {@code submissionToken}: repeating one returns the shot it created,
+     * from the {@link ShotSubmissionCache} or, once forgotten there, after the unique index rejected the
+     * second insert. Runs in its own transaction so that rejection can be recovered from.
+     */
+    public EspressoShot createShot(UUID submissionToken, Double grindSize, Double grindAmount, Double yield,
+                                   Integer extractionTime, @Nullable Long beanId) {
         User user = getCurrentUser();
+        var submittedId = submissions.shotId(user.getId(), submissionToken);
+        if (submittedId.isPresent()) {
+            var submitted = readOnlyTransaction.execute(status ->
+                    shotRepository.findByIdAndUserWithDetails(submittedId.get(), user));
+            if (submitted != null && submitted.isPresent()) {
+                return submitted.get();
+            }
+            // Deleted since, so the token is free again
+            submissions.remove(user.getId(), submissionToken);
+        }
+        try {
+            var saved = transaction.execute(status ->
+                    insertShot(user, submissionToken, grindSize, grindAmount, yield, extractionTime, beanId));
+            submissions.put(user.getId(), submissionToken, saved.getId());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            // Submitted concurrently, or no longer remembered by the cache; the first insert won
+            var original = readOnlyTransaction.execute(status ->
+                            shotRepository.findBySubmissionWithDetails(user, submissionToken))
+                    .orElseThrow(() -> e);
+            submissions.put(user.getId(), submissionToken, original.getId());
+            return original;
+        }
+    }
+
+    private EspressoShot insertShot(User user, UUID submissionToken, Double grindSize, Double grindAmount,
+                                    Double yield, Integer extractionTime, @Nullable Long beanId) {
         var shot = new EspressoShot(grindSize, grindAmount, yield, extractionTime, user);
+        shot.setSubmissionToken(submissionToken);
         if (beanId != null) {
             beanRepository.findById(beanId)
-                    .filter(bean -> bean.getUser().getId().equals(user.getId()))
+                    .filter(bean -> membershipRepository.canUseBean(bean, user))
                     .ifPresent(shot::setCoffeeBean);
         }
-        return shotRepository.saveAndFlush(shot);
+        shot.setOutlier(isOutlier(shot, null));
+        sessionTracker.assign(shot);
+        var saved = shotRepository.saveAndFlush(shot);
+        var bean = saved.getCoffeeBean();
+        if (bean != null) {
+            bean.setRemainingGrams(beanRepository.decrementRemainingGrams(bean.getId(), grindAmount));
+        }
+        recentShots.written(saved);
+        eventPublisher.publishEvent(ShotChangedEvent.created(ShotSnapshot.of(saved)));
+        return saved;
     }
 
     @Transactional
     public EspressoShot updateShot(Long id, Double grindSize, Double grindAmount, Double yield, Integer extractionTime, @Nullable Long beanId) {
         User user = getCurrentUser();
-        var shot = shotRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Shot not found: " + id));
-        // Verify ownership
-        if (!shot.getUser().getId().equals(user.getId())) {
-            throw new IllegalArgumentException("Not authorized to update this shot");
-        }
+        // Scoped to the owner, and with bean and review fetched, since the saved shot goes into the recent-shot buffer
+        var shot = shotRepository.findByIdAndUserWithDetails(id, user)
+                .orElseThrow(() -> new IllegalArgumentException("Shot not found: " + id));
+        var before = ShotSnapshot.of(shot);
         shot.setGrindSize(grindSize);
         shot.setGrindAmount(grindAmount);
         shot.setYield(yield);
         shot.setExtractionTime(extractionTime);
         if (beanId != null) {
             beanRepository.findById(beanId)
-                    .filter(bean -> bean.getUser().getId().equals(user.getId()))
+                    .filter(bean -> membershipRepository.canUseBean(bean, user))
                     .ifPresent(shot::setCoffeeBean);
         } else {
             shot.setCoffeeBean(null);
         }
-        return shotRepository.saveAndFlush(shot);
+        shot.setOutlier(isOutlier(shot, before));
+        var saved = shotRepository.saveAndFlush(shot);
+        recentShots.written(saved);
+        eventPublisher.publishEvent(ShotChangedEvent.updated(before, ShotSnapshot.of(saved)));
+        return saved;
+    }
+
+    private boolean isOutlier(EspressoShot shot, @Nullable ShotSnapshot before) {
+        var beanId = shot.getCoffeeBean() != null ? shot.getCoffeeBean().getId() : null;
+        return outlierDetector.isOutlier(shot.getUser().getId(), beanId, shot.getGrindAmount(),
+                shot.getExtractionTime(), shot.getBrewRatio(), before);
     }
 
+    /**
+     * @throws IllegalArgumentException if the shot is not found or belongs to another user
+     */
     @Transactional
     public void deleteShot(Long id) {
-        var shot = shotRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Shot not found: " + id));
-        // Verify ownership
-        if (!shot.getUser().getId().equals(getCurrentUser().getId())) {
-            throw new IllegalArgumentException("Not authorized to delete this shot");
+        if (deleteShots(List.of(id)) == 0) {
+            throw new IllegalArgumentException("Shot not found: " + id);
         }
-        shotRepository.deleteById(id);
+    }
+
+    /**
+     * Deletes the given shots of the current user and their reviews with one statement each. Shots that are
+     * not found or belong to another user are skipped.
+     *
+     * @return the number of shots deleted
+     */
+    @Transactional
+    public int deleteShots(Collection<Long> shotIds) {
+        if (shotIds.isEmpty()) {
+            return 0;
+        }
+        var user = getCurrentUser();
+        // Loaded once for the events and dial-in sessions; the statements below are scoped by owner again
+        var shots = shotRepository.findAllByIdInAndUserWithDetails(Set.copyOf(shotIds), user);
+        if (shots.isEmpty()) {
+            return 0;
+        }
+        var ids = shots.stream().map(EspressoShot::getId).toList();
+        reviewRepository.deleteAllByShotIdIn(ids);
+        var deleted = shotRepository.deleteAllByIdInAndUser(ids, user);
+        for (var shot : shots) {
+            sessionTracker.removed(shot);
+            recentShots.deleted(user.getId(), shot.getId());
+            eventPublisher.publishEvent(ShotChangedEvent.deleted(ShotSnapshot.of(shot)));
+        }
+        return deleted;
     }
 
     @Transactional(readOnly = true)
     public List<EspressoShot> list(Pageable pageable) {
-        return shotRepository.findAllByUserWithBean(getCurrentUser(), pageable).toList();
+        return list(ShotFilter.NONE, pageable);
+    }
+
+    /**
+     * Lists the current user's shots matching the filter. Unfiltered newest-first pages near the top are
+     * served from the {@link RecentShotBuffer}.
+     *
+     * @throws IllegalArgumentException if the pageable sorts by a property not listed in {@link ShotSortKey}
+     *                                  or one that no index serves together with the filter
+     */
+    @Transactional(readOnly = true)
+    public List<EspressoShot> list(ShotFilter filter, Pageable pageable) {
+        var user = getCurrentUser();
+        var sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                ShotSortKey.sanitize(pageable.getSort(), filter, ShotSortKey.Scope.USER));
+        if (filter.isEmpty() && sortedPageable.getSort().equals(ShotSortKey.NEWEST_FIRST)) {
+            var recent = recentShots.page(user, (int) sortedPageable.getOffset(), sortedPageable.getPageSize());
+            if (recent.isPresent()) {
+                return recent.get();
+            }
+        }
+        return shotRepository.findSlice(ShotSpecifications.matching(user, filter), sortedPageable).toList();
+    }
+
+    /**
+     * Returns the current user's shot count from the maintained per-user counter, seeding the counter
+     * with a single {@code count(*)} the first time it is read. Used to size lazy lists, so it only has
+     * to be close, not exact.
+     */
+    @Transactional
+    public long estimateShotCount() {
+        var userId = getCurrentUser().getId();
+        return counterRepository.findById(userId)
+                .or(() -> {
+                    counterRepository.seed(userId);
+                    return counterRepository.findById(userId);
+                })
+                .map(ShotCounter::getShotCount)
+                .orElse(0L);
     }
 
     @Transactional(readOnly = true)
@@ -91,14 +245,34 @@ public class EspressoShotService {
         return shotRepository.findByIdAndUserWithDetails(id, getCurrentUser());
     }
 
+    /**
+     * Loads the given shots of the current user with their beans and reviews in a single query and
+     * computes their parameter deltas.
+     *
+     * @throws IllegalArgumentException if fewer than {@link ShotComparison#MIN_SHOTS} or more than
+     *                                  {@link ShotComparison#MAX_SHOTS} shots are given, or one of them is not found
+     */
+    @Transactional(readOnly = true)
+    public ShotComparison compare(Collection<Long> shotIds) {
+        var ids = Set.copyOf(shotIds);
+        if (ids.size() < ShotComparison.MIN_SHOTS || ids.size() > ShotComparison.MAX_SHOTS) {
+            throw new IllegalArgumentException("Select between " + ShotComparison.MIN_SHOTS + " and "
+                    + ShotComparison.MAX_SHOTS + " shots to compare");
+        }
+        var shots = shotRepository.findAllByIdInAndUserWithDetails(ids, getCurrentUser());
+        if (shots.size() != ids.size()) {
+            throw new IllegalArgumentException("Shots not found");
+        }
+        return ShotComparison.of(shots);
+    }
+
     @Transactional
     public ShotReview reviewShot(Long shotId, TasteProfile tasteProfile, @Nullable String notes) {
         User user = getCurrentUser();
-        var shot = shotRepository.findById(shotId).orElseThrow(() -> new IllegalArgumentException("Shot not found: " + shotId));
-        // Verify ownership
-        if (!shot.getUser().getId().equals(user.getId())) {
-            throw new IllegalArgumentException("Not authorized to review this shot");
-        }
+        // Scoped to the owner, and with bean and review fetched, since the shot goes into the recent-shot buffer
+        var shot = shotRepository.findByIdAndUserWithDetails(shotId, user)
+                .orElseThrow(() -> new IllegalArgumentException("Shot not found: " + shotId));
+        var before = ShotSnapshot.of(shot);
         
         // Remove existing review if present
         if (shot.getReview() != null) {
@@ -109,13 +283,44 @@ public class EspressoShotService {
         review.setNotes(notes);
         shot.setReview(review);
         shotRepository.saveAndFlush(shot);
+        sessionTracker.reviewed(shot, before.tasteProfile());
+        recentShots.written(shot);
+        eventPublisher.publishEvent(ShotChangedEvent.updated(before, ShotSnapshot.of(shot)));
         return review;
     }
 
+    @Transactional(readOnly = true)
+    public List<NoteSearchHit> searchNotes(String query, int limit) {
+        if (query.isBlank()) {
+            return List.of();
+        }
+        return shotRepository.searchNotes(getCurrentUser().getId(), query.strip(), limit);
+    }
+
     @Transactional(readOnly = true)
     public Optional<ShotReview> findReviewByShot(Long shotId) {
         return shotRepository.findById(shotId)
                 .filter(shot -> shot.getUser().getId().equals(getCurrentUser().getId()))
                 .map(EspressoShot::getReview);
     }
+
+    /**
+     * Parameters to start the next shot of a bean with: the latest shot with its review's advice applied,
+     * or the bean's best recipe while the latest shot is not reviewed yet. The latest shot is taken from
+     * the {@link RecentShotBuffer} when the bean was used recently.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ShotParameters> nextShotParameters(Long beanId) {
+        var user = getCurrentUser();
+        var latestShot = recentShots.latestOfBean(user, beanId).map(LatestShot::of)
+                .or(() -> shotRepository.findLatestByBean(beanId, user.getId()));
+        return latestShot.map(latest -> {
+            if (latest.tasteProfile() != null) {
+                return latest.parameters().adjustedFor(latest.tasteProfile());
+            }
+            return bestRecipeRepository.findById(beanId)
+                    .map(ShotParameters::of)
+                    .orElseGet(latest::parameters);
+        });
+    }
 }
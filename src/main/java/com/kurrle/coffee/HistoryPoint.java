@@ -0,0 +1,13 @@
+package com.kurrle.coffee;
+
+import java.time.Instant;
+
+/**
+ * Values of a single shot plotted in the shot history, streamed straight from {@code espresso_shot}.
+ */
+record HistoryPoint(Instant createdAt,
+                    double grindSize,
+                    int extractionTime,
+                    double yield,
+                    double grindAmount) {
+}
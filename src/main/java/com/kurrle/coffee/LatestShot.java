@@ -0,0 +1,24 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Parameters and outcome of a bean's most recent shot, read from the covering latest-shot index or
+ * the {@link RecentShotBuffer}.
+ */
+record LatestShot(Long shotId,
+                  double grindSize,
+                  double grindAmount,
+                  double yield,
+                  int extractionTime,
+                  @Nullable TasteProfile tasteProfile) {
+
+    static LatestShot of(EspressoShot shot) {
+        return new LatestShot(shot.getId(), shot.getGrindSize(), shot.getGrindAmount(), shot.getYield(),
+                shot.getExtractionTime(), shot.getReview() != null ? shot.getReview().getTasteProfile() : null);
+    }
+
+    ShotParameters parameters() {
+        return new ShotParameters(grindSize, grindAmount, yield, extractionTime);
+    }
+}
@@ -0,0 +1,68 @@
+package com.kurrle.coffee;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling. Keeps the first and last point and, from each bucket in
+ * between, the point forming the largest triangle with the previously kept point and the average of
+ * the next bucket. Peaks and dips survive, so the plotted shape stays close to the full series.
+ */
+final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Downsamples the first {@code size} points of a series sorted by time.
+     *
+     * @param threshold the maximum number of points to keep; series that are already small enough are
+     *                  copied unchanged
+     */
+    static ShotHistory.TimeSeries downsample(long[] times, double[] values, int size, int threshold) {
+        if (size <= threshold || threshold < 3) {
+            return new ShotHistory.TimeSeries(Arrays.copyOf(times, size), Arrays.copyOf(values, size));
+        }
+        var sampledTimes = new long[threshold];
+        var sampledValues = new double[threshold];
+        // Times relative to the first point, so the area products stay well within double precision
+        var origin = times[0];
+        var bucketSize = (double) (size - 2) / (threshold - 2);
+
+        var kept = 0;
+        sampledTimes[0] = times[0];
+        sampledValues[0] = values[0];
+        for (var bucket = 0; bucket < threshold - 2; bucket++) {
+            var nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            var nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageTime = 0;
+            double averageValue = 0;
+            for (var i = nextStart; i < nextEnd; i++) {
+                averageTime += times[i] - origin;
+                averageValue += values[i];
+            }
+            averageTime /= nextEnd - nextStart;
+            averageValue /= nextEnd - nextStart;
+
+            var keptTime = (double) (times[kept] - origin);
+            var keptValue = values[kept];
+            var start = (int) (bucket * bucketSize) + 1;
+            var end = nextStart;
+            var selected = start;
+            var maxArea = -1.0;
+            for (var i = start; i < end; i++) {
+                var area = Math.abs((keptTime - averageTime) * (values[i] - keptValue)
+                        - (keptTime - (times[i] - origin)) * (averageValue - keptValue));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+            sampledTimes[bucket + 1] = times[selected];
+            sampledValues[bucket + 1] = values[selected];
+            kept = selected;
+        }
+        sampledTimes[threshold - 1] = times[size - 1];
+        sampledValues[threshold - 1] = values[size - 1];
+        return new ShotHistory.TimeSeries(sampledTimes, sampledValues);
+    }
+}
@@ -0,0 +1,15 @@
+package com.kurrle.coffee;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * A generated monthly report file of the current user; {@code month} is the first day of the month.
+ */
+public record MonthlyReport(LocalDate month, ReportFormat format, Path path) {
+
+    public String fileName() {
+        return "espresso-report-" + month.getYear() + "-" + String.format("%02d", month.getMonthValue()) + "."
+                + format.getExtension();
+    }
+}
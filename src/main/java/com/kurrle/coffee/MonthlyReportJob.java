@@ -0,0 +1,124 @@
+package com.kurrle.coffee;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates the monthly reports of all users with shots in the previous month. Users are processed in
+ * id order by a {@link ChunkedJobRunner} on a fixed pool of {@code reports.parallelism} threads, each
+ * holding at most one connection at a time, so the job leaves the rest of the connection pool to the UI;
+ * start-up fails if the parallelism would not leave any. Progress is checkpointed in {@link ReportJob}; the
+ * daily trigger and application start-up resume an unfinished run and do nothing once the month is
+ * completed. A user whose report fails is logged and counted on the job, and the run continues.
+ */
+@Component
+class MonthlyReportJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlyReportJob.class);
+
+    private final DailyShotRollupRepository rollupRepository;
+    private final ReportJobRepository jobRepository;
+    private final MonthlyReportWriter writer;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final ChunkedJobRunner<UUID> runner;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    MonthlyReportJob(DailyShotRollupRepository rollupRepository, ReportJobRepository jobRepository,
+                     MonthlyReportWriter writer, PlatformTransactionManager transactionManager,
+                     @Value("${reports.parallelism:2}") int parallelism,
+                     @Value("${reports.chunk-size:50}") int chunkSize,
+                     @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        if (parallelism < 1 || parallelism >= maximumPoolSize) {
+            throw new IllegalStateException("reports.parallelism must be between 1 and " + (maximumPoolSize - 1)
+                    + " to leave connections of the pool of " + maximumPoolSize + " to the application, but is "
+                    + parallelism);
+        }
+        this.rollupRepository = rollupRepository;
+        this.jobRepository = jobRepository;
+        this.writer = writer;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("monthly-report-", 0).daemon().factory());
+        this.runner = new ChunkedJobRunner<>(executor, parallelism, chunkSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reports.monthly-cron:0 0 4 * * *}")
+    void trigger() {
+        // Runs on its own thread so the shared scheduler thread is not blocked for the whole job
+        if (running.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("monthly-report-coordinator").daemon().start(() -> {
+                try {
+                    run(LocalDate.now(ZoneOffset.UTC).minusMonths(1).withDayOfMonth(1));
+                } catch (RuntimeException e) {
+                    logger.error("Monthly report run failed; it will resume from its checkpoint", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private void run(LocalDate month) {
+        var job = transaction.execute(status -> jobRepository.findById(month)
+                .orElseGet(() -> jobRepository.save(new ReportJob(month))));
+        if (job == null || job.getStatus() == ReportJob.Status.COMPLETED) {
+            return;
+        }
+        if (job.getProcessedUsers() > 0) {
+            logger.info("Resuming monthly reports for {} after {} users", month, job.getProcessedUsers());
+        }
+        var to = month.plusMonths(1);
+        var processed = runner.run(job.getCheckpoint(),
+                (after, limit) -> activeUsers(month, to, after, limit),
+                userId -> writeReport(month, to, userId),
+                (userId, e) -> logger.error("Monthly report for {} failed for user {}", month, userId, e),
+                (checkpoint, users, failed) -> transaction.executeWithoutResult(status ->
+                        jobRepository.findById(month)
+                                .ifPresent(current -> current.advance(checkpoint, users, failed))));
+        transaction.executeWithoutResult(status -> jobRepository.findById(month).ifPresent(ReportJob::complete));
+        var failed = readOnlyTransaction.execute(status ->
+                jobRepository.findById(month).map(ReportJob::getFailedUsers).orElse(0));
+        logger.info("Wrote monthly reports for {}: {} users in this run, {} failed in total", month, processed, failed);
+    }
+
+    private List<UUID> activeUsers(LocalDate from, LocalDate to, UUID after, int limit) {
+        var users = readOnlyTransaction.execute(status ->
+                rollupRepository.findActiveUsers(from, to, after, PageRequest.of(0, limit)));
+        return users != null ? users : List.of();
+    }
+
+    private void writeReport(LocalDate from, LocalDate to, UUID userId) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (var rows = rollupRepository.streamReportRows(userId, from, to)) {
+                writer.write(from, userId, rows);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * One bean's totals in a user's monthly report; {@code beanName} is null for shots without a bean.
+ */
+record MonthlyReportRow(@Nullable String beanName,
+                        long shotCount,
+                        long reviewedCount,
+                        long balancedCount,
+                        long outlierCount,
+                        double ratioSum,
+                        long timeSum) {
+
+    RollupStats stats(LocalDate month) {
+        return new RollupStats(null, month, shotCount, reviewedCount, balancedCount, outlierCount, ratioSum, timeSum);
+    }
+}
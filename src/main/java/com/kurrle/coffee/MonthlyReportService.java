@@ -0,0 +1,43 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.util.Optional;
+
+/**
+ * Access to the reports written by the monthly report job.
+ */
+@Service
+public class MonthlyReportService {
+
+    private final ReportJobRepository jobRepository;
+    private final MonthlyReportWriter writer;
+    private final AuthenticatedUser authenticatedUser;
+
+    MonthlyReportService(ReportJobRepository jobRepository, MonthlyReportWriter writer,
+                         AuthenticatedUser authenticatedUser) {
+        this.jobRepository = jobRepository;
+        this.writer = writer;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * The current user's report of the most recent completed month, if they had shots in that month.
+     */
+    @Transactional(readOnly = true)
+    public Optional<MonthlyReport> latestReport(ReportFormat format) {
+        var userId = getCurrentUser().getId();
+        return jobRepository.findFirstByStatusOrderByMonthDesc(ReportJob.Status.COMPLETED)
+                .map(job -> new MonthlyReport(job.getMonth(), format, writer.path(job.getMonth(), userId, format)))
+                .filter(report -> Files.isRegularFile(report.path()));
+    }
+}
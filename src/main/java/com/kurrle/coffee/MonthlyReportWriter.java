@@ -0,0 +1,128 @@
+package com.kurrle.coffee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes one user's monthly report as CSV and printable HTML in a single pass over the report rows.
+ * Both files are written to temporary files first and moved into place when complete, so readers never
+ * see a partial report and rewriting a report (e.g. after a resumed run) simply replaces it.
+ * <p>
+ * Reports are stored as {@code <directory>/<yyyy-MM>/<userId>.<extension>}.
+ */
+@Component
+class MonthlyReportWriter {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter TITLE_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+
+    private final Path directory;
+
+    MonthlyReportWriter(@Value("${reports.directory:reports}") Path directory) {
+        this.directory = directory;
+    }
+
+    Path path(LocalDate month, UUID userId, ReportFormat format) {
+        return directory.resolve(MONTH_FORMAT.format(month)).resolve(userId + "." + format.getExtension());
+    }
+
+    void write(LocalDate month, UUID userId, Stream<MonthlyReportRow> rows) {
+        var csvPath = path(month, userId, ReportFormat.CSV);
+        var htmlPath = path(month, userId, ReportFormat.HTML);
+        try {
+            Files.createDirectories(csvPath.getParent());
+            var csvTemp = Files.createTempFile(csvPath.getParent(), userId.toString(), ".csv.tmp");
+            var htmlTemp = Files.createTempFile(htmlPath.getParent(), userId.toString(), ".html.tmp");
+            try {
+                try (var csv = Files.newBufferedWriter(csvTemp); var html = Files.newBufferedWriter(htmlTemp)) {
+                    writeRows(month, rows, csv, html);
+                }
+                Files.move(csvTemp, csvPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(htmlTemp, htmlPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(csvTemp);
+                Files.deleteIfExists(htmlTemp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write monthly report of user " + userId, e);
+        }
+    }
+
+    private static void writeRows(LocalDate month, Stream<MonthlyReportRow> rows, Writer csv, Writer html)
+            throws IOException {
+        var title = "Espresso Report " + TITLE_FORMAT.format(month);
+        csv.write("bean,shots,reviewed,balanced_percent,outliers,avg_ratio,avg_time_s\n");
+        html.write("""
+                <!DOCTYPE html>
+                <html lang="en"><head><meta charset="utf-8"><title>%s</title>
+                <style>
+                body { font-family: sans-serif; margin: 2em; }
+                table { border-collapse: collapse; width: 100%%; }
+                th, td { padding: 0.4em 0.8em; border-bottom: 1px solid #ccc; text-align: right; }
+                th:first-child, td:first-child { text-align: left; }
+                tfoot td { font-weight: bold; }
+                @media print { body { margin: 0; } }
+                </style></head><body>
+                <h1>%s</h1>
+                <table><thead><tr><th>Bean</th><th>Shots</th><th>Reviewed</th><th>Balanced</th><th>Outliers</th>
+                <th>Avg Ratio</th><th>Avg Time</th></tr></thead><tbody>
+                """.formatted(title, title));
+
+        long shots = 0, reviewed = 0, balanced = 0, outliers = 0, timeSum = 0;
+        double ratioSum = 0;
+        for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+            var row = iterator.next();
+            var bean = row.beanName() != null ? row.beanName() : "No bean";
+            var stats = row.stats(month);
+            csv.write(csvField(bean) + "," + csvValues(stats) + "\n");
+            html.write("<tr><td>" + htmlEscape(bean) + "</td>" + htmlCells(stats) + "</tr>\n");
+            shots += row.shotCount();
+            reviewed += row.reviewedCount();
+            balanced += row.balancedCount();
+            outliers += row.outlierCount();
+            ratioSum += row.ratioSum();
+            timeSum += row.timeSum();
+        }
+        var total = new RollupStats(null, month, shots, reviewed, balanced, outliers, ratioSum, timeSum);
+        csv.write("Total," + csvValues(total) + "\n");
+        html.write("</tbody><tfoot><tr><td>Total</td>" + htmlCells(total) + "</tr></tfoot></table></body></html>\n");
+    }
+
+    private static String csvValues(RollupStats stats) {
+        return String.format(Locale.ROOT, "%d,%d,%.1f,%d,%.2f,%.1f", stats.shotCount(), stats.reviewedCount(),
+                stats.balancedShare() * 100, stats.outlierCount(), stats.averageRatio(), stats.averageTime());
+    }
+
+    private static String htmlCells(RollupStats stats) {
+        return String.format(Locale.ROOT,
+                "<td>%d</td><td>%d</td><td>%.0f%%</td><td>%d</td><td>1:%.1f</td><td>%.0fs</td>",
+                stats.shotCount(), stats.reviewedCount(), stats.balancedShare() * 100, stats.outlierCount(),
+                stats.averageRatio(), stats.averageTime());
+    }
+
+    private static String csvField(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String htmlEscape(String value) {
+        return value.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,42 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A single ranked match of a full-text search over shot notes, review notes and bean flavor notes.
+ */
+public interface NoteSearchHit {
+
+    enum Source {
+        SHOT("Shot"),
+        REVIEW("Review"),
+        BEAN("Bean");
+
+        private final String displayName;
+
+        Source(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    String getSource();
+
+    @Nullable
+    Long getShotId();
+
+    @Nullable
+    Long getBeanId();
+
+    @Nullable
+    String getBeanName();
+
+    String getText();
+
+    default Source getSourceType() {
+        return Source.valueOf(getSource());
+    }
+}
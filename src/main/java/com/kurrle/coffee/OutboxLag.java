@@ -0,0 +1,18 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * How far a consumer trails the shot outbox. {@code oldestPending} is the age of the oldest event the
+ * consumer has not processed yet, or null if it is up to date. Only {@code replayable} consumers can be
+ * moved back to an earlier position.
+ */
+public record OutboxLag(String consumer, long position, long headPosition, @Nullable Duration oldestPending,
+                        boolean replayable) {
+
+    public long pendingEvents() {
+        return headPosition - position;
+    }
+}
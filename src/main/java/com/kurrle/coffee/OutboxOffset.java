@@ -0,0 +1,44 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * The position up to which a {@link ShotEventConsumer} has processed the shot outbox. Advanced by
+ * {@link ShotOutboxRelay} in the same transaction as the consumer's own writes.
+ */
+@Entity
+@Table(name = "outbox_offset")
+public class OutboxOffset {
+
+    @Id
+    @Column(name = "consumer")
+    private String consumer;
+
+    @Column(name = "delivered_position", nullable = false)
+    private long position;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected OutboxOffset() { // For Hibernate
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    void moveTo(long position) {
+        this.position = position;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,31 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    /**
+     * Registers a consumer at the current head of the outbox, so a consumer added to a running system
+     * starts with new events instead of replaying the retained history.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO outbox_offset (consumer, delivered_position, updated_at)
+            SELECT :consumer, coalesce(max(delivery_position), 0), now() FROM shot_outbox
+            ON CONFLICT (consumer) DO NOTHING
+            """, nativeQuery = true)
+    void ensureExists(String consumer);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffset o WHERE o.consumer = :consumer")
+    Optional<OutboxOffset> findForUpdate(String consumer);
+
+    @Query("SELECT coalesce(min(o.position), 0) FROM OutboxOffset o")
+    long findMinPosition();
+}
@@ -0,0 +1,47 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.Role;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Administration of the shot outbox: consumer lag and replay. Restricted to administrators.
+ */
+@Service
+public class OutboxService {
+
+    private final ShotOutboxRelay relay;
+    private final AuthenticatedUser authenticatedUser;
+
+    OutboxService(ShotOutboxRelay relay, AuthenticatedUser authenticatedUser) {
+        this.relay = relay;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private void requireAdmin() {
+        var user = authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+        if (user.getRole() != Role.ROLE_ADMIN) {
+            throw new IllegalArgumentException("Not authorized to manage the outbox");
+        }
+    }
+
+    public List<OutboxLag> lag() {
+        requireAdmin();
+        return relay.lag();
+    }
+
+    /**
+     * Re-delivers the consumer's events starting at {@code fromPosition}. Only consumers that tolerate seeing
+     * those events again can be replayed, see {@link OutboxLag#replayable()}.
+     *
+     * @throws IllegalArgumentException if the consumer is unknown or cannot be replayed, or the position is no
+     *                                  longer retained
+     */
+    public void replay(String consumer, long fromPosition) {
+        requireAdmin();
+        relay.replay(consumer, fromPosition);
+    }
+}
@@ -0,0 +1,157 @@
+package com.kurrle.coffee;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch with bounded relative error (DDSketch style). Positive values are counted in
+ * logarithmically sized buckets, so any quantile is answered within {@link #RELATIVE_ACCURACY} of the
+ * true value without keeping the samples. Because a sketch is just bucket counts, values can be removed
+ * again and sketches of different beans can be merged by adding counts.
+ */
+public final class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte FORMAT_VERSION = 1;
+
+    private long zeroCount;
+    private int minKey;
+    private long[] counts = new long[0];
+    private long count;
+
+    public void add(double value) {
+        update(value, 1);
+    }
+
+    /**
+     * Removes a previously added value. Removing a value that was never added is ignored.
+     */
+    public void remove(double value) {
+        update(value, -1);
+    }
+
+    public void merge(QuantileSketch other) {
+        zeroCount += other.zeroCount;
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                ensureKey(other.minKey + i);
+                counts[other.minKey + i - minKey] += other.counts[i];
+            }
+        }
+        count += other.count;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the estimated value at the quantile, or {@code NaN} if the sketch is empty
+     */
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        var rank = (long) (quantile * (count - 1));
+        var seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return 2 * Math.pow(GAMMA, minKey + i) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, minKey + counts.length - 1) / (GAMMA + 1);
+    }
+
+    public Percentiles percentiles() {
+        return new Percentiles(quantile(0.1), quantile(0.5), quantile(0.9), count);
+    }
+
+    private void update(double value, int delta) {
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value == 0) {
+            if (zeroCount + delta < 0) {
+                return;
+            }
+            zeroCount += delta;
+        } else {
+            var key = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+            if (delta < 0 && (key < minKey || key >= minKey + counts.length || counts[key - minKey] == 0)) {
+                return;
+            }
+            ensureKey(key);
+            counts[key - minKey] += delta;
+        }
+        count += delta;
+    }
+
+    private void ensureKey(int key) {
+        if (counts.length == 0) {
+            minKey = key;
+            counts = new long[1];
+        } else if (key < minKey) {
+            var grown = new long[counts.length + (minKey - key)];
+            System.arraycopy(counts, 0, grown, minKey - key, counts.length);
+            counts = grown;
+            minKey = key;
+        } else if (key >= minKey + counts.length) {
+            counts = Arrays.copyOf(counts, key - minKey + 1);
+        }
+    }
+
+    /**
+     * Serializes the sketch as variable-length integers; a few hundred bytes for typical shot histories.
+     */
+    public byte[] toBytes() {
+        var out = new ByteArrayOutputStream(16 + counts.length * 2);
+        out.write(FORMAT_VERSION);
+        VarInts.write(out, zeroCount);
+        VarInts.write(out, Integer.toUnsignedLong((minKey << 1) ^ (minKey >> 31)));
+        VarInts.write(out, counts.length);
+        for (var bucket : counts) {
+            VarInts.write(out, bucket);
+        }
+        return out.toByteArray();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        var sketch = new QuantileSketch();
+        if (bytes.length == 0) {
+            return sketch;
+        }
+        var in = ByteBuffer.wrap(bytes);
+        if (in.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sketch format");
+        }
+        sketch.zeroCount = VarInts.read(in);
+        var zigZagKey = (int) VarInts.read(in);
+        sketch.minKey = (zigZagKey >>> 1) ^ -(zigZagKey & 1);
+        sketch.counts = new long[(int) VarInts.read(in)];
+        sketch.count = sketch.zeroCount;
+        for (int i = 0; i < sketch.counts.length; i++) {
+            sketch.counts[i] = VarInts.read(in);
+            sketch.count += sketch.counts[i];
+        }
+        return sketch;
+    }
+
+    /**
+     * The 10th, 50th and 90th percentile of a sketch and the number of values it was built from.
+     */
+    public record Percentiles(double p10, double p50, double p90, long count) {
+    }
+}
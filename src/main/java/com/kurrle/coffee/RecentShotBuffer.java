@@ -0,0 +1,273 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * The most recent shots of recently active users, newest first, so the first page of the shot list and
+ * the entry form's defaults need no query. A user's shots are loaded on first access and then kept
+ * current by {@link EspressoShotService}'s write paths once their transaction commits; the least
+ * recently used users are evicted beyond the configured number.
+ * <p>
+ * Each user's buffer is a fixed-size ring holding exactly the user's newest shots, detached with their
+ * bean and review loaded. A deleted shot shrinks the ring, so pages reaching past it are read from the
+ * database again, which reloads the ring.
+ */
+@Component
+class RecentShotBuffer {
+
+    private final EspressoShotRepository shotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int size;
+    private final int maxUsers;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<UUID, Ring> rings = new LinkedHashMap<>(16, 0.75f, true);
+    // Stamp per user whose shots are being loaded, replaced on every write of the user's shots, so shots
+    // loaded concurrently with a write are not buffered. Stamps are never reused and entries are dropped
+    // once the load is done; guarded by this
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private long stamps;
+
+    RecentShotBuffer(EspressoShotRepository shotRepository, PlatformTransactionManager transactionManager,
+                     @Value("${shots.recent-buffer.size:100}") int size,
+                     @Value("${shots.recent-buffer.max-users:1000}") int maxUsers) {
+        this.shotRepository = shotRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.size = size;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Returns the user's shots at {@code offset} in newest-first order, or empty if the page reaches
+     * beyond the buffered shots.
+     */
+    Optional<List<EspressoShot>> page(User user, int offset, int limit) {
+        if ((long) offset + limit > size) {
+            return Optional.empty();
+        }
+        return read(user, ring -> ring.page(offset, limit));
+    }
+
+    /**
+     * Returns the user's latest non-outlier shot of a bean, or empty if it is not among the buffered shots.
+     * An empty result therefore does not mean the bean has no shots.
+     */
+    Optional<EspressoShot> latestOfBean(User user, Long beanId) {
+        return read(user, ring -> ring.latestOfBean(beanId));
+    }
+
+    /**
+     * Applies {@code reader} to the user's ring while holding the lock, loading the ring first if needed,
+     * since writes change rings in place.
+     */
+    private <T> Optional<T> read(User user, Function<Ring, Optional<T>> reader) {
+        var userId = user.getId();
+        long version;
+        synchronized (this) {
+            var ring = rings.get(userId);
+            // A ring shrunk by deletes is reloaded
+            if (ring != null && (ring.complete || ring.count == ring.shots.length)) {
+                return reader.apply(ring);
+            }
+            version = versions.computeIfAbsent(userId, k -> ++stamps);
+        }
+        var ring = load(user);
+        synchronized (this) {
+            var current = Long.valueOf(version).equals(versions.get(userId));
+            versions.remove(userId);
+            if (!current) {
+                return Optional.empty();
+            }
+            rings.put(userId, ring);
+            var iterator = rings.keySet().iterator();
+            while (rings.size() > maxUsers && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return reader.apply(ring);
+        }
+    }
+
+    private Ring load(User user) {
+        var slice = readOnlyTransaction.execute(status -> shotRepository.findSlice(
+                ShotSpecifications.matching(user, ShotFilter.NONE),
+                PageRequest.of(0, size, ShotSortKey.NEWEST_FIRST)));
+        var ring = new Ring(size);
+        if (slice != null) {
+            slice.forEach(ring::addOldest);
+            ring.complete = !slice.hasNext();
+        }
+        return ring;
+    }
+
+    /**
+     * Adds or replaces a created or updated shot once the current transaction commits. The shot is served
+     * after its session has closed, so it must have been read with its bean and review fetched.
+     */
+    void written(EspressoShot shot) {
+        var userId = shot.getUser().getId();
+        afterCommit(() -> {
+            versions.computeIfPresent(userId, (k, version) -> ++stamps);
+            var ring = rings.get(userId);
+            if (ring != null) {
+                ring.put(shot);
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted shot once the current transaction commits.
+     */
+    void deleted(UUID userId, Long shotId) {
+        afterCommit(() -> {
+            versions.computeIfPresent(userId, (k, version) -> ++stamps);
+            var ring = rings.get(userId);
+            if (ring != null) {
+                ring.remove(shotId);
+            }
+        });
+    }
+
+    /**
+     * Drops all buffered shots once the current transaction commits, e.g. because a bean they show was
+     * renamed. Beans can be shared by a team, so this is not limited to one user.
+     */
+    void clear() {
+        afterCommit(() -> {
+            versions.replaceAll((userId, version) -> ++stamps);
+            rings.clear();
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            synchronized (this) {
+                change.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Fixed-size ring of a user's newest shots, newest at {@code head}. Shots keep their position,
+     * since the list is ordered by creation time and shot id, which never change. Guarded by the buffer;
+     * reads return copies.
+     */
+    private static final class Ring {
+
+        private final EspressoShot[] shots;
+        private int head;
+        private int count;
+        // Whether the ring holds all of the user's shots
+        private boolean complete;
+
+        Ring(int size) {
+            this.shots = new EspressoShot[size];
+        }
+
+        private EspressoShot get(int index) {
+            return shots[(head + index) % shots.length];
+        }
+
+        private void set(int index, @Nullable EspressoShot shot) {
+            shots[(head + index) % shots.length] = shot;
+        }
+
+        Optional<List<EspressoShot>> page(int offset, int limit) {
+            if (offset + limit > count && !complete) {
+                return Optional.empty();
+            }
+            var page = new ArrayList<EspressoShot>(limit);
+            for (var index = offset; index < Math.min(offset + limit, count); index++) {
+                page.add(get(index));
+            }
+            return Optional.of(page);
+        }
+
+        Optional<EspressoShot> latestOfBean(Long beanId) {
+            for (var index = 0; index < count; index++) {
+                var shot = get(index);
+                var bean = shot.getCoffeeBean();
+                if (!shot.isOutlier() && bean != null && beanId.equals(bean.getId())) {
+                    return Optional.of(shot);
+                }
+            }
+            return Optional.empty();
+        }
+
+        void addOldest(EspressoShot shot) {
+            set(count++, shot);
+        }
+
+        void put(EspressoShot shot) {
+            var position = 0;
+            while (position < count && isNewer(get(position), shot)) {
+                position++;
+            }
+            if (position < count && Objects.equals(get(position).getId(), shot.getId())) {
+                set(position, shot);
+                return;
+            }
+            if (position == count && (!complete || count == shots.length)) {
+                // Older than every buffered shot, so it is not among the newest
+                return;
+            }
+            if (count == shots.length) {
+                // The oldest shot falls out of the ring
+                count--;
+                complete = false;
+            }
+            head = (head + shots.length - 1) % shots.length;
+            for (var index = 0; index < position; index++) {
+                set(index, get(index + 1));
+            }
+            set(position, shot);
+            count++;
+        }
+
+        void remove(Long shotId) {
+            for (var index = 0; index < count; index++) {
+                if (shotId.equals(get(index).getId())) {
+                    for (var next = index + 1; next < count; next++) {
+                        set(next - 1, get(next));
+                    }
+                    set(--count, null);
+                    return;
+                }
+            }
+        }
+
+        private static boolean isNewer(EspressoShot shot, EspressoShot other) {
+            var byTime = shot.getCreatedAt().compareTo(other.getCreatedAt());
+            return byTime > 0 || byTime == 0 && shot.getId() > other.getId();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.kurrle.coffee;
+
+/**
+ * A starting recipe for a bean without history, averaged over other users' balanced shots on similar
+ * beans. Only aggregates are exposed, and only when enough different users contributed.
+ */
+public record RecipeSuggestion(double grindSize,
+                               double dose,
+                               double yield,
+                               int extractionTime,
+                               int beanCount,
+                               long shotCount) {
+
+    public double brewRatio() {
+        return yield / dose;
+    }
+}
@@ -0,0 +1,99 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the history-based {@link ShotInsights} of a shot off the UI thread. Work runs on a small
+ * bounded pool; when its queue is full, the returned future fails immediately instead of piling up
+ * requests. Results are cached per shot and reused for repeat visits until the user's next write.
+ */
+@Service
+public class RecommendationService {
+
+    private static final int SIMILAR_SHOT_COUNT = 5;
+
+    private final ShotStatisticsService statisticsService;
+    private final ShotAnalyticsService analyticsService;
+    private final ShotInsightsCache cache;
+    private final AuthenticatedUser authenticatedUser;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    RecommendationService(ShotStatisticsService statisticsService, ShotAnalyticsService analyticsService,
+                          ShotInsightsCache cache, AuthenticatedUser authenticatedUser,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${recommendations.async.threads:2}") int threads,
+                          @Value("${recommendations.async.queue-capacity:50}") int queueCapacity,
+                          @Value("${recommendations.async.timeout:PT5S}") Duration timeout) {
+        this.statisticsService = statisticsService;
+        this.analyticsService = analyticsService;
+        this.cache = cache;
+        this.authenticatedUser = authenticatedUser;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("recommendations-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * Starts computing the insights of one of the current user's shots, or returns the cached result.
+     * Must be called on a request thread; the returned future completes on a background thread and fails
+     * with a {@link java.util.concurrent.TimeoutException} after the configured timeout, or with a
+     * {@link java.util.concurrent.RejectedExecutionException} if too many computations are queued.
+     */
+    public CompletableFuture<ShotInsights> insights(EspressoShot shot) {
+        // The session-scoped user is not available on the executor's threads
+        var userId = getCurrentUser().getId();
+        var beanId = shot.getCoffeeBean() != null ? shot.getCoffeeBean().getId() : null;
+        var future = cache.get(userId, shot.getId(), () -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> compute(userId, shot.getId(), beanId), executor);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+        // Time out a copy, so a slow computation still completes and is cached for the next visit
+        return future.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private ShotInsights compute(UUID userId, Long shotId, Long beanId) {
+        return readOnlyTransaction.execute(status -> {
+            var beanPercentiles = beanId != null
+                    ? statisticsService.percentilesByBean(userId, List.of(beanId)).get(beanId)
+                    : null;
+            var transitions = beanId != null
+                    ? statisticsService.tasteTransitions(userId, beanId)
+                    : new TransitionMatrix();
+            return new ShotInsights(beanPercentiles, statisticsService.userPercentiles(userId), transitions,
+                    analyticsService.similarShots(userId, shotId, SIMILAR_SHOT_COUNT));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
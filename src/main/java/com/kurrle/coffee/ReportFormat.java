@@ -0,0 +1,25 @@
+package com.kurrle.coffee;
+
+/**
+ * File formats of the monthly report.
+ */
+public enum ReportFormat {
+    CSV("csv", "text/csv"),
+    HTML("html", "text/html");
+
+    private final String extension;
+    private final String contentType;
+
+    ReportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,104 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Progress of the monthly report run for one month. {@link MonthlyReportJob} advances the checkpoint
+ * after every completed wave of users, so a run interrupted by a restart continues after the last
+ * checkpointed user instead of starting over.
+ */
+@Entity
+@Table(name = "report_job")
+public class ReportJob {
+
+    /**
+     * Sorts before every other user id, so a fresh run starts at the first user.
+     */
+    static final UUID START = new UUID(0, 0);
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    // First day of the reported month
+    @Id
+    @Column(name = "month")
+    private LocalDate month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    // Reports of all users up to and including this id are written
+    @Column(name = "checkpoint_user_id", nullable = false)
+    private UUID checkpoint;
+
+    @Column(name = "processed_users", nullable = false)
+    private int processedUsers;
+
+    // Users among the processed ones whose report could not be written; see the log for their ids
+    @Column(name = "failed_users", columnDefinition = "integer default 0")
+    private int failedUsers;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    @Nullable
+    private Instant finishedAt;
+
+    protected ReportJob() { // For Hibernate
+    }
+
+    ReportJob(LocalDate month) {
+        this.month = month;
+        this.status = Status.RUNNING;
+        this.checkpoint = START;
+        this.startedAt = Instant.now();
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UUID getCheckpoint() {
+        return checkpoint;
+    }
+
+    public int getProcessedUsers() {
+        return processedUsers;
+    }
+
+    public int getFailedUsers() {
+        return failedUsers;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public @Nullable Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void advance(UUID checkpoint, int users, int failed) {
+        this.checkpoint = checkpoint;
+        this.processedUsers += users;
+        this.failedUsers += failed;
+    }
+
+    void complete() {
+        this.status = Status.COMPLETED;
+        this.finishedAt = Instant.now();
+    }
+}
@@ -0,0 +1,11 @@
+package com.kurrle.coffee;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+interface ReportJobRepository extends JpaRepository<ReportJob, LocalDate> {
+
+    Optional<ReportJob> findFirstByStatusOrderByMonthDesc(ReportJob.Status status);
+}
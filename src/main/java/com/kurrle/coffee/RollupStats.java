@@ -0,0 +1,41 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * Shot statistics summed over a period (a day or the first day of a month), optionally for a single bean.
+ */
+public record RollupStats(@Nullable Long beanId,
+                          LocalDate period,
+                          long shotCount,
+                          long reviewedCount,
+                          long balancedCount,
+                          long outlierCount,
+                          double ratioSum,
+                          long timeSum) {
+
+    public RollupStats(@Nullable Long beanId, int year, int month, long shotCount, long reviewedCount,
+                       long balancedCount, long outlierCount, double ratioSum, long timeSum) {
+        this(beanId, LocalDate.of(year, month, 1), shotCount, reviewedCount, balancedCount, outlierCount,
+                ratioSum, timeSum);
+    }
+
+    /**
+     * Share of reviewed shots that were balanced, between 0 and 1.
+     */
+    public double balancedShare() {
+        return reviewedCount == 0 ? 0 : (double) balancedCount / reviewedCount;
+    }
+
+    public double averageRatio() {
+        var measured = shotCount - outlierCount;
+        return measured == 0 ? 0 : ratioSum / measured;
+    }
+
+    public double averageTime() {
+        var measured = shotCount - outlierCount;
+        return measured == 0 ? 0 : (double) timeSum / measured;
+    }
+}
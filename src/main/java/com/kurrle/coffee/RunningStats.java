@@ -0,0 +1,58 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.Embeddable;
+
+/**
+ * Count, mean and sum of squared deviations of a series, updated in O(1) per value with Welford's
+ * algorithm. Values can also be removed again, which keeps edits and deletions exact.
+ */
+@Embeddable
+public class RunningStats {
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStandardDeviation() {
+        return count < 2 ? 0 : Math.sqrt(m2 / (count - 1));
+    }
+
+    /**
+     * A detached copy, e.g. to take values out for a calculation without changing the stored statistics.
+     */
+    RunningStats copy() {
+        var copy = new RunningStats();
+        copy.count = count;
+        copy.mean = mean;
+        copy.m2 = m2;
+        return copy;
+    }
+
+    void add(double value) {
+        count++;
+        var delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    void remove(double value) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        var previousMean = (count * mean - value) / (count - 1);
+        m2 = Math.max(0, m2 - (value - mean) * (value - previousMean));
+        mean = previousMean;
+        count--;
+    }
+}
@@ -0,0 +1,59 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Statistics over a user's whole shot history, computed from the in-memory {@link ShotColumnStore}
+ * instead of loading {@link EspressoShot} entities.
+ */
+@Service
+public class ShotAnalyticsService {
+
+    private final ShotColumnStore columnStore;
+    private final ShotNeighbourIndex neighbourIndex;
+    private final AuthenticatedUser authenticatedUser;
+
+    ShotAnalyticsService(ShotColumnStore columnStore, ShotNeighbourIndex neighbourIndex,
+                         AuthenticatedUser authenticatedUser) {
+        this.columnStore = columnStore;
+        this.neighbourIndex = neighbourIndex;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * Summarizes all of the current user's shots, or only those of the given bean.
+     */
+    public ShotSummary summarize(@Nullable Long beanId) {
+        var columns = columnStore.columns(getCurrentUser().getId());
+        return ShotSummary.of(columns, beanId != null ? beanId : DailyShotRollup.NO_BEAN);
+    }
+
+    /**
+     * Finds the current user's past shots of the same bean that are closest to the given shot in grind
+     * size, dose, yield and extraction time. Empty if the shot is unknown or has no bean.
+     */
+    public List<SimilarShot> similarShots(Long shotId, int limit) {
+        return similarShots(getCurrentUser().getId(), shotId, limit);
+    }
+
+    List<SimilarShot> similarShots(UUID userId, Long shotId, int limit) {
+        var columns = columnStore.columns(userId);
+        var row = columns.indexOf(shotId);
+        if (row < 0 || columns.beanId(row) == DailyShotRollup.NO_BEAN) {
+            return List.of();
+        }
+        return neighbourIndex.tree(userId, columns.beanId(row)).nearest(columns.grindSize(row), columns.dose(row),
+                columns.yield(row), columns.extractionTime(row), limit, shotId);
+    }
+}
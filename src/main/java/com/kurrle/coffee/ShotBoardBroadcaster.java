@@ -0,0 +1,254 @@
+package com.kurrle.coffee;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed shot writes out to the server-sent event streams of the teams' live boards.
+ * <p>
+ * A single producer thread turns each {@link ShotChangedEvent} into a board message once and appends
+ * it to the bounded buffer of every subscriber of the shot's team, dropping the subscriber's oldest
+ * message when the buffer is full. A small writer pool drains the buffers, each subscriber by at most
+ * one writer at a time, so a slow client only falls behind on its own stream. Idle subscribers hold no
+ * thread. The producer's queue is bounded as well and drops its oldest event when it overflows.
+ * <p>
+ * A member removed from a team has their streams of the team's board closed once the removal commits.
+ */
+@Component
+class ShotBoardBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShotBoardBroadcaster.class);
+
+    private final EspressoShotRepository shotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor producer;
+    private final ExecutorService writers;
+    private final int bufferSize;
+    private final Duration subscriptionTimeout;
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribersByTeam = new ConcurrentHashMap<>();
+
+    ShotBoardBroadcaster(EspressoShotRepository shotRepository, PlatformTransactionManager transactionManager,
+                         @Value("${board.event-queue-capacity:1000}") int eventQueueCapacity,
+                         @Value("${board.writer-threads:4}") int writerThreads,
+                         @Value("${board.buffer-size:32}") int bufferSize,
+                         @Value("${board.subscription-timeout:PT1H}") Duration subscriptionTimeout) {
+        this.shotRepository = shotRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.producer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(eventQueueCapacity),
+                Thread.ofPlatform().name("shot-board-producer").daemon().factory(),
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+        this.writers = Executors.newFixedThreadPool(writerThreads,
+                Thread.ofPlatform().name("shot-board-writer-", 0).daemon().factory());
+        this.bufferSize = bufferSize;
+        this.subscriptionTimeout = subscriptionTimeout;
+    }
+
+    /**
+     * Opens a stream of the team's shot writes for one of its members. The caller must have checked the
+     * team membership.
+     */
+    SseEmitter subscribe(Long teamId, UUID userId) {
+        var subscriber = new Subscriber(teamId, userId, new SseEmitter(subscriptionTimeout.toMillis()));
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(error -> unsubscribe(subscriber));
+        subscribersByTeam.computeIfAbsent(teamId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return subscriber.emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByTeam.computeIfPresent(subscriber.teamId, (teamId, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    @TransactionalEventListener
+    void on(TeamMemberRemovedEvent event) {
+        var subscribers = subscribersByTeam.get(event.teamId());
+        if (subscribers != null) {
+            subscribers.stream()
+                    .filter(subscriber -> subscriber.userId.equals(event.userId()))
+                    .forEach(Subscriber::complete);
+        }
+    }
+
+    @TransactionalEventListener
+    void on(ShotChangedEvent event) {
+        if (!subscribersByTeam.isEmpty()) {
+            producer.execute(() -> publish(event));
+        }
+    }
+
+    private void publish(ShotChangedEvent event) {
+        try {
+            var before = event.before();
+            var after = event.after();
+            var shot = after != null ? readOnlyTransaction.execute(status -> toBoardShot(after.shotId())) : null;
+            var beforeTeamId = before != null ? before.teamId() : null;
+            if (shot != null) {
+                broadcast(shot.teamId(), new Message("shot", shot.shotId(), shot.shot()));
+            }
+            // Deleted, or moved off the team's board by a change of bean or the bean being unshared
+            if (beforeTeamId != null && (shot == null || !beforeTeamId.equals(shot.teamId()))) {
+                broadcast(beforeTeamId, new Message("shot-removed", before.shotId(), before.shotId()));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to publish shot {} to the live boards", event, e);
+        }
+    }
+
+    private TeamShot toBoardShot(Long shotId) {
+        return shotRepository.findById(shotId)
+                .filter(shot -> shot.getTeam() != null && shot.getCoffeeBean() != null)
+                .map(shot -> new TeamShot(shot.getTeam().getId(), new BoardShot(
+                        shot.getId(),
+                        shot.getUser().getFullName(),
+                        shot.getCoffeeBean().getName(),
+                        shot.getGrindSize(),
+                        shot.getGrindAmount(),
+                        shot.getYield(),
+                        shot.getExtractionTime(),
+                        shot.getBrewRatio(),
+                        shot.getReview() != null ? shot.getReview().getTasteProfile() : null,
+                        shot.getCreatedAt())))
+                .orElse(null);
+    }
+
+    private void broadcast(Long teamId, Message message) {
+        var subscribers = subscribersByTeam.get(teamId);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(message));
+        }
+    }
+
+    // Keeps proxies from closing idle streams and detects clients that went away without closing
+    @Scheduled(fixedDelayString = "${board.heartbeat-interval:PT30S}")
+    void heartbeat() {
+        subscribersByTeam.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.offer(Message.HEARTBEAT)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        producer.shutdownNow();
+        writers.shutdownNow();
+        subscribersByTeam.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private record TeamShot(Long teamId, BoardShot shot) {
+    }
+
+    /**
+     * A server-sent event, kept unbuilt since Spring's event builders cannot be sent twice.
+     * Heartbeats have no name and are sent as comments.
+     */
+    private record Message(String name, Long id, Object data) {
+
+        static final Message HEARTBEAT = new Message("", 0L, "");
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).id(id.toString()).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long teamId;
+        private final UUID userId;
+        private final SseEmitter emitter;
+
+        // Guarded by this
+        private final ArrayDeque<Message> buffer = new ArrayDeque<>();
+        // Whether a writer is draining the buffer; guarded by this
+        private boolean draining;
+        // Guarded by this
+        private boolean closed;
+
+        Subscriber(Long teamId, UUID userId, SseEmitter emitter) {
+            this.teamId = teamId;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() == bufferSize) {
+                    buffer.pollFirst();
+                }
+                buffer.addLast(message);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            writers.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Message message;
+                synchronized (this) {
+                    message = buffer.pollFirst();
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(message.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away or the stream completed; the container completes the emitter
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                buffer.clear();
+            }
+            unsubscribe(this);
+        }
+
+        /**
+         * Ends the stream from the server side, dropping messages not sent yet.
+         */
+        void complete() {
+            close();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live boards of teams' shots, streamed as server-sent events by {@link ShotBoardBroadcaster}.
+ */
+@Service
+public class ShotBoardService {
+
+    private final TeamRepository teamRepository;
+    private final TeamMembershipRepository membershipRepository;
+    private final ShotBoardBroadcaster broadcaster;
+    private final AuthenticatedUser authenticatedUser;
+
+    ShotBoardService(TeamRepository teamRepository, TeamMembershipRepository membershipRepository,
+                     ShotBoardBroadcaster broadcaster, AuthenticatedUser authenticatedUser) {
+        this.teamRepository = teamRepository;
+        this.membershipRepository = membershipRepository;
+        this.broadcaster = broadcaster;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    /**
+     * Opens a stream of the team's shots as they are pulled, updated and deleted. Sends {@code shot}
+     * events with a {@link BoardShot} and {@code shot-removed} events with the shot id. Events a slow
+     * client cannot keep up with are dropped, oldest first.
+     *
+     * @throws IllegalArgumentException if the team does not exist or the current user is not a member
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long teamId) {
+        var user = authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+        var team = teamRepository.findById(teamId).orElseThrow(() -> new IllegalArgumentException("Team not found: " + teamId));
+        membershipRepository.findByTeamAndUser(team, user)
+                .orElseThrow(() -> new IllegalArgumentException("Not a member of this team"));
+        return broadcaster.subscribe(teamId, user.getId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link EspressoShotService} inside the writing transaction whenever a shot is created,
+ * updated, reviewed or deleted. {@code before} is null for created shots, {@code after} is null for
+ * deleted ones.
+ * <p>
+ * Synchronous listeners should stay cheap, as they add to every write; heavier derived data is
+ * maintained by {@link ShotEventConsumer}s from the shot outbox instead.
+ */
+public record ShotChangedEvent(UUID userId, @Nullable ShotSnapshot before, @Nullable ShotSnapshot after) {
+
+    static ShotChangedEvent created(ShotSnapshot after) {
+        return new ShotChangedEvent(after.userId(), null, after);
+    }
+
+    static ShotChangedEvent updated(ShotSnapshot before, ShotSnapshot after) {
+        return new ShotChangedEvent(after.userId(), before, after);
+    }
+
+    static ShotChangedEvent deleted(ShotSnapshot before) {
+        return new ShotChangedEvent(before.userId(), before, null);
+    }
+
+    public boolean isCreated() {
+        return before == null;
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+}
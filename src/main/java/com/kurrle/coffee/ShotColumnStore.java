@@ -0,0 +1,147 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-memory cache of {@link ShotColumns} per user. Columns are loaded lazily on first access, kept
+ * current from committed {@link ShotChangedEvent}s and evicted least-recently-used once the retained
+ * arrays exceed the configured memory budget.
+ */
+@Component
+public class ShotColumnStore {
+
+    private final EspressoShotRepository shotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts with the least recently used user; guarded by this
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+
+    ShotColumnStore(EspressoShotRepository shotRepository, PlatformTransactionManager transactionManager,
+                    @Value("${analytics.column-store.max-bytes:67108864}") long maxBytes) {
+        this.shotRepository = shotRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the user's columns, loading them from the database if they are not cached. Concurrent
+     * callers for the same user wait for a single load.
+     */
+    public ShotColumns columns(UUID userId) {
+        Entry entry;
+        boolean loader = false;
+        synchronized (this) {
+            entry = entries.get(userId);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(userId, entry);
+                loader = true;
+            }
+        }
+        if (loader) {
+            load(userId, entry);
+        }
+        entry.ready.join();
+        return entry.columns;
+    }
+
+    private void load(UUID userId, Entry entry) {
+        ShotColumns loaded;
+        try {
+            loaded = readOnlyTransaction.execute(status -> {
+                try (var shots = shotRepository.streamSnapshotsByUser(userId)) {
+                    var columns = ShotColumns.EMPTY;
+                    for (var iterator = shots.iterator(); iterator.hasNext(); ) {
+                        columns = columns.upsert(iterator.next());
+                    }
+                    return columns;
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                entries.remove(userId, entry);
+            }
+            entry.ready.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            // Writes committed while loading may or may not be part of the result; upserts and removes
+            // are idempotent, so replaying them is always safe
+            for (var event : entry.pending) {
+                loaded = apply(loaded, event);
+            }
+            entry.pending = null;
+            entry.columns = loaded;
+            account(entry);
+            evictOverBudget(userId);
+        }
+        entry.ready.complete(null);
+    }
+
+    // Runs before other after-commit listeners so caches derived from the columns see the write applied
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    void on(ShotChangedEvent event) {
+        synchronized (this) {
+            var entry = entries.get(event.userId());
+            if (entry == null) {
+                return;
+            }
+            if (entry.pending != null) {
+                entry.pending.add(event);
+                return;
+            }
+            entry.columns = apply(entry.columns, event);
+            account(entry);
+            evictOverBudget(event.userId());
+        }
+    }
+
+    private static ShotColumns apply(ShotColumns columns, ShotChangedEvent event) {
+        if (event.after() != null) {
+            return columns.upsert(event.after());
+        }
+        return columns.remove(event.before().shotId());
+    }
+
+    private void account(Entry entry) {
+        var bytes = (long) entry.columns.capacity() * ShotColumns.BYTES_PER_ROW;
+        usedBytes += bytes - entry.accountedBytes;
+        entry.accountedBytes = bytes;
+    }
+
+    private void evictOverBudget(UUID keep) {
+        var iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            if (!eldest.getKey().equals(keep) && eldest.getValue().pending == null) {
+                usedBytes -= eldest.getValue().accountedBytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Void> ready = new CompletableFuture<>();
+        volatile ShotColumns columns = ShotColumns.EMPTY;
+        // Events received while the columns are loading; null once loaded
+        @Nullable List<ShotChangedEvent> pending = new ArrayList<>();
+        long accountedBytes;
+    }
+}
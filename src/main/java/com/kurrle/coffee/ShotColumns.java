@@ -0,0 +1,195 @@
+package com.kurrle.coffee;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented, primitive copy of one user's shots, ordered by shot id (i.e. by creation).
+ * Instances are published by {@link ShotColumnStore} and never change size; a write produces a new
+ * instance that may share the underlying arrays. Analytics code should scan the columns with index
+ * loops or {@link #indices()} instead of loading {@link EspressoShot} entities.
+ * <p>
+ * Values of an edited shot are overwritten in place, so a concurrent scan may observe a mix of the
+ * old and new values of that single row.
+ */
+public final class ShotColumns {
+
+    /**
+     * Bytes retained per row across all columns, used for the memory budget.
+     */
+    static final int BYTES_PER_ROW = 8 * 7 + 4 + 1 + 1;
+
+    public static final byte NOT_REVIEWED = -1;
+
+    static final ShotColumns EMPTY = new ShotColumns(0);
+
+    final long[] shotIds;
+    final long[] beanIds;
+    final double[] grindSizes;
+    final double[] doses;
+    final double[] yields;
+    final double[] ratios;
+    final int[] extractionTimes;
+    final byte[] tasteOrdinals;
+    final long[] createdAtMillis;
+    final boolean[] outliers;
+    private final int size;
+
+    private ShotColumns(int capacity) {
+        this(new long[capacity], new long[capacity], new double[capacity], new double[capacity], new double[capacity],
+                new double[capacity], new int[capacity], new byte[capacity], new long[capacity],
+                new boolean[capacity], 0);
+    }
+
+    private ShotColumns(long[] shotIds, long[] beanIds, double[] grindSizes, double[] doses, double[] yields,
+                        double[] ratios, int[] extractionTimes, byte[] tasteOrdinals, long[] createdAtMillis,
+                        boolean[] outliers, int size) {
+        this.shotIds = shotIds;
+        this.beanIds = beanIds;
+        this.grindSizes = grindSizes;
+        this.doses = doses;
+        this.yields = yields;
+        this.ratios = ratios;
+        this.extractionTimes = extractionTimes;
+        this.tasteOrdinals = tasteOrdinals;
+        this.createdAtMillis = createdAtMillis;
+        this.outliers = outliers;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public IntStream indices() {
+        return IntStream.range(0, size);
+    }
+
+    public long shotId(int index) {
+        return shotIds[index];
+    }
+
+    /**
+     * @return the bean id, or {@link DailyShotRollup#NO_BEAN} for shots without a bean
+     */
+    public long beanId(int index) {
+        return beanIds[index];
+    }
+
+    public double grindSize(int index) {
+        return grindSizes[index];
+    }
+
+    public double dose(int index) {
+        return doses[index];
+    }
+
+    public double yield(int index) {
+        return yields[index];
+    }
+
+    public double ratio(int index) {
+        return ratios[index];
+    }
+
+    public int extractionTime(int index) {
+        return extractionTimes[index];
+    }
+
+    /**
+     * @return the {@link TasteProfile} ordinal of the review, or {@link #NOT_REVIEWED}
+     */
+    public byte tasteOrdinal(int index) {
+        return tasteOrdinals[index];
+    }
+
+    public long createdAtMillis(int index) {
+        return createdAtMillis[index];
+    }
+
+    public boolean outlier(int index) {
+        return outliers[index];
+    }
+
+    /**
+     * @return the row index of the shot, or a negative value if it is not present
+     */
+    public int indexOf(long shotId) {
+        return Arrays.binarySearch(shotIds, 0, size, shotId);
+    }
+
+    int capacity() {
+        return shotIds.length;
+    }
+
+    /**
+     * Inserts or overwrites the row for the snapshot's shot id. Appending within capacity reuses the
+     * arrays, since readers of this instance never look past their own size.
+     */
+    ShotColumns upsert(ShotSnapshot shot) {
+        var index = indexOf(shot.shotId());
+        if (index >= 0) {
+            write(index, shot);
+            return this;
+        }
+        var insertAt = -index - 1;
+        ShotColumns target;
+        if (insertAt == size && size < capacity()) {
+            target = this;
+        } else {
+            target = copy(size < capacity() ? capacity() : Math.max(16, size * 2), insertAt);
+        }
+        target.write(insertAt, shot);
+        return target.withSize(size + 1);
+    }
+
+    ShotColumns remove(long shotId) {
+        var index = indexOf(shotId);
+        if (index < 0) {
+            return this;
+        }
+        // Copy so that concurrent readers of this instance keep a consistent view
+        var target = new ShotColumns(capacity());
+        copyRange(this, 0, target, 0, index);
+        copyRange(this, index + 1, target, index, size - index - 1);
+        return target.withSize(size - 1);
+    }
+
+    private ShotColumns copy(int capacity, int gapAt) {
+        var target = new ShotColumns(capacity);
+        copyRange(this, 0, target, 0, gapAt);
+        copyRange(this, gapAt, target, gapAt + 1, size - gapAt);
+        return target;
+    }
+
+    private ShotColumns withSize(int newSize) {
+        return new ShotColumns(shotIds, beanIds, grindSizes, doses, yields, ratios, extractionTimes,
+                tasteOrdinals, createdAtMillis, outliers, newSize);
+    }
+
+    private void write(int index, ShotSnapshot shot) {
+        shotIds[index] = shot.shotId();
+        beanIds[index] = shot.beanId() != null ? shot.beanId() : DailyShotRollup.NO_BEAN;
+        grindSizes[index] = shot.grindSize();
+        doses[index] = shot.grindAmount();
+        yields[index] = shot.yield();
+        ratios[index] = shot.brewRatio();
+        extractionTimes[index] = shot.extractionTime();
+        tasteOrdinals[index] = shot.tasteProfile() != null ? (byte) shot.tasteProfile().ordinal() : NOT_REVIEWED;
+        createdAtMillis[index] = shot.createdAt().toEpochMilli();
+        outliers[index] = shot.outlier();
+    }
+
+    private static void copyRange(ShotColumns from, int fromIndex, ShotColumns to, int toIndex, int length) {
+        System.arraycopy(from.shotIds, fromIndex, to.shotIds, toIndex, length);
+        System.arraycopy(from.beanIds, fromIndex, to.beanIds, toIndex, length);
+        System.arraycopy(from.grindSizes, fromIndex, to.grindSizes, toIndex, length);
+        System.arraycopy(from.doses, fromIndex, to.doses, toIndex, length);
+        System.arraycopy(from.yields, fromIndex, to.yields, toIndex, length);
+        System.arraycopy(from.ratios, fromIndex, to.ratios, toIndex, length);
+        System.arraycopy(from.extractionTimes, fromIndex, to.extractionTimes, toIndex, length);
+        System.arraycopy(from.tasteOrdinals, fromIndex, to.tasteOrdinals, toIndex, length);
+        System.arraycopy(from.createdAtMillis, fromIndex, to.createdAtMillis, toIndex, length);
+        System.arraycopy(from.outliers, fromIndex, to.outliers, toIndex, length);
+    }
+}
@@ -0,0 +1,37 @@
+package com.kurrle.coffee;
+
+import java.util.List;
+
+/**
+ * Shots laid side by side, ordered by creation. Every entry carries the differences of its parameters
+ * to the first (earliest) shot, which therefore has all deltas at zero.
+ */
+public record ShotComparison(List<Entry> entries) {
+
+    public static final int MIN_SHOTS = 2;
+    public static final int MAX_SHOTS = 10;
+
+    public record Entry(EspressoShot shot,
+                        double grindSizeDelta,
+                        double grindAmountDelta,
+                        double yieldDelta,
+                        int extractionTimeDelta,
+                        double ratioDelta) {
+    }
+
+    /**
+     * @param shots the shots in creation order, with bean and review loaded
+     */
+    static ShotComparison of(List<EspressoShot> shots) {
+        var baseline = shots.getFirst();
+        var entries = shots.stream()
+                .map(shot -> new Entry(shot,
+                        shot.getGrindSize() - baseline.getGrindSize(),
+                        shot.getGrindAmount() - baseline.getGrindAmount(),
+                        shot.getYield() - baseline.getYield(),
+                        shot.getExtractionTime() - baseline.getExtractionTime(),
+                        shot.getBrewRatio() - baseline.getBrewRatio()))
+                .toList();
+        return new ShotComparison(entries);
+    }
+}
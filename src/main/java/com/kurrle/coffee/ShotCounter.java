@@ -0,0 +1,32 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+/**
+ * Per-user shot count, maintained on every shot insert and delete so that list views can size
+ * themselves without running {@code count(*)} over {@code espresso_shot}.
+ */
+@Entity
+@Table(name = "user_shot_counter")
+public class ShotCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "shot_count", nullable = false)
+    private long shotCount;
+
+    protected ShotCounter() { // For Hibernate
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public long getShotCount() {
+        return shotCount;
+    }
+}
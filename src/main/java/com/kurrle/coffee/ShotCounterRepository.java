@@ -0,0 +1,35 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+import java.util.UUID;
+
+interface ShotCounterRepository extends JpaRepository<ShotCounter, UUID> {
+
+    @Modifying
+    @Query("UPDATE ShotCounter c SET c.shotCount = c.shotCount + :delta WHERE c.userId = :userId")
+    int increment(UUID userId, long delta);
+
+    /**
+     * Creates the counter from a one-off {@code count(*)}; a concurrently seeded counter wins.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_shot_counter (user_id, shot_count)
+            SELECT :userId, count(*) FROM espresso_shot WHERE user_id = :userId
+            ON CONFLICT (user_id) DO NOTHING
+            """, nativeQuery = true)
+    int seed(UUID userId);
+
+    /**
+     * Locks the user's counter row, which serializes work that must see the user's shots one at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ShotCounter c WHERE c.userId = :userId")
+    Optional<ShotCounter> findForUpdate(UUID userId);
+}
@@ -0,0 +1,27 @@
+package com.kurrle.coffee;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link ShotCounter} in step with inserts and deletes, in the same transaction as the write.
+ * Counters that have not been seeded yet are left alone; they are seeded on first read.
+ */
+@Component
+class ShotCounterUpdater {
+
+    private final ShotCounterRepository repository;
+
+    ShotCounterUpdater(ShotCounterRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener
+    void on(ShotChangedEvent event) {
+        if (event.isCreated()) {
+            repository.increment(event.userId(), 1);
+        } else if (event.isDeleted()) {
+            repository.increment(event.userId(), -1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Binary encoding of {@link ShotChangedEvent}s for the {@link ShotOutboxEvent} payload: fixed-size fields,
+ * followed by the length-prefixed origin of each snapshot. A leading version byte allows the layout to
+ * change while older rows are still in the outbox.
+ */
+final class ShotEventCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte HAS_BEFORE = 1;
+    private static final byte HAS_AFTER = 2;
+    private static final long NO_TEAM = 0L;
+    private static final byte NO_ROAST = -1;
+    private static final byte[] NO_ORIGIN = new byte[0];
+    // Without the origin's bytes
+    private static final int SNAPSHOT_BYTES = 8 + 8 + 8 + 1 + 2 + 8 * 3 + 4 + 8 + 4 + 1 + 1;
+
+    private ShotEventCodec() {
+    }
+
+    static byte[] encode(ShotChangedEvent event) {
+        var beforeOrigin = originOf(event.before());
+        var afterOrigin = originOf(event.after());
+        var out = ByteBuffer.allocate(1 + 16 + 1 + 2 * SNAPSHOT_BYTES + beforeOrigin.length + afterOrigin.length);
+        out.put(FORMAT_VERSION);
+        out.putLong(event.userId().getMostSignificantBits());
+        out.putLong(event.userId().getLeastSignificantBits());
+        out.put((byte) ((event.before() != null ? HAS_BEFORE : 0) | (event.after() != null ? HAS_AFTER : 0)));
+        if (event.before() != null) {
+            write(out, event.before(), beforeOrigin);
+        }
+        if (event.after() != null) {
+            write(out, event.after(), afterOrigin);
+        }
+        var bytes = new byte[out.position()];
+        out.flip().get(bytes);
+        return bytes;
+    }
+
+    static ShotChangedEvent decode(byte[] bytes) {
+        var in = ByteBuffer.wrap(bytes);
+        var version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported shot event format: " + version);
+        }
+        var userId = new UUID(in.getLong(), in.getLong());
+        var flags = in.get();
+        var before = (flags & HAS_BEFORE) != 0 ? read(in, userId) : null;
+        var after = (flags & HAS_AFTER) != 0 ? read(in, userId) : null;
+        return new ShotChangedEvent(userId, before, after);
+    }
+
+    private static byte[] originOf(@Nullable ShotSnapshot shot) {
+        return shot != null && shot.origin() != null ? shot.origin().getBytes(StandardCharsets.UTF_8) : NO_ORIGIN;
+    }
+
+    private static void write(ByteBuffer out, ShotSnapshot shot, byte[] origin) {
+        out.putLong(shot.shotId());
+        out.putLong(shot.beanId() != null ? shot.beanId() : DailyShotRollup.NO_BEAN);
+        out.putLong(shot.teamId() != null ? shot.teamId() : NO_TEAM);
+        out.put(shot.roastLevel() != null ? (byte) shot.roastLevel().ordinal() : NO_ROAST);
+        // An empty origin is never written, since origins are normalized to null when blank
+        out.putShort((short) origin.length);
+        out.put(origin);
+        out.putDouble(shot.grindSize());
+        out.putDouble(shot.grindAmount());
+        out.putDouble(shot.yield());
+        out.putInt(shot.extractionTime());
+        out.putLong(shot.createdAt().getEpochSecond());
+        out.putInt(shot.createdAt().getNano());
+        out.put(shot.tasteProfile() != null ? (byte) shot.tasteProfile().ordinal() : ShotColumns.NOT_REVIEWED);
+        out.put((byte) (shot.outlier() ? 1 : 0));
+    }
+
+    private static ShotSnapshot read(ByteBuffer in, UUID userId) {
+        var shotId = in.getLong();
+        var beanId = in.getLong();
+        var teamId = in.getLong();
+        var roast = in.get();
+        var origin = new byte[in.getShort()];
+        in.get(origin);
+        var grindSize = in.getDouble();
+        var grindAmount = in.getDouble();
+        var yield = in.getDouble();
+        var extractionTime = in.getInt();
+        var createdAt = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        var taste = in.get();
+        var outlier = in.get() != 0;
+        return new ShotSnapshot(shotId, userId, beanId != DailyShotRollup.NO_BEAN ? beanId : null,
+                teamId != NO_TEAM ? teamId : null, roast != NO_ROAST ? RoastLevel.values()[roast] : null,
+                origin.length > 0 ? new String(origin, StandardCharsets.UTF_8) : null, grindSize, grindAmount,
+                yield, extractionTime, createdAt, tasteOf(taste), outlier);
+    }
+
+    private static @Nullable TasteProfile tasteOf(byte ordinal) {
+        return ordinal == ShotColumns.NOT_REVIEWED ? null : TasteProfile.values()[ordinal];
+    }
+}
@@ -0,0 +1,36 @@
+package com.kurrle.coffee;
+
+/**
+ * Derived data maintained from the shot outbox. {@link ShotOutboxRelay} delivers events in position
+ * order, and therefore in order per user, inside a transaction that also advances the consumer's
+ * {@link OutboxOffset}. Delivery is at least once: a failing batch is retried from its first event.
+ * Consumers are polled in {@link org.springframework.core.annotation.Order} order. Derived data that is
+ * recomputed from the shot tables must be written through {@link ShotOutboxRelay#reconcile}, or the
+ * events it already reflects are applied a second time.
+ */
+interface ShotEventConsumer {
+
+    /**
+     * Stable name the consumer's offset is stored under.
+     */
+    String consumerName();
+
+    /**
+     * Whether delivering an event again leaves the derived data as it was, as for a cache that only drops
+     * entries. Only idempotent consumers can be replayed; the others apply deltas and would count the
+     * replayed events twice.
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
+    void accept(ShotChangedEvent event);
+
+    /**
+     * Builds the derived data from the shot tables. The relay calls it through {@link ShotOutboxRelay#reconcile}
+     * when the consumer has no stored offset yet, so the data covers the shots written before the consumer
+     * existed. Consumers that only cache derived results keep the default.
+     */
+    default void rebuild() {
+    }
+}
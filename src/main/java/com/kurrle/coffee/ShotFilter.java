@@ -0,0 +1,21 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Filter criteria for listing espresso shots. Every criterion is optional; {@code to} is exclusive.
+ */
+public record ShotFilter(@Nullable Long beanId,
+                         @Nullable Instant from,
+                         @Nullable Instant to,
+                         @Nullable TasteProfile tasteProfile,
+                         @Nullable Boolean reviewed) {
+
+    public static final ShotFilter NONE = new ShotFilter(null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return this.equals(NONE);
+    }
+}
@@ -0,0 +1,22 @@
+package com.kurrle.coffee;
+
+/**
+ * Grind size, extraction time and brew ratio of a bean's shots over time, each downsampled to at most
+ * a fixed number of points. {@code shotCount} is the number of shots before downsampling.
+ */
+public record ShotHistory(int shotCount, TimeSeries grindSize, TimeSeries extractionTime, TimeSeries ratio) {
+
+    static final ShotHistory EMPTY = new ShotHistory(0, TimeSeries.EMPTY, TimeSeries.EMPTY, TimeSeries.EMPTY);
+
+    /**
+     * Points of one series, as epoch milliseconds and values of equal length. The arrays must not be modified.
+     */
+    public record TimeSeries(long[] timesMillis, double[] values) {
+
+        static final TimeSeries EMPTY = new TimeSeries(new long[0], new double[0]);
+
+        public int size() {
+            return timesMillis.length;
+        }
+    }
+}
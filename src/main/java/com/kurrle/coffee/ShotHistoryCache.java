@@ -0,0 +1,163 @@
+package com.kurrle.coffee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Downsampled {@link ShotHistory} per user, bean and start day. Histories are computed from a stream of
+ * the bean's shots on first access and dropped as soon as a committed {@link ShotChangedEvent} touches
+ * the bean; the least recently used histories are evicted beyond the configured number of entries.
+ */
+@Component
+class ShotHistoryCache {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final EspressoShotRepository shotRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxEntries;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Key, ShotHistory> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Writes per user and bean seen while histories of the bean are loading, so a history computed
+    // concurrently with a write of the bean is not cached; entries are dropped once no load is left.
+    // Guarded by this
+    private final Map<BeanKey, Loads> loads = new HashMap<>();
+
+    ShotHistoryCache(EspressoShotRepository shotRepository, PlatformTransactionManager transactionManager,
+                     @Value("${analytics.history-cache.max-entries:512}") int maxEntries) {
+        this.shotRepository = shotRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the history of the user's shots of a bean from the start of {@code from} (UTC), with at
+     * most {@code maxPoints} points per series.
+     */
+    ShotHistory history(UUID userId, long beanId, LocalDate from, int maxPoints) {
+        var key = new Key(userId, beanId, from, maxPoints);
+        var beanKey = new BeanKey(userId, beanId);
+        Loads pending;
+        long version;
+        synchronized (this) {
+            var history = entries.get(key);
+            if (history != null) {
+                return history;
+            }
+            pending = loads.computeIfAbsent(beanKey, k -> new Loads());
+            pending.count++;
+            version = pending.writes;
+        }
+        try {
+            var history = load(key);
+            synchronized (this) {
+                if (version == pending.writes) {
+                    entries.put(key, history);
+                    var iterator = entries.keySet().iterator();
+                    while (entries.size() > maxEntries && iterator.hasNext()) {
+                        iterator.next();
+                        iterator.remove();
+                    }
+                }
+            }
+            return history;
+        } finally {
+            synchronized (this) {
+                if (--pending.count == 0) {
+                    loads.remove(beanKey);
+                }
+            }
+        }
+    }
+
+    private ShotHistory load(Key key) {
+        var history = readOnlyTransaction.execute(status -> {
+            var from = key.from().atStartOfDay(ZoneOffset.UTC).toInstant();
+            try (var points = shotRepository.streamHistory(key.userId(), key.beanId(), from)) {
+                var columns = new Columns();
+                points.forEach(columns::add);
+                return columns.downsample(key.maxPoints());
+            }
+        });
+        return history != null ? history : ShotHistory.EMPTY;
+    }
+
+    @TransactionalEventListener
+    synchronized void on(ShotChangedEvent event) {
+        if (event.before() != null && event.before().beanId() != null) {
+            invalidate(event.userId(), event.before().beanId());
+        }
+        if (event.after() != null && event.after().beanId() != null) {
+            invalidate(event.userId(), event.after().beanId());
+        }
+    }
+
+    private void invalidate(UUID userId, long beanId) {
+        var pending = loads.get(new BeanKey(userId, beanId));
+        if (pending != null) {
+            pending.writes++;
+        }
+        entries.keySet().removeIf(key -> key.userId().equals(userId) && key.beanId() == beanId);
+    }
+
+    private record Key(UUID userId, long beanId, LocalDate from, int maxPoints) {
+    }
+
+    private record BeanKey(UUID userId, long beanId) {
+    }
+
+    /**
+     * Loads in flight for one user's bean and the writes of that bean seen meanwhile; guarded by the cache.
+     */
+    private static final class Loads {
+        int count;
+        long writes;
+    }
+
+    /**
+     * Growable primitive columns the streamed points are copied into, so downsampling scans arrays
+     * rather than row objects.
+     */
+    private static final class Columns {
+        long[] times = new long[INITIAL_CAPACITY];
+        double[] grindSizes = new double[INITIAL_CAPACITY];
+        double[] extractionTimes = new double[INITIAL_CAPACITY];
+        double[] ratios = new double[INITIAL_CAPACITY];
+        int size;
+
+        void add(HistoryPoint point) {
+            if (size == times.length) {
+                var capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                grindSizes = Arrays.copyOf(grindSizes, capacity);
+                extractionTimes = Arrays.copyOf(extractionTimes, capacity);
+                ratios = Arrays.copyOf(ratios, capacity);
+            }
+            times[size] = point.createdAt().toEpochMilli();
+            grindSizes[size] = point.grindSize();
+            extractionTimes[size] = point.extractionTime();
+            ratios[size] = point.yield() / point.grindAmount();
+            size++;
+        }
+
+        ShotHistory downsample(int maxPoints) {
+            return new ShotHistory(size,
+                    Lttb.downsample(times, grindSizes, size, maxPoints),
+                    Lttb.downsample(times, extractionTimes, size, maxPoints),
+                    Lttb.downsample(times, ratios, size, maxPoints));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Shot parameters over time for charts. Long histories are downsampled on the server so that the
+ * browser receives a bounded number of points regardless of how many shots a bean has.
+ */
+@Service
+public class ShotHistoryService {
+
+    /**
+     * Points per series sent to the browser; about one per horizontal pixel pair of a full-width chart.
+     */
+    public static final int MAX_POINTS = 500;
+
+    private final ShotHistoryCache historyCache;
+    private final AuthenticatedUser authenticatedUser;
+
+    ShotHistoryService(ShotHistoryCache historyCache, AuthenticatedUser authenticatedUser) {
+        this.historyCache = historyCache;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * The current user's history for a bean since the given UTC day, or all of it if {@code from} is null.
+     */
+    public ShotHistory history(Long beanId, @Nullable LocalDate from) {
+        var start = from != null ? from : LocalDate.EPOCH;
+        return historyCache.history(getCurrentUser().getId(), beanId, start, MAX_POINTS);
+    }
+}
@@ -0,0 +1,16 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * History-based insights shown next to a reviewed shot's recommendations: the typical range of the
+ * shot's bean and of all beans, the taste transitions recorded on the bean and the closest past shots.
+ * {@code beanPercentiles} is null for shots without a bean or beans without statistics.
+ */
+public record ShotInsights(@Nullable ShotPercentiles beanPercentiles,
+                           ShotPercentiles userPercentiles,
+                           TransitionMatrix transitions,
+                           List<SimilarShot> similarShots) {
+}
@@ -0,0 +1,72 @@
+package com.kurrle.coffee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Recently computed {@link ShotInsights} per shot, kept as futures so concurrent requests for the same
+ * shot share one computation. Consumes the shot outbox after {@link BeanStatisticsUpdater}, so a user's
+ * entries are dropped only once their statistics include the write. Failed computations are not kept.
+ */
+@Component
+class ShotInsightsCache implements ShotEventConsumer {
+
+    private final int maxEntries;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Key, CompletableFuture<ShotInsights>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    ShotInsightsCache(@Value("${recommendations.insights-cache.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    synchronized CompletableFuture<ShotInsights> get(UUID userId, long shotId,
+                                                     Supplier<CompletableFuture<ShotInsights>> loader) {
+        var key = new Key(userId, shotId);
+        var cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        var future = loader.get();
+        entries.put(key, future);
+        var iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        future.whenComplete((insights, error) -> {
+            if (error != null) {
+                remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    private synchronized void remove(Key key, CompletableFuture<ShotInsights> future) {
+        entries.remove(key, future);
+    }
+
+    @Override
+    public String consumerName() {
+        return "shot-insights-cache";
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
+    // Any write changes the user's overall percentiles, so all of the user's entries are dropped
+    @Override
+    public synchronized void accept(ShotChangedEvent event) {
+        entries.keySet().removeIf(key -> key.userId().equals(event.userId()));
+    }
+
+    private record Key(UUID userId, long shotId) {
+    }
+}
@@ -0,0 +1,309 @@
+package com.kurrle.coffee;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * k-d tree over one bean's shots in (grind size, dose, yield, extraction time) space. Each dimension is
+ * scaled by the inverse of its standard deviation so that no parameter dominates the distance.
+ * <p>
+ * Nodes live in parallel primitive arrays. Inserts descend to a leaf, removals only mark the node; the
+ * tree is rebuilt balanced once too many nodes are removed or an insert lands too deep.
+ */
+final class ShotKdTree {
+
+    private static final int DIMENSIONS = 4;
+
+    private final double[] scales = new double[DIMENSIONS];
+    private final Map<Long, Integer> nodeByShotId = new HashMap<>();
+    private double[] points;
+    private long[] shotIds;
+    private byte[] tastes;
+    private long[] createdAtMillis;
+    private int[] left;
+    private int[] right;
+    private boolean[] removed;
+    private int size;
+    private int removedCount;
+    private int root = -1;
+
+    private ShotKdTree(int capacity) {
+        capacity = Math.max(capacity, 16);
+        points = new double[capacity * DIMENSIONS];
+        shotIds = new long[capacity];
+        tastes = new byte[capacity];
+        createdAtMillis = new long[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        removed = new boolean[capacity];
+    }
+
+    /**
+     * Builds the tree over the non-outlier shots of one bean.
+     */
+    static ShotKdTree build(ShotColumns columns, long beanId) {
+        var rows = columns.indices()
+                .filter(i -> columns.beanId(i) == beanId && !columns.outlier(i))
+                .toArray();
+        var tree = new ShotKdTree(rows.length + rows.length / 4);
+        for (var row : rows) {
+            tree.append(columns.shotId(row), columns.grindSize(row), columns.dose(row), columns.yield(row),
+                    columns.extractionTime(row), columns.tasteOrdinal(row), columns.createdAtMillis(row));
+        }
+        tree.rebuild();
+        return tree;
+    }
+
+    synchronized int size() {
+        return size - removedCount;
+    }
+
+    /**
+     * Adds the shot, replacing a previous version of it.
+     */
+    synchronized void insert(ShotSnapshot shot) {
+        remove(shot.shotId());
+        var node = append(shot.shotId(), shot.grindSize(), shot.grindAmount(), shot.yield(), shot.extractionTime(),
+                shot.tasteProfile() != null ? (byte) shot.tasteProfile().ordinal() : ShotColumns.NOT_REVIEWED,
+                shot.createdAt().toEpochMilli());
+        if (root < 0) {
+            root = node;
+            return;
+        }
+        var depth = 0;
+        var parent = root;
+        while (true) {
+            var axis = depth % DIMENSIONS;
+            var children = points[node * DIMENSIONS + axis] < points[parent * DIMENSIONS + axis] ? left : right;
+            depth++;
+            if (children[parent] < 0) {
+                children[parent] = node;
+                break;
+            }
+            parent = children[parent];
+        }
+        if (depth > maxBalancedDepth()) {
+            rebuild();
+        }
+    }
+
+    synchronized void remove(long shotId) {
+        var node = nodeByShotId.remove(shotId);
+        if (node == null) {
+            return;
+        }
+        removed[node] = true;
+        removedCount++;
+        if (removedCount > size / 2) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} shots nearest to the given parameters, closest first, leaving out
+     * {@code excludedShotId}.
+     */
+    synchronized List<SimilarShot> nearest(double grindSize, double dose, double yield, double extractionTime,
+                                           int k, long excludedShotId) {
+        if (k <= 0 || root < 0) {
+            return List.of();
+        }
+        var search = new Search(new double[]{grindSize, dose, yield, extractionTime}, k, excludedShotId);
+        search(root, 0, search);
+        var result = new ArrayList<SimilarShot>(search.count);
+        for (var i = 0; i < search.count; i++) {
+            var node = search.nodes[i];
+            var offset = node * DIMENSIONS;
+            var taste = tastes[node];
+            result.add(new SimilarShot(shotIds[node], points[offset], points[offset + 1], points[offset + 2],
+                    (int) points[offset + 3],
+                    taste == ShotColumns.NOT_REVIEWED ? null : TasteProfile.values()[taste],
+                    Instant.ofEpochMilli(createdAtMillis[node]), Math.sqrt(search.distances[i])));
+        }
+        return result;
+    }
+
+    private void search(int node, int depth, Search search) {
+        if (node < 0) {
+            return;
+        }
+        if (!removed[node] && shotIds[node] != search.excludedShotId) {
+            search.offer(node, distance(search.query, node));
+        }
+        var axis = depth % DIMENSIONS;
+        var delta = (search.query[axis] - points[node * DIMENSIONS + axis]) * scales[axis];
+        var near = delta < 0 ? left[node] : right[node];
+        var far = delta < 0 ? right[node] : left[node];
+        search(near, depth + 1, search);
+        if (delta * delta < search.worst()) {
+            search(far, depth + 1, search);
+        }
+    }
+
+    private double distance(double[] query, int node) {
+        var sum = 0.0;
+        for (var axis = 0; axis < DIMENSIONS; axis++) {
+            var delta = (query[axis] - points[node * DIMENSIONS + axis]) * scales[axis];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    private int append(long shotId, double grindSize, double dose, double yield, double extractionTime,
+                       byte taste, long createdAt) {
+        if (size == shotIds.length) {
+            var capacity = size * 2;
+            points = Arrays.copyOf(points, capacity * DIMENSIONS);
+            shotIds = Arrays.copyOf(shotIds, capacity);
+            tastes = Arrays.copyOf(tastes, capacity);
+            createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            removed = Arrays.copyOf(removed, capacity);
+        }
+        var node = size++;
+        var offset = node * DIMENSIONS;
+        points[offset] = grindSize;
+        points[offset + 1] = dose;
+        points[offset + 2] = yield;
+        points[offset + 3] = extractionTime;
+        shotIds[node] = shotId;
+        tastes[node] = taste;
+        createdAtMillis[node] = createdAt;
+        left[node] = -1;
+        right[node] = -1;
+        removed[node] = false;
+        nodeByShotId.put(shotId, node);
+        return node;
+    }
+
+    private int maxBalancedDepth() {
+        return 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(size)) + 8;
+    }
+
+    /**
+     * Drops removed nodes, recomputes the dimension scales and rebuilds a balanced tree by median splits.
+     */
+    private void rebuild() {
+        var live = 0;
+        for (var node = 0; node < size; node++) {
+            if (removed[node]) {
+                continue;
+            }
+            if (live != node) {
+                System.arraycopy(points, node * DIMENSIONS, points, live * DIMENSIONS, DIMENSIONS);
+                shotIds[live] = shotIds[node];
+                tastes[live] = tastes[node];
+                createdAtMillis[live] = createdAtMillis[node];
+                removed[live] = false;
+            }
+            nodeByShotId.put(shotIds[live], live);
+            live++;
+        }
+        size = live;
+        removedCount = 0;
+        updateScales();
+
+        var order = new int[size];
+        for (var i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        root = build(order, 0, size, 0);
+    }
+
+    private int build(int[] order, int from, int to, int depth) {
+        if (from >= to) {
+            return -1;
+        }
+        var axis = depth % DIMENSIONS;
+        var middle = (from + to) >>> 1;
+        select(order, from, to - 1, middle, axis);
+        var node = order[middle];
+        left[node] = build(order, from, middle, depth + 1);
+        right[node] = build(order, middle + 1, to, depth + 1);
+        return node;
+    }
+
+    /**
+     * Quickselect: reorders {@code order[from..to]} so that position {@code k} holds the node with the
+     * k-th smallest coordinate on {@code axis}, smaller ones before it and larger ones after.
+     */
+    private void select(int[] order, int from, int to, int k, int axis) {
+        while (from < to) {
+            var pivot = points[order[(from + to) >>> 1] * DIMENSIONS + axis];
+            var i = from;
+            var j = to;
+            while (i <= j) {
+                while (points[order[i] * DIMENSIONS + axis] < pivot) {
+                    i++;
+                }
+                while (points[order[j] * DIMENSIONS + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    var swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                to = j;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void updateScales() {
+        for (var axis = 0; axis < DIMENSIONS; axis++) {
+            var stats = new RunningStats();
+            for (var node = 0; node < size; node++) {
+                stats.add(points[node * DIMENSIONS + axis]);
+            }
+            var deviation = stats.getStandardDeviation();
+            scales[axis] = deviation > 1e-9 ? 1 / deviation : 1;
+        }
+    }
+
+    /**
+     * The k best candidates found so far, kept sorted by squared distance.
+     */
+    private static final class Search {
+        final double[] query;
+        final long excludedShotId;
+        final int[] nodes;
+        final double[] distances;
+        int count;
+
+        Search(double[] query, int k, long excludedShotId) {
+            this.query = query;
+            this.excludedShotId = excludedShotId;
+            this.nodes = new int[k];
+            this.distances = new double[k];
+        }
+
+        double worst() {
+            return count < nodes.length ? Double.POSITIVE_INFINITY : distances[count - 1];
+        }
+
+        void offer(int node, double distance) {
+            if (distance >= worst()) {
+                return;
+            }
+            var i = count < nodes.length ? count++ : count - 1;
+            while (i > 0 && distances[i - 1] > distance) {
+                nodes[i] = nodes[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.kurrle.coffee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link ShotKdTree}s per user and bean, built lazily from the user's {@link ShotColumnStore} columns and kept
+ * current from committed {@link ShotChangedEvent}s. The least recently used trees are dropped once more than
+ * the configured number of trees is cached.
+ */
+@Component
+class ShotNeighbourIndex {
+
+    private final ShotColumnStore columnStore;
+    private final int maxBeans;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<TreeKey, ShotKdTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    // Stamp per tree being built, replaced on every write of its shots, so a tree built concurrently with a
+    // write is not cached. Stamps are never reused and entries are dropped once the build is done; guarded by this
+    private final Map<TreeKey, Long> versions = new HashMap<>();
+    private long stamps;
+
+    ShotNeighbourIndex(ShotColumnStore columnStore,
+                       @Value("${analytics.neighbour-index.max-beans:256}") int maxBeans) {
+        this.columnStore = columnStore;
+        this.maxBeans = maxBeans;
+    }
+
+    ShotKdTree tree(UUID userId, long beanId) {
+        var key = new TreeKey(userId, beanId);
+        long version;
+        synchronized (this) {
+            var tree = trees.get(key);
+            if (tree != null) {
+                return tree;
+            }
+            version = versions.computeIfAbsent(key, k -> ++stamps);
+        }
+        // The column store applies each write before this index sees it (see its listener order), so
+        // columns read after the version cover every write up to that version
+        var tree = ShotKdTree.build(columnStore.columns(userId), beanId);
+        synchronized (this) {
+            if (Long.valueOf(version).equals(versions.get(key))) {
+                trees.put(key, tree);
+                evictOverLimit();
+            }
+            versions.remove(key);
+        }
+        return tree;
+    }
+
+    @TransactionalEventListener
+    synchronized void on(ShotChangedEvent event) {
+        var before = event.before();
+        var after = event.after();
+        if (before != null && before.beanId() != null) {
+            var key = new TreeKey(event.userId(), before.beanId());
+            versions.computeIfPresent(key, (k, version) -> ++stamps);
+            var tree = trees.get(key);
+            if (tree != null) {
+                tree.remove(before.shotId());
+            }
+        }
+        if (after != null && after.beanId() != null) {
+            var key = new TreeKey(event.userId(), after.beanId());
+            versions.computeIfPresent(key, (k, version) -> ++stamps);
+            var tree = trees.get(key);
+            if (tree != null && !after.outlier()) {
+                tree.insert(after);
+            }
+        }
+    }
+
+    private void evictOverLimit() {
+        var iterator = trees.keySet().iterator();
+        while (trees.size() > maxBeans && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record TreeKey(UUID userId, long beanId) {
+    }
+}
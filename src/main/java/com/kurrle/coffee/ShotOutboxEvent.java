@@ -0,0 +1,66 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A {@link ShotChangedEvent} recorded in the writing transaction by {@link ShotOutboxWriter}. The
+ * {@link ShotOutboxRelay} assigns the delivery {@code position} once the row is committed, so positions
+ * follow commit order and never leave gaps behind a consumer's offset.
+ */
+@Entity
+@Table(name = "shot_outbox", indexes = {
+        @Index(name = "idx_shot_outbox_position", columnList = "delivery_position", unique = true)
+})
+public class ShotOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "event_id")
+    private Long id;
+
+    @Column(name = "delivery_position")
+    @Nullable
+    private Long position;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected ShotOutboxEvent() { // For Hibernate
+    }
+
+    ShotOutboxEvent(ShotChangedEvent event) {
+        this.userId = event.userId();
+        this.payload = ShotEventCodec.encode(event);
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public @Nullable Long getPosition() {
+        return position;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    ShotChangedEvent toEvent() {
+        return ShotEventCodec.decode(payload);
+    }
+}
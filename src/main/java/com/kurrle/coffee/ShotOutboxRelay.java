@@ -0,0 +1,200 @@
+package com.kurrle.coffee;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the shot outbox to the {@link ShotEventConsumer}s. Each tick first assigns positions to newly
+ * committed events, then delivers every consumer's pending events in batches. A batch is delivered in
+ * one transaction together with the consumer's offset, so the consumer's database writes and its
+ * progress commit or roll back together; a failing consumer is retried on the next tick without
+ * holding back the others. Delivered events are kept for the retention period so consumers can be
+ * replayed from an earlier position.
+ * <p>
+ * Positioning and delivery are serialized on the relay, so a {@link #reconcile} never runs alongside a tick.
+ */
+@Component
+class ShotOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShotOutboxRelay.class);
+
+    private final ShotOutboxRepository outboxRepository;
+    private final OutboxOffsetRepository offsetRepository;
+    private final Map<String, ShotEventConsumer> consumers = new LinkedHashMap<>();
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration lagWarning;
+
+    ShotOutboxRelay(ShotOutboxRepository outboxRepository, OutboxOffsetRepository offsetRepository,
+                    List<ShotEventConsumer> consumers, PlatformTransactionManager transactionManager,
+                    @Value("${outbox.batch-size:200}") int batchSize,
+                    @Value("${outbox.retention:P7D}") Duration retention,
+                    @Value("${outbox.lag-warning:PT1M}") Duration lagWarning) {
+        this.outboxRepository = outboxRepository;
+        this.offsetRepository = offsetRepository;
+        consumers.forEach(consumer -> this.consumers.put(consumer.consumerName(), consumer));
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.lagWarning = lagWarning;
+    }
+
+    /**
+     * Registers every consumer's offset. A consumer without one is new, so it is {@link ShotEventConsumer#rebuild()
+     * rebuilt} from the shot tables and starts at the head; until then the relay does not deliver to it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void register() {
+        for (var consumer : consumers.values()) {
+            if (Boolean.TRUE.equals(transaction.execute(status ->
+                    offsetRepository.existsById(consumer.consumerName())))) {
+                continue;
+            }
+            logger.info("Building outbox consumer {} from the shot history", consumer.consumerName());
+            reconcile(consumer, consumer::rebuild);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay-interval:PT1S}")
+    synchronized void relay() {
+        Integer positioned;
+        do {
+            positioned = transaction.execute(status -> outboxRepository.assignPositions(batchSize));
+        } while (positioned != null && positioned == batchSize);
+
+        for (var consumer : consumers.values()) {
+            try {
+                while (deliverBatch(consumer) == batchSize) {
+                    // Keep draining until the consumer has caught up
+                }
+            } catch (RuntimeException e) {
+                logger.error("Outbox consumer {} failed; retrying on the next tick", consumer.consumerName(), e);
+            }
+        }
+    }
+
+    private int deliverBatch(ShotEventConsumer consumer) {
+        var delivered = transaction.execute(status -> deliverBatch(consumer,
+                offsetRepository.findForUpdate(consumer.consumerName())
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Consumer not registered: " + consumer.consumerName()))));
+        return delivered != null ? delivered : 0;
+    }
+
+    private int deliverBatch(ShotEventConsumer consumer, OutboxOffset offset) {
+        var events = outboxRepository.findAfter(offset.getPosition(), PageRequest.of(0, batchSize));
+        for (var event : events) {
+            consumer.accept(event.toEvent());
+        }
+        if (!events.isEmpty()) {
+            offset.moveTo(events.getLast().getPosition());
+        }
+        return events.size();
+    }
+
+    /**
+     * Recomputes a consumer's derived data from the shot tables and moves the consumer to the head of the
+     * outbox in one REPEATABLE READ transaction. The transaction positions every event it can see, delivers
+     * the consumer's pending ones, runs {@code recompute} and moves the offset to the head. The recomputation
+     * therefore reads exactly the writes of the events up to the new offset: none of them is applied twice,
+     * and events committed later are positioned after the head and delivered on top. Pending events are
+     * delivered first so a recomputation limited to recent days keeps their effect on older ones.
+     *
+     * @throws IllegalArgumentException if the consumer is not registered with the relay
+     */
+    synchronized void reconcile(ShotEventConsumer consumer, Runnable recompute) {
+        if (consumers.get(consumer.consumerName()) != consumer) {
+            throw new IllegalArgumentException("Unknown outbox consumer: " + consumer.consumerName());
+        }
+        snapshotTransaction.executeWithoutResult(status -> {
+            offsetRepository.ensureExists(consumer.consumerName());
+            var offset = offsetRepository.findForUpdate(consumer.consumerName()).orElseThrow();
+            while (outboxRepository.assignPositions(batchSize) == batchSize) {
+                // Position every event visible to this transaction
+            }
+            while (deliverBatch(consumer, offset) == batchSize) {
+                // Catch up before recomputing
+            }
+            recompute.run();
+            offset.moveTo(outboxRepository.findHeadPosition());
+        });
+    }
+
+    /**
+     * The current lag of every consumer, in registration order.
+     */
+    List<OutboxLag> lag() {
+        var lag = transaction.execute(status -> {
+            var head = outboxRepository.findHeadPosition();
+            var now = Instant.now();
+            return offsetRepository.findAll().stream()
+                    .filter(offset -> consumers.containsKey(offset.getConsumer()))
+                    .map(offset -> new OutboxLag(offset.getConsumer(), offset.getPosition(), head,
+                            outboxRepository.findFirstByPositionGreaterThanOrderByPosition(offset.getPosition())
+                                    .map(event -> Duration.between(event.getCreatedAt(), now))
+                                    .orElse(null),
+                            consumers.get(offset.getConsumer()).isIdempotent()))
+                    .toList();
+        });
+        return lag != null ? lag : List.of();
+    }
+
+    /**
+     * Moves a consumer back (or forward) so that its next delivered event is the one at {@code fromPosition}.
+     *
+     * @throws IllegalArgumentException if the consumer is unknown or not {@link ShotEventConsumer#isIdempotent()
+     *                                  idempotent}, or the position is no longer retained
+     */
+    void replay(String consumer, long fromPosition) {
+        if (!consumers.containsKey(consumer)) {
+            throw new IllegalArgumentException("Unknown outbox consumer: " + consumer);
+        }
+        if (!consumers.get(consumer).isIdempotent()) {
+            throw new IllegalArgumentException("Outbox consumer " + consumer + " applies deltas and cannot be replayed");
+        }
+        transaction.executeWithoutResult(status -> {
+            var tail = outboxRepository.findTailPosition();
+            if (fromPosition < tail || fromPosition > outboxRepository.findHeadPosition() + 1) {
+                throw new IllegalArgumentException("Position " + fromPosition + " is outside the retained outbox");
+            }
+            offsetRepository.findForUpdate(consumer).orElseThrow().moveTo(fromPosition - 1);
+        });
+        logger.info("Outbox consumer {} will replay from position {}", consumer, fromPosition);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.lag-check-interval:PT5M}")
+    void reportLag() {
+        for (var lag : lag()) {
+            if (lag.oldestPending() != null && lag.oldestPending().compareTo(lagWarning) > 0) {
+                logger.warn("Outbox consumer {} is {} events ({}) behind", lag.consumer(), lag.pendingEvents(),
+                        lag.oldestPending());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 15 3 * * *}")
+    void cleanup() {
+        var deleted = transaction.execute(status -> outboxRepository.deleteDelivered(
+                offsetRepository.findMinPosition(), Instant.now().minus(retention)));
+        logger.info("Deleted {} delivered outbox events older than {}", deleted, retention);
+    }
+}
@@ -0,0 +1,53 @@
+package com.kurrle.coffee;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+interface ShotOutboxRepository extends JpaRepository<ShotOutboxEvent, Long> {
+
+    /**
+     * Assigns the next positions to up to {@code limit} committed events that have none yet, in event id
+     * order. Must only run while holding the relay's lock, as positions continue from the current maximum.
+     *
+     * @return the number of events positioned
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE shot_outbox o SET delivery_position = n.delivery_position
+            FROM (SELECT event_id,
+                         (SELECT coalesce(max(delivery_position), 0) FROM shot_outbox)
+                             + row_number() OVER (ORDER BY event_id) AS delivery_position
+                  FROM shot_outbox WHERE delivery_position IS NULL
+                  ORDER BY event_id
+                  LIMIT :limit) n
+            WHERE o.event_id = n.event_id
+            """, nativeQuery = true)
+    int assignPositions(int limit);
+
+    @Query("SELECT e FROM ShotOutboxEvent e WHERE e.position > :position ORDER BY e.position")
+    List<ShotOutboxEvent> findAfter(long position, Pageable pageable);
+
+    Optional<ShotOutboxEvent> findFirstByPositionGreaterThanOrderByPosition(long position);
+
+    @Query("SELECT coalesce(max(e.position), 0) FROM ShotOutboxEvent e")
+    long findHeadPosition();
+
+    @Query("SELECT coalesce(min(e.position), 0) FROM ShotOutboxEvent e")
+    long findTailPosition();
+
+    @Query("SELECT count(e) FROM ShotOutboxEvent e WHERE e.position IS NULL")
+    long countUnpositioned();
+
+    /**
+     * Deletes events every consumer has processed that are older than {@code before}.
+     */
+    @Modifying
+    @Query("DELETE FROM ShotOutboxEvent e WHERE e.position <= :position AND e.createdAt < :before")
+    int deleteDelivered(long position, Instant before);
+}
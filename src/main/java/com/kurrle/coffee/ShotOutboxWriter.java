@@ -0,0 +1,23 @@
+package com.kurrle.coffee;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every {@link ShotChangedEvent} in the shot outbox within the writing transaction, so the event
+ * is delivered to the {@link ShotEventConsumer}s if and only if the write commits.
+ */
+@Component
+class ShotOutboxWriter {
+
+    private final ShotOutboxRepository repository;
+
+    ShotOutboxWriter(ShotOutboxRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener
+    void on(ShotChangedEvent event) {
+        repository.save(new ShotOutboxEvent(event));
+    }
+}
@@ -0,0 +1,73 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Scores a shot against the running statistics of the user's shots of its bean in O(1): one primary-key
+ * lookup of {@link BeanStatistics}, no history scan. A shot is an outlier if its dose, time or ratio is outside
+ * a range no espresso falls into, or, once the bean has enough history, more than
+ * {@link #Z_SCORE_THRESHOLD} standard deviations away from the bean's mean.
+ */
+@Component
+class ShotOutlierDetector {
+
+    static final double Z_SCORE_THRESHOLD = 3.5;
+    static final long MIN_SAMPLES = 8;
+
+    // Lower bounds for the standard deviation, so a bean with very consistent shots does not flag tiny changes
+    private static final double MIN_DOSE_DEVIATION = 0.5;
+    private static final double MIN_TIME_DEVIATION = 2;
+    private static final double MIN_RATIO_DEVIATION = 0.1;
+
+    private final BeanStatisticsRepository statisticsRepository;
+
+    ShotOutlierDetector(BeanStatisticsRepository statisticsRepository) {
+        this.statisticsRepository = statisticsRepository;
+    }
+
+    /**
+     * @param replaced the edited shot's values before the edit, which are taken out of the statistics so the
+     *                 shot is not scored against itself; {@code null} for a new shot
+     */
+    boolean isOutlier(UUID userId, @Nullable Long beanId, double dose, int extractionTime, double ratio,
+                      @Nullable ShotSnapshot replaced) {
+        if (!isPlausible(dose, extractionTime, ratio)) {
+            return true;
+        }
+        if (beanId == null) {
+            return false;
+        }
+        return statisticsRepository.findById(new BeanStatistics.Key(beanId, userId))
+                .map(stats -> {
+                    var doseStats = stats.getDoseStats().copy();
+                    var timeStats = stats.getTimeStats().copy();
+                    var ratioStats = stats.getRatioStats().copy();
+                    if (replaced != null && !replaced.outlier() && beanId.equals(replaced.beanId())) {
+                        doseStats.remove(replaced.grindAmount());
+                        timeStats.remove(replaced.extractionTime());
+                        ratioStats.remove(replaced.brewRatio());
+                    }
+                    return deviates(doseStats, dose, MIN_DOSE_DEVIATION)
+                            || deviates(timeStats, extractionTime, MIN_TIME_DEVIATION)
+                            || deviates(ratioStats, ratio, MIN_RATIO_DEVIATION);
+                })
+                .orElse(false);
+    }
+
+    private static boolean isPlausible(double dose, int extractionTime, double ratio) {
+        return dose >= 5 && dose <= 35
+                && extractionTime >= 5 && extractionTime <= 90
+                && ratio >= 0.5 && ratio <= 5;
+    }
+
+    private static boolean deviates(RunningStats stats, double value, double minDeviation) {
+        if (stats.getCount() < MIN_SAMPLES) {
+            return false;
+        }
+        var deviation = Math.max(stats.getStandardDeviation(), minDeviation);
+        return Math.abs(value - stats.getMean()) / deviation > Z_SCORE_THRESHOLD;
+    }
+}
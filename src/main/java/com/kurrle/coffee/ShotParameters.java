@@ -0,0 +1,20 @@
+package com.kurrle.coffee;
+
+/**
+ * The four parameters a shot is pulled with, e.g. to pre-fill the entry form for the next shot.
+ */
+public record ShotParameters(double grindSize, double grindAmount, double yield, int extractionTime) {
+
+    static ShotParameters of(BestRecipe recipe) {
+        return new ShotParameters(recipe.getGrindSize(), recipe.getGrindAmount(), recipe.getYield(),
+                recipe.getExtractionTime());
+    }
+
+    /**
+     * Applies the adjustments recommended for a shot that tasted like {@code profile}.
+     */
+    public ShotParameters adjustedFor(TasteProfile profile) {
+        return new ShotParameters(profile.adjustGrindSize(grindSize), grindAmount,
+                profile.adjustYield(yield, grindAmount), extractionTime);
+    }
+}
@@ -0,0 +1,15 @@
+package com.kurrle.coffee;
+
+/**
+ * Extraction time and brew ratio percentiles of a bean's shots or, merged over all beans, of a user's shots.
+ */
+public record ShotPercentiles(QuantileSketch.Percentiles time, QuantileSketch.Percentiles ratio) {
+
+    static ShotPercentiles of(QuantileSketch time, QuantileSketch ratio) {
+        return new ShotPercentiles(time.percentiles(), ratio.percentiles());
+    }
+
+    public boolean isEmpty() {
+        return time.count() == 0;
+    }
+}
@@ -6,7 +6,9 @@ import org.jspecify.annotations.Nullable;
 import java.time.Instant;
 
 @Entity
-@Table(name = "shot_review")
+@Table(name = "shot_review", indexes = {
+        @Index(name = "idx_shot_review_taste_shot", columnList = "taste_profile, shot_id")
+})
 public class ShotReview {
 
     @Id
@@ -56,6 +58,8 @@ public class ShotReview {
 
     public void setTasteProfile(TasteProfile tasteProfile) {
         this.tasteProfile = tasteProfile;
+        // Keeps the shot's filterable copy current
+        espressoShot.setReview(this);
     }
 
     public @Nullable String getNotes() {
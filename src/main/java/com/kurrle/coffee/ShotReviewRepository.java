@@ -1,6 +1,14 @@
 package com.kurrle.coffee;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
 
 interface ShotReviewRepository extends JpaRepository<ShotReview, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ShotReview r WHERE r.espressoShot.id IN :shotIds")
+    int deleteAllByShotIdIn(Collection<Long> shotIds);
 }
@@ -0,0 +1,72 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Reads the pre-aggregated {@link DailyShotRollup} table for dashboards and reconciles it nightly
+ * against {@code espresso_shot}, so dashboard queries never aggregate raw shots. The reconcile runs through
+ * the {@link ShotOutboxRelay}, which moves {@link DailyShotRollupUpdater} past the events it covers.
+ */
+@Service
+public class ShotRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShotRollupService.class);
+
+    // Days recomputed by the nightly reconcile job to repair any drift of the incremental updates
+    private static final int RECONCILE_DAYS = 7;
+
+    private final DailyShotRollupRepository repository;
+    private final DailyShotRollupUpdater updater;
+    private final ShotOutboxRelay relay;
+    private final AuthenticatedUser authenticatedUser;
+
+    ShotRollupService(DailyShotRollupRepository repository, DailyShotRollupUpdater updater, ShotOutboxRelay relay,
+                      AuthenticatedUser authenticatedUser) {
+        this.repository = repository;
+        this.updater = updater;
+        this.relay = relay;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * Totals over all beans per UTC day, starting at {@code from}.
+     */
+    @Transactional(readOnly = true)
+    public List<RollupStats> dailyTotals(LocalDate from) {
+        return repository.findDailyTotals(getCurrentUser().getId(), from);
+    }
+
+    /**
+     * Totals per bean and month, starting at {@code from}. Shots without a bean are reported
+     * under {@link DailyShotRollup#NO_BEAN}.
+     */
+    @Transactional(readOnly = true)
+    public List<RollupStats> monthlyByBean(LocalDate from) {
+        return repository.findMonthlyByBean(getCurrentUser().getId(), from);
+    }
+
+    @Scheduled(cron = "${rollups.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        var since = LocalDate.now(ZoneOffset.UTC).minusDays(RECONCILE_DAYS);
+        relay.reconcile(updater, () -> {
+            var deleted = repository.deleteSince(since);
+            var inserted = repository.rebuildSince(since.atStartOfDay(ZoneOffset.UTC).toInstant());
+            logger.info("Reconciled daily shot rollups since {}: {} rows replaced by {}", since, deleted, inserted);
+        });
+    }
+}
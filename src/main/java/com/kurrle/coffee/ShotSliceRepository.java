@@ -0,0 +1,13 @@
+package com.kurrle.coffee;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment that pages shots by specification without issuing a count query.
+ */
+interface ShotSliceRepository {
+
+    Slice<EspressoShot> findSlice(Specification<EspressoShot> spec, Pageable pageable);
+}
@@ -0,0 +1,40 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+class ShotSliceRepositoryImpl implements ShotSliceRepository {
+
+    private final EntityManager entityManager;
+
+    ShotSliceRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<EspressoShot> findSlice(Specification<EspressoShot> spec, Pageable pageable) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(EspressoShot.class);
+        var root = query.from(EspressoShot.class);
+        root.fetch("coffeeBean", JoinType.LEFT);
+
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        // Fetch one extra row to learn whether another slice follows
+        var content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        var hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,70 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the shot columns that derived data (counters, rollups, caches) is computed from.
+ * Taking a snapshot before and after a write lets listeners subtract the old and add the new values.
+ * The bean's roast level and {@link CommunityCounters#normalizeOrigin normalized} origin are copied too,
+ * so a shot is subtracted from the community statistics it was added to even after the bean changed.
+ */
+public record ShotSnapshot(Long shotId,
+                           UUID userId,
+                           @Nullable Long beanId,
+                           @Nullable Long teamId,
+                           @Nullable RoastLevel roastLevel,
+                           @Nullable String origin,
+                           double grindSize,
+                           double grindAmount,
+                           double yield,
+                           int extractionTime,
+                           Instant createdAt,
+                           @Nullable TasteProfile tasteProfile,
+                           boolean outlier) {
+
+    static ShotSnapshot of(EspressoShot shot) {
+        var bean = shot.getCoffeeBean();
+        return new ShotSnapshot(
+                shot.getId(),
+                shot.getUser().getId(),
+                bean != null ? bean.getId() : null,
+                shot.getTeam() != null ? shot.getTeam().getId() : null,
+                bean != null ? bean.getRoastLevel() : null,
+                bean != null ? CommunityCounters.normalizeOrigin(bean.getOrigin()) : null,
+                shot.getGrindSize(),
+                shot.getGrindAmount(),
+                shot.getYield(),
+                shot.getExtractionTime(),
+                shot.getCreatedAt(),
+                shot.getReview() != null ? shot.getReview().getTasteProfile() : null,
+                shot.isOutlier());
+    }
+
+    /**
+     * The shot after its bean was deleted, which also takes it off the bean's team.
+     */
+    ShotSnapshot withoutBean() {
+        return new ShotSnapshot(shotId, userId, null, null, null, null, grindSize, grindAmount, yield,
+                extractionTime, createdAt, tasteProfile, outlier);
+    }
+
+    ShotSnapshot withTeam(@Nullable Long teamId) {
+        return new ShotSnapshot(shotId, userId, beanId, teamId, roastLevel, origin, grindSize, grindAmount, yield,
+                extractionTime, createdAt, tasteProfile, outlier);
+    }
+
+    /**
+     * The shot after its bean's roast level or origin changed; {@code origin} must be normalized.
+     */
+    ShotSnapshot withBean(RoastLevel roastLevel, @Nullable String origin) {
+        return new ShotSnapshot(shotId, userId, beanId, teamId, roastLevel, origin, grindSize, grindAmount, yield,
+                extractionTime, createdAt, tasteProfile, outlier);
+    }
+
+    public double brewRatio() {
+        return yield / grindAmount;
+    }
+}
@@ -0,0 +1,147 @@
+package com.kurrle.coffee;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Whitelist of sort properties supported when listing shots. A sort is only accepted together with filters
+ * if one of the {@code espresso_shot} indexes below serves both: its columns are the scope column, then the
+ * filtered columns, then the sort columns, so the database seeks to the matching rows and reads them in
+ * order instead of scanning and sorting. Any other property or combination is rejected.
+ */
+public enum ShotSortKey {
+    DATE("createdAt", "created_at"),
+    // Groups shots by bean in the order the beans were created, newest shots first within a bean
+    BEAN("beanId", "bean_id", "created_at"),
+    GRIND("grindSize", "grind_size"),
+    TIME("extractionTime", "extraction_time");
+
+    /**
+     * The indexes that can serve a shot list, declared on {@link EspressoShot} and, for the partial one, in
+     * {@code schema-postgresql.sql}. Keep in sync when adding an index or a sort key.
+     */
+    private static final List<ShotIndex> INDEXES = List.of(
+            new ShotIndex(false, "user_id", "created_at"),
+            new ShotIndex(false, "user_id", "bean_id", "created_at"),
+            new ShotIndex(false, "user_id", "grind_size"),
+            new ShotIndex(false, "user_id", "extraction_time"),
+            new ShotIndex(false, "user_id", "bean_id", "grind_size"),
+            new ShotIndex(false, "user_id", "bean_id", "extraction_time"),
+            new ShotIndex(false, "user_id", "taste_profile", "created_at"),
+            new ShotIndex(true, "user_id", "created_at"),
+            new ShotIndex(false, "team_id", "created_at"),
+            new ShotIndex(false, "team_id", "bean_id", "created_at"));
+
+    /**
+     * The sanitized default order of a user's unfiltered shots, newest first.
+     */
+    static final Sort NEWEST_FIRST = sanitize(Sort.unsorted(), ShotFilter.NONE, Scope.USER);
+
+    /**
+     * Whose shots are listed, i.e. the leading column of the index used.
+     */
+    enum Scope {
+        USER("user_id"),
+        TEAM("team_id");
+
+        private final String column;
+
+        Scope(String column) {
+            this.column = column;
+        }
+    }
+
+    private final String property;
+    private final List<String> columns;
+
+    ShotSortKey(String property, String... columns) {
+        this.property = property;
+        this.columns = List.of(columns);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static Optional<ShotSortKey> ofProperty(String property) {
+        return Arrays.stream(values()).filter(key -> key.property.equals(property)).findFirst();
+    }
+
+    /**
+     * Whether a user's own shots can be listed in this order with the given filter.
+     */
+    public boolean supports(ShotFilter filter) {
+        return supports(filter, Scope.USER);
+    }
+
+    private boolean supports(ShotFilter filter, Scope scope) {
+        var equalities = new HashSet<String>();
+        if (filter.beanId() != null) {
+            equalities.add("bean_id");
+        }
+        // A missing review is stored as a null taste profile, which the index seeks like any other value
+        if (filter.tasteProfile() != null || Boolean.FALSE.equals(filter.reviewed())) {
+            equalities.add("taste_profile");
+        }
+        var reviewedOnly = filter.tasteProfile() == null && Boolean.TRUE.equals(filter.reviewed());
+        var dateRange = filter.from() != null || filter.to() != null;
+        return INDEXES.stream().anyMatch(index -> index.serves(scope, equalities, reviewedOnly, columns, dateRange));
+    }
+
+    /**
+     * Validates the requested sort against the whitelist and the filter, appends the sort key's remaining
+     * index columns and the shot id as tie-breakers so offset paging stays stable.
+     *
+     * @throws IllegalArgumentException if the sort contains an unsupported property, more than one property,
+     *                                  or cannot be served by an index together with the filter
+     */
+    static Sort sanitize(Sort sort, ShotFilter filter, Scope scope) {
+        var requested = sort.isUnsorted() ? List.of(Sort.Order.desc(DATE.property)) : sort.toList();
+        if (requested.size() > 1) {
+            throw new IllegalArgumentException("Shots can only be sorted by one property");
+        }
+        var order = requested.getFirst();
+        var key = ofProperty(order.getProperty())
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort property: " + order.getProperty()));
+        if (!key.supports(filter, scope)) {
+            throw new IllegalArgumentException("Sorting by " + key.name().toLowerCase() + " is not supported with these filters");
+        }
+        var orders = new ArrayList<Sort.Order>();
+        orders.add(order);
+        if (key == BEAN) {
+            orders.add(new Sort.Order(order.getDirection(), DATE.property));
+        }
+        orders.add(new Sort.Order(order.getDirection(), "id"));
+        return Sort.by(orders);
+    }
+
+    /**
+     * A btree index on {@code espresso_shot}; {@code reviewedOnly} marks a partial index over reviewed shots.
+     */
+    private record ShotIndex(boolean reviewedOnly, String... columns) {
+
+        /**
+         * Whether the index seeks to the scope and the filter's equality columns and then returns the rows in
+         * sort order. A date range can only be sought if {@code created_at} is the first column after that.
+         */
+        boolean serves(Scope scope, Set<String> equalities, boolean reviewedOnly, List<String> sortColumns,
+                       boolean dateRange) {
+            var ordering = sortColumns.stream().filter(column -> !equalities.contains(column)).toList();
+            if (this.reviewedOnly != reviewedOnly || columns.length != 1 + equalities.size() + ordering.size()
+                    || !columns[0].equals(scope.column)) {
+                return false;
+            }
+            var columnList = List.of(columns);
+            var seek = columnList.subList(1, 1 + equalities.size());
+            var order = columnList.subList(1 + equalities.size(), columns.length);
+            return equalities.containsAll(seek) && order.equals(ordering)
+                    && (!dateRange || !order.isEmpty() && order.getFirst().equals("created_at"));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+/**
+ * Turns {@link ShotFilter} criteria into JPA specifications. Every specification is scoped by owner or
+ * team first, matching the leading column of the {@code espresso_shot} indexes. Taste and reviewed filters
+ * read the taste profile copied onto the shot, so no criterion needs a join or subquery.
+ */
+final class ShotSpecifications {
+
+    private ShotSpecifications() {
+    }
+
+    static Specification<EspressoShot> matching(User user, ShotFilter filter) {
+        return matching(ownedBy(user), filter);
+    }
+
+    static Specification<EspressoShot> matching(Team team, ShotFilter filter) {
+        return matching(inTeam(team), filter);
+    }
+
+    private static Specification<EspressoShot> matching(Specification<EspressoShot> scope, ShotFilter filter) {
+        var spec = scope;
+        if (filter.beanId() != null) {
+            spec = spec.and(withBean(filter.beanId()));
+        }
+        if (filter.from() != null) {
+            spec = spec.and(createdFrom(filter.from()));
+        }
+        if (filter.to() != null) {
+            spec = spec.and(createdBefore(filter.to()));
+        }
+        if (filter.tasteProfile() != null) {
+            spec = spec.and(withTasteProfile(filter.tasteProfile()));
+        }
+        if (filter.reviewed() != null) {
+            spec = spec.and(reviewed(filter.reviewed()));
+        }
+        return spec;
+    }
+
+    static Specification<EspressoShot> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    static Specification<EspressoShot> inTeam(Team team) {
+        return (root, query, cb) -> cb.equal(root.get("team"), team);
+    }
+
+    static Specification<EspressoShot> withBean(Long beanId) {
+        return (root, query, cb) -> cb.equal(root.get("coffeeBean").get("id"), beanId);
+    }
+
+    static Specification<EspressoShot> createdFrom(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    static Specification<EspressoShot> createdBefore(Instant to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    static Specification<EspressoShot> withTasteProfile(TasteProfile tasteProfile) {
+        return (root, query, cb) -> cb.equal(root.get("tasteProfile"), tasteProfile);
+    }
+
+    static Specification<EspressoShot> reviewed(boolean reviewed) {
+        return (root, query, cb) -> reviewed
+                ? cb.isNotNull(root.get("tasteProfile"))
+                : cb.isNull(root.get("tasteProfile"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the incrementally maintained {@link BeanStatistics}; never scans shot histories.
+ */
+@Service
+public class ShotStatisticsService {
+
+    private final BeanStatisticsRepository repository;
+    private final AuthenticatedUser authenticatedUser;
+
+    ShotStatisticsService(BeanStatisticsRepository repository, AuthenticatedUser authenticatedUser) {
+        this.repository = repository;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    /**
+     * Percentiles per bean of the current user's own shots, for those of the given beans they pulled shots of.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ShotPercentiles> percentilesByBean(Collection<Long> beanIds) {
+        return percentilesByBean(getCurrentUser().getId(), beanIds);
+    }
+
+    Map<Long, ShotPercentiles> percentilesByBean(UUID userId, Collection<Long> beanIds) {
+        if (beanIds.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findByUserIdAndBeanIdIn(userId, beanIds).stream()
+                .collect(Collectors.toMap(BeanStatistics::getBeanId,
+                        stats -> ShotPercentiles.of(stats.getTimeSketch(), stats.getRatioSketch())));
+    }
+
+    /**
+     * Percentiles over all of the current user's shots, merged from their per-bean sketches.
+     */
+    @Transactional(readOnly = true)
+    public ShotPercentiles userPercentiles() {
+        return userPercentiles(getCurrentUser().getId());
+    }
+
+    ShotPercentiles userPercentiles(UUID userId) {
+        var time = new QuantileSketch();
+        var ratio = new QuantileSketch();
+        for (var stats : repository.findByUserId(userId)) {
+            time.merge(stats.getTimeSketch());
+            ratio.merge(stats.getRatioSketch());
+        }
+        return ShotPercentiles.of(time, ratio);
+    }
+
+    /**
+     * Taste transitions between the current user's reviews of one bean; empty if there are none yet.
+     */
+    @Transactional(readOnly = true)
+    public TransitionMatrix tasteTransitions(Long beanId) {
+        return tasteTransitions(getCurrentUser().getId(), beanId);
+    }
+
+    TransitionMatrix tasteTransitions(UUID userId, Long beanId) {
+        return repository.findById(new BeanStatistics.Key(beanId, userId))
+                .map(BeanStatistics::getTasteTransitions)
+                .orElseGet(TransitionMatrix::new);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kurrle.coffee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Recently accepted shot submissions by user and client token, so a repeated submission is answered with
+ * the original shot instead of a second insert. Entries expire after the configured time, and the oldest
+ * are dropped beyond the configured number; the unique index on {@code (user_id, submission_token)}
+ * catches whatever the cache no longer remembers.
+ */
+@Component
+class ShotSubmissionCache {
+
+    private final ConcurrentHashMap<Key, Long> shotIds = new ConcurrentHashMap<>();
+    // In insertion order, which is also expiry order since every entry lives equally long
+    private final ConcurrentLinkedQueue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+    private final long timeToLiveNanos;
+    private final int maxEntries;
+
+    ShotSubmissionCache(@Value("${shots.submission-cache.time-to-live:PT10M}") Duration timeToLive,
+                        @Value("${shots.submission-cache.max-entries:10000}") int maxEntries) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the id of the shot created by an earlier submission with the token, if still remembered.
+     */
+    Optional<Long> shotId(UUID userId, UUID submissionToken) {
+        evict();
+        return Optional.ofNullable(shotIds.get(new Key(userId, submissionToken)));
+    }
+
+    void put(UUID userId, UUID submissionToken, Long shotId) {
+        var key = new Key(userId, submissionToken);
+        if (shotIds.putIfAbsent(key, shotId) == null) {
+            expiries.add(new Expiry(key, shotId, System.nanoTime() + timeToLiveNanos));
+        }
+        evict();
+    }
+
+    void remove(UUID userId, UUID submissionToken) {
+        shotIds.remove(new Key(userId, submissionToken));
+    }
+
+    private void evict() {
+        var now = System.nanoTime();
+        Expiry oldest;
+        while ((oldest = expiries.peek()) != null && (oldest.deadline() - now <= 0 || shotIds.size() > maxEntries)) {
+            // Only the thread that dequeues the entry drops it; a newer entry under the same key is kept
+            if (expiries.remove(oldest)) {
+                shotIds.remove(oldest.key(), oldest.shotId());
+            }
+        }
+    }
+
+    private record Key(UUID userId, UUID submissionToken) {
+    }
+
+    private record Expiry(Key key, Long shotId, long deadline) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.kurrle.coffee;
+
+/**
+ * Mean shot parameters over a set of shots, computed from {@link ShotColumns}. Outliers are left out.
+ */
+public record ShotSummary(int shotCount,
+                          double meanGrindSize,
+                          double meanDose,
+                          double meanYield,
+                          double meanTime,
+                          double meanRatio,
+                          double balancedShare) {
+
+    static ShotSummary of(ShotColumns columns, long beanId) {
+        int count = 0;
+        int reviewed = 0;
+        int balanced = 0;
+        double grind = 0, dose = 0, yield = 0, time = 0, ratio = 0;
+        var balancedOrdinal = (byte) TasteProfile.BALANCED.ordinal();
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.outlier(i) || beanId != DailyShotRollup.NO_BEAN && columns.beanId(i) != beanId) {
+                continue;
+            }
+            count++;
+            grind += columns.grindSize(i);
+            dose += columns.dose(i);
+            yield += columns.yield(i);
+            time += columns.extractionTime(i);
+            ratio += columns.ratio(i);
+            var taste = columns.tasteOrdinal(i);
+            if (taste != ShotColumns.NOT_REVIEWED) {
+                reviewed++;
+                if (taste == balancedOrdinal) {
+                    balanced++;
+                }
+            }
+        }
+        if (count == 0) {
+            return new ShotSummary(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new ShotSummary(count, grind / count, dose / count, yield / count, time / count, ratio / count,
+                reviewed == 0 ? 0 : (double) balanced / reviewed);
+    }
+}
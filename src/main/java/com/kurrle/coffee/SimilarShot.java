@@ -0,0 +1,19 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A past shot of the same bean close to a given shot in grind, dose, yield and time, together with its
+ * outcome. {@code distance} is measured in standard deviations of the bean's shots.
+ */
+public record SimilarShot(Long shotId,
+                          double grindSize,
+                          double grindAmount,
+                          double yield,
+                          int extractionTime,
+                          @Nullable TasteProfile tasteProfile,
+                          Instant createdAt,
+                          double distance) {
+}
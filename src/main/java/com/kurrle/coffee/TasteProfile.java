@@ -16,6 +16,16 @@ public enum TasteProfile {
     WATERY_SOUR("Watery + Sour", "Increase yield and grind finer", true, false, false, true),
     BALANCED("Balanced/Perfect", "No adjustments needed!", false, false, false, false);
 
+    /**
+     * Grind size change of one recommended adjustment
+     */
+    public static final double GRIND_STEP = 0.5;
+
+    /**
+     * Yield change in grams of one recommended adjustment
+     */
+    public static final double YIELD_STEP = 2;
+
     private final String displayName;
     private final String recommendation;
     private final boolean sour;
@@ -83,4 +93,30 @@ public enum TasteProfile {
     public boolean shouldDecreaseYield() {
         return bitter;
     }
+
+    /**
+     * Returns the grind size to try next, one step finer or coarser as recommended
+     */
+    public double adjustGrindSize(double grindSize) {
+        if (shouldGrindFiner()) {
+            return grindSize - GRIND_STEP;
+        }
+        if (shouldGrindCoarser()) {
+            return grindSize + GRIND_STEP;
+        }
+        return grindSize;
+    }
+
+    /**
+     * Returns the yield to try next, one step up or down as recommended but never below the dose
+     */
+    public double adjustYield(double yield, double dose) {
+        if (shouldIncreaseYield()) {
+            return yield + YIELD_STEP;
+        }
+        if (shouldDecreaseYield()) {
+            return Math.max(yield - YIELD_STEP, dose);
+        }
+        return yield;
+    }
 }
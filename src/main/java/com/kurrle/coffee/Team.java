@@ -0,0 +1,59 @@
+package com.kurrle.coffee;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A café workspace whose members share a bean catalogue. Beans are shared by assigning them to the team;
+ * shots of shared beans are visible to every member. Membership is kept in {@link TeamMembership}.
+ */
+@Entity
+@Table(name = "team")
+public class Team {
+
+    public static final int NAME_MAX_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "team_id")
+    private Long id;
+
+    @Column(name = "name", nullable = false, length = NAME_MAX_LENGTH)
+    private String name = "";
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected Team() { // For Hibernate
+    }
+
+    public Team(String name) {
+        setName(name);
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        if (name.length() > NAME_MAX_LENGTH) {
+            throw new IllegalArgumentException("Name length exceeds " + NAME_MAX_LENGTH);
+        }
+        this.name = name;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
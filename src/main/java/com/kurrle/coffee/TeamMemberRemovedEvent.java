@@ -0,0 +1,10 @@
+package com.kurrle.coffee;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link TeamService} inside the transaction that removes a member from a team, including a
+ * member leaving on their own.
+ */
+public record TeamMemberRemovedEvent(Long teamId, UUID userId) {
+}
@@ -0,0 +1,63 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "team_membership",
+        uniqueConstraints = @UniqueConstraint(name = "uk_team_membership_team_user", columnNames = {"team_id", "user_id"}),
+        indexes = @Index(name = "idx_team_membership_user", columnList = "user_id"))
+public class TeamMembership {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "membership_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id", nullable = false)
+    private Team team;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false)
+    private TeamRole role;
+
+    @Column(name = "joined_at", nullable = false)
+    private Instant joinedAt;
+
+    protected TeamMembership() { // For Hibernate
+    }
+
+    TeamMembership(Team team, User user, TeamRole role) {
+        this.team = team;
+        this.user = user;
+        this.role = role;
+        this.joinedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Team getTeam() {
+        return team;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public TeamRole getRole() {
+        return role;
+    }
+
+    public Instant getJoinedAt() {
+        return joinedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+interface TeamMembershipRepository extends JpaRepository<TeamMembership, Long> {
+
+    Optional<TeamMembership> findByTeamAndUser(Team team, User user);
+
+    boolean existsByTeamAndUser(Team team, User user);
+
+    @Query("SELECT m FROM TeamMembership m JOIN FETCH m.user WHERE m.team = :team")
+    Slice<TeamMembership> findByTeam(Team team, Pageable pageable);
+
+    /**
+     * A bean can be used for shots by its owner and by the members of the team it is shared with.
+     */
+    default boolean canUseBean(CoffeeBean bean, User user) {
+        return bean.getUser().getId().equals(user.getId())
+                || bean.getTeam() != null && existsByTeamAndUser(bean.getTeam(), user);
+    }
+}
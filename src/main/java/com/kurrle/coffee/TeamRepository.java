@@ -0,0 +1,13 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+interface TeamRepository extends JpaRepository<Team, Long> {
+
+    @Query("SELECT m.team FROM TeamMembership m WHERE m.user = :user ORDER BY m.team.name")
+    List<Team> findByMember(User user);
+}
@@ -0,0 +1,16 @@
+package com.kurrle.coffee;
+
+public enum TeamRole {
+    OWNER("Owner"),
+    MEMBER("Member");
+
+    private final String displayName;
+
+    TeamRole(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,141 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import com.kurrle.security.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Team workspaces. Every read requires membership of the team and every change to the membership requires
+ * the {@link TeamRole#OWNER} role. Team-wide lists are scoped by {@code team_id} first and paged as slices,
+ * so they need neither a join over the members nor a count query.
+ */
+@Service
+public class TeamService {
+
+    private final TeamRepository teamRepository;
+    private final TeamMembershipRepository membershipRepository;
+    private final CoffeeBeanRepository beanRepository;
+    private final EspressoShotRepository shotRepository;
+    private final DailyShotRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final AuthenticatedUser authenticatedUser;
+    private final ApplicationEventPublisher eventPublisher;
+
+    TeamService(TeamRepository teamRepository, TeamMembershipRepository membershipRepository,
+                CoffeeBeanRepository beanRepository, EspressoShotRepository shotRepository,
+                DailyShotRollupRepository rollupRepository, UserRepository userRepository,
+                AuthenticatedUser authenticatedUser, ApplicationEventPublisher eventPublisher) {
+        this.teamRepository = teamRepository;
+        this.membershipRepository = membershipRepository;
+        this.beanRepository = beanRepository;
+        this.shotRepository = shotRepository;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.authenticatedUser = authenticatedUser;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private User getCurrentUser() {
+        return authenticatedUser.get()
+                .orElseThrow(() -> new IllegalStateException("No authenticated user found"));
+    }
+
+    private TeamMembership requireMembership(Long teamId) {
+        var team = teamRepository.findById(teamId).orElseThrow(() -> new IllegalArgumentException("Team not found: " + teamId));
+        return membershipRepository.findByTeamAndUser(team, getCurrentUser())
+                .orElseThrow(() -> new IllegalArgumentException("Not a member of this team"));
+    }
+
+    private Team requireOwner(Long teamId) {
+        var membership = requireMembership(teamId);
+        if (membership.getRole() != TeamRole.OWNER) {
+            throw new IllegalArgumentException("Only team owners can manage members");
+        }
+        return membership.getTeam();
+    }
+
+    @Transactional
+    public Team createTeam(String name) {
+        var team = teamRepository.saveAndFlush(new Team(name));
+        membershipRepository.save(new TeamMembership(team, getCurrentUser(), TeamRole.OWNER));
+        return team;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Team> listMyTeams() {
+        return teamRepository.findByMember(getCurrentUser());
+    }
+
+    /**
+     * Adds the user registered with the given email to the team; does nothing if they already are a member.
+     */
+    @Transactional
+    public void addMember(Long teamId, String email) {
+        var team = requireOwner(teamId);
+        var user = userRepository.findByEmail(email.strip())
+                .orElseThrow(() -> new IllegalArgumentException("No user registered with " + email));
+        if (!membershipRepository.existsByTeamAndUser(team, user)) {
+            membershipRepository.save(new TeamMembership(team, user, TeamRole.MEMBER));
+        }
+    }
+
+    /**
+     * Removes a member. Owners can remove other members; everyone can leave a team themselves. The member's
+     * live board streams of the team are closed once the removal commits.
+     */
+    @Transactional
+    public void removeMember(Long teamId, Long membershipId) {
+        var own = requireMembership(teamId);
+        var membership = membershipRepository.findById(membershipId)
+                .filter(found -> found.getTeam().getId().equals(teamId))
+                .orElseThrow(() -> new IllegalArgumentException("Membership not found: " + membershipId));
+        var leaving = membership.getId().equals(own.getId());
+        if (!leaving && own.getRole() != TeamRole.OWNER) {
+            throw new IllegalArgumentException("Only team owners can manage members");
+        }
+        if (membership.getRole() == TeamRole.OWNER && !leaving) {
+            throw new IllegalArgumentException("Team owners can only leave the team themselves");
+        }
+        membershipRepository.delete(membership);
+        eventPublisher.publishEvent(new TeamMemberRemovedEvent(teamId, membership.getUser().getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TeamMembership> listMembers(Long teamId, Pageable pageable) {
+        return membershipRepository.findByTeam(requireMembership(teamId).getTeam(), pageable).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<CoffeeBean> listBeans(Long teamId) {
+        return beanRepository.findByTeamAndActiveTrueOrderByName(requireMembership(teamId).getTeam());
+    }
+
+    /**
+     * Lists the shots of all members on the team's shared beans.
+     *
+     * @throws IllegalArgumentException if no index serves the pageable's sort together with the filter
+     */
+    @Transactional(readOnly = true)
+    public List<EspressoShot> listShots(Long teamId, ShotFilter filter, Pageable pageable) {
+        var team = requireMembership(teamId).getTeam();
+        var sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                ShotSortKey.sanitize(pageable.getSort(), filter, ShotSortKey.Scope.TEAM));
+        return shotRepository.findSlice(ShotSpecifications.matching(team, filter), sortedPageable).toList();
+    }
+
+    /**
+     * Totals per shared bean over all members since {@code from}, summed from the daily rollups.
+     */
+    @Transactional(readOnly = true)
+    public List<RollupStats> beanTotals(Long teamId, LocalDate from) {
+        return rollupRepository.findTeamBeanTotals(requireMembership(teamId).getTeam(), from);
+    }
+}
@@ -0,0 +1,99 @@
+package com.kurrle.coffee;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Counts of how often a reviewed shot of one {@link TasteProfile} was followed by a reviewed shot of
+ * another on the same bean. The 9×9 counts live in a flat {@code int} array indexed by the profiles'
+ * ordinals, so every lookup is constant time.
+ */
+public final class TransitionMatrix {
+
+    private static final int STATES = TasteProfile.values().length;
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int[] counts = new int[STATES * STATES];
+
+    public int count(TasteProfile from, TasteProfile to) {
+        return counts[index(from, to)];
+    }
+
+    /**
+     * Number of transitions recorded out of {@code from}.
+     */
+    public int total(TasteProfile from) {
+        var total = 0;
+        var row = from.ordinal() * STATES;
+        for (var i = 0; i < STATES; i++) {
+            total += counts[row + i];
+        }
+        return total;
+    }
+
+    /**
+     * Empirical probability that a shot of profile {@code from} is followed by one of profile {@code to},
+     * or 0 when nothing has been recorded out of {@code from} yet.
+     */
+    public double probability(TasteProfile from, TasteProfile to) {
+        var total = total(from);
+        return total == 0 ? 0 : (double) count(from, to) / total;
+    }
+
+    /**
+     * The profile that most often followed {@code from}, if any transition out of it was recorded.
+     */
+    public Optional<TasteProfile> mostLikelyNext(TasteProfile from) {
+        var row = from.ordinal() * STATES;
+        var best = -1;
+        for (var i = 0; i < STATES; i++) {
+            if (counts[row + i] > 0 && (best < 0 || counts[row + i] > counts[row + best])) {
+                best = i;
+            }
+        }
+        return best < 0 ? Optional.empty() : Optional.of(TasteProfile.values()[best]);
+    }
+
+    void increment(TasteProfile from, TasteProfile to) {
+        counts[index(from, to)]++;
+    }
+
+    void decrement(TasteProfile from, TasteProfile to) {
+        var index = index(from, to);
+        if (counts[index] > 0) {
+            counts[index]--;
+        }
+    }
+
+    private static int index(TasteProfile from, TasteProfile to) {
+        return from.ordinal() * STATES + to.ordinal();
+    }
+
+    byte[] toBytes() {
+        var out = new ByteArrayOutputStream(1 + counts.length);
+        out.write(FORMAT_VERSION);
+        for (var count : counts) {
+            VarInts.write(out, count);
+        }
+        return out.toByteArray();
+    }
+
+    static TransitionMatrix fromBytes(byte @Nullable [] bytes) {
+        var matrix = new TransitionMatrix();
+        if (bytes == null || bytes.length == 0) {
+            return matrix;
+        }
+        var in = ByteBuffer.wrap(bytes);
+        var version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported transition matrix format: " + version);
+        }
+        for (var i = 0; i < matrix.counts.length; i++) {
+            matrix.counts[i] = (int) VarInts.read(in);
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,52 @@
+-- PostgreSQL specific schema additions that Hibernate's ddl-auto cannot express.
+-- Runs after Hibernate has created/updated the tables (see spring.jpa.defer-datasource-initialization),
+-- so every statement must be idempotent.
+
+-- Full-text search over notes: generated tsvector columns are maintained by PostgreSQL on every write.
+ALTER TABLE espresso_shot ADD COLUMN IF NOT EXISTS notes_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(notes, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_espresso_shot_notes_tsv ON espresso_shot USING gin (notes_tsv);
+
+ALTER TABLE shot_review ADD COLUMN IF NOT EXISTS notes_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(notes, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_shot_review_notes_tsv ON shot_review USING gin (notes_tsv);
+
+ALTER TABLE coffee_bean ADD COLUMN IF NOT EXISTS flavor_notes_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(flavor_notes, ''))) STORED;
+CREATE INDEX IF NOT EXISTS idx_coffee_bean_flavor_notes_tsv ON coffee_bean USING gin (flavor_notes_tsv);
+
+-- Latest shot per bean for pre-filling the entry form: an index-only scan returns the newest
+-- non-outlier shot's parameters without touching the table.
+CREATE INDEX IF NOT EXISTS idx_espresso_shot_bean_latest ON espresso_shot (bean_id, created_at DESC)
+    INCLUDE (user_id, shot_id, grind_size, grind_amount, yield, extraction_time) WHERE NOT outlier;
+CREATE INDEX IF NOT EXISTS idx_shot_review_shot ON shot_review (shot_id) INCLUDE (taste_profile);
+
+-- Taste profile copied from the review onto the shot (see EspressoShot): filled in once for shots reviewed
+-- before the column existed, i.e. before the index below was created, and indexed for the "reviewed" filter,
+-- which no equality seek on the column can serve.
+UPDATE espresso_shot s SET taste_profile = r.taste_profile
+    FROM shot_review r WHERE r.shot_id = s.shot_id AND s.taste_profile IS DISTINCT FROM r.taste_profile
+    AND to_regclass('idx_espresso_shot_user_reviewed_created') IS NULL;
+CREATE INDEX IF NOT EXISTS idx_espresso_shot_user_reviewed_created ON espresso_shot (user_id, created_at)
+    WHERE taste_profile IS NOT NULL;
+
+-- Best recipes are maintained on review writes (see BestRecipeUpdater): filled in once, while the table is
+-- still empty, for beans whose balanced shots were reviewed before the table existed, as
+-- BestRecipeRepository.recompute does for a single bean.
+INSERT INTO best_recipe (bean_id, user_id, shot_id, grind_size, grind_amount, yield, extraction_time, achieved_at)
+SELECT DISTINCT ON (s.bean_id) s.bean_id, s.user_id, s.shot_id, s.grind_size, s.grind_amount, s.yield,
+       s.extraction_time, s.created_at
+FROM espresso_shot s JOIN shot_review r ON r.shot_id = s.shot_id
+WHERE s.bean_id IS NOT NULL AND r.taste_profile = 'BALANCED' AND NOT s.outlier
+  AND NOT EXISTS (SELECT 1 FROM best_recipe)
+ORDER BY s.bean_id, s.created_at DESC
+ON CONFLICT (bean_id) DO NOTHING;
+
+-- Outbox events still waiting for their delivery position, found by the relay without scanning the
+-- retained history.
+CREATE INDEX IF NOT EXISTS idx_shot_outbox_unpositioned ON shot_outbox (event_id) WHERE delivery_position IS NULL;
+
+-- Idempotent shot submission: a repeated client token cannot insert a second shot. Shots created
+-- before tokens were introduced have none and are left out.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_espresso_shot_user_submission ON espresso_shot (user_id, submission_token)
+    WHERE submission_token IS NOT NULL;
@@ -0,0 +1,79 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkedJobRunnerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Keys 1 to {@code count}, served in order after the given key.
+     */
+    private static ChunkedJobRunner.KeySource<Integer> keys(int count) {
+        return (after, limit) -> IntStream.rangeClosed(after + 1, Math.min(after + limit, count)).boxed().toList();
+    }
+
+    @Test
+    void processesEveryKeyAndCheckpointsEachWave() {
+        var runner = new ChunkedJobRunner<Integer>(executor, 3, 4);
+        var processed = ConcurrentHashMap.<Integer>newKeySet();
+        var checkpoints = new ArrayList<List<Integer>>();
+
+        var count = runner.run(0, keys(30), processed::add, (key, e) -> {
+        }, (last, keys, failed) -> checkpoints.add(List.of(last, keys, failed)));
+
+        assertThat(count).isEqualTo(30);
+        assertThat(processed).hasSize(30).containsAll(IntStream.rangeClosed(1, 30).boxed().toList());
+        assertThat(checkpoints).containsExactly(List.of(12, 12, 0), List.of(24, 12, 0), List.of(30, 6, 0));
+    }
+
+    @Test
+    void resumesAfterTheCheckpoint() {
+        var runner = new ChunkedJobRunner<Integer>(executor, 2, 5);
+        var processed = ConcurrentHashMap.<Integer>newKeySet();
+
+        var count = runner.run(20, keys(25), processed::add, (key, e) -> {
+        }, (last, keys, failed) -> {
+        });
+
+        assertThat(count).isEqualTo(5);
+        assertThat(processed).containsExactlyInAnyOrder(21, 22, 23, 24, 25);
+    }
+
+    @Test
+    void skipsFailingKeysAndReportsThem() {
+        var runner = new ChunkedJobRunner<Integer>(executor, 3, 4);
+        var processed = ConcurrentHashMap.<Integer>newKeySet();
+        var failedKeys = ConcurrentHashMap.<Integer>newKeySet();
+        var failures = new AtomicInteger();
+
+        var count = runner.run(0, keys(30), key -> {
+            if (key % 7 == 0) {
+                throw new IllegalStateException("Broken key " + key);
+            }
+            processed.add(key);
+        }, (key, e) -> failedKeys.add(key), (last, keys, failed) -> failures.addAndGet(failed));
+
+        assertThat(count).isEqualTo(30);
+        assertThat(failedKeys).containsExactlyInAnyOrder(7, 14, 21, 28);
+        assertThat(failures).hasValue(4);
+        assertThat(processed).hasSize(26).doesNotContainAnyElementsOf(Set.of(7, 14, 21, 28));
+    }
+}
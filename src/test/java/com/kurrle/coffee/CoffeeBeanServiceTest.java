@@ -0,0 +1,115 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoffeeBeanServiceTest extends ServiceTest {
+
+    @Autowired
+    CoffeeBeanService beanService;
+
+    @Autowired
+    EspressoShotService shotService;
+
+    @Autowired
+    ShotOutboxRelay relay;
+
+    @Autowired
+    BeanStatisticsRepository statisticsRepository;
+
+    @Autowired
+    BestRecipeRepository bestRecipeRepository;
+
+    @Autowired
+    DialInSessionRepository sessionRepository;
+
+    @Autowired
+    DailyShotRollupRepository rollupRepository;
+
+    private EspressoShot createShot(CoffeeBean bean) {
+        return shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, bean.getId());
+    }
+
+    private List<DailyShotRollup> rollupsOf(User user) {
+        return rollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getId().userId().equals(user.getId()))
+                .toList();
+    }
+
+    @Test
+    void deleteBeansRemovesDerivedRowsAndKeepsShots() {
+        var user = signIn();
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, "Ethiopia", null);
+        var other = beanService.createBean("Kiambu", RoastLevel.MEDIUM, "Kenya", null);
+        var shot = createShot(bean);
+        shotService.reviewShot(shot.getId(), TasteProfile.BALANCED, null);
+        createShot(other);
+        relay.relay();
+
+        assertThat(beanService.deleteBeans(List.of(bean.getId()))).isEqualTo(1);
+        relay.relay();
+
+        assertThat(shotService.findByIdWithDetails(shot.getId())).hasValueSatisfying(kept -> {
+            assertThat(kept.getCoffeeBean()).isNull();
+            assertThat(kept.getSession()).isNull();
+        });
+        assertThat(statisticsRepository.findByUserId(user.getId()))
+                .extracting(BeanStatistics::getBeanId)
+                .containsExactly(other.getId());
+        assertThat(bestRecipeRepository.findByUserIdAndBeanIdIn(user.getId(), List.of(bean.getId()))).isEmpty();
+        assertThat(sessionRepository.findByUserId(user.getId(), PageRequest.of(0, 10)))
+                .extracting(DialInSession::getBeanId)
+                .containsExactly(other.getId());
+        assertThat(rollupsOf(user))
+                .extracting(rollup -> rollup.getId().beanId())
+                .containsExactlyInAnyOrder(DailyShotRollup.NO_BEAN, other.getId());
+    }
+
+    @Test
+    void undeliveredShotsOfDeletedBeanCreateNoRows() {
+        var user = signIn();
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, "Ethiopia", null);
+        // The created event is still in the outbox when the bean is deleted
+        createShot(bean);
+
+        beanService.deleteBeans(List.of(bean.getId()));
+        relay.relay();
+
+        assertThat(statisticsRepository.findByUserId(user.getId())).isEmpty();
+        assertThat(rollupsOf(user)).singleElement().satisfies(rollup -> {
+            assertThat(rollup.getId().beanId()).isEqualTo(DailyShotRollup.NO_BEAN);
+            assertThat(rollup.getShotCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void deleteBeansSkipsOtherUsersBeans() {
+        var owner = signIn();
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+
+        signIn();
+        assertThat(beanService.deleteBeans(List.of(bean.getId()))).isZero();
+
+        signIn(owner);
+        assertThat(beanService.listAll()).extracting(CoffeeBean::getId).containsExactly(bean.getId());
+    }
+
+    @Test
+    void deactivateBeansKeepsThemListed() {
+        signIn();
+        var first = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        var second = beanService.createBean("Kiambu", RoastLevel.MEDIUM, null, null);
+
+        assertThat(beanService.deactivateBeans(List.of(first.getId(), second.getId()))).isEqualTo(2);
+
+        assertThat(beanService.listActive()).isEmpty();
+        assertThat(beanService.listAll()).hasSize(2);
+    }
+}
@@ -0,0 +1,71 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Community statistics are shared by all tests, so every test counts under origins of its own.
+ */
+class CommunityCountersTest extends ServiceTest {
+
+    @Autowired
+    CommunityCounters counters;
+
+    @Autowired
+    CommunityStatRepository statRepository;
+
+    @Autowired
+    EspressoShotService shotService;
+
+    @Autowired
+    CoffeeBeanService beanService;
+
+    private String origin;
+    private String otherOrigin;
+
+    @BeforeEach
+    void setUp() {
+        signIn();
+        origin = "origin " + UUID.randomUUID();
+        otherOrigin = "origin " + UUID.randomUUID();
+    }
+
+    private long shotsOf(String origin) {
+        counters.flush();
+        return statRepository.findById(new CommunityStat.Key(CommunityStat.Dimension.ORIGIN, origin))
+                .map(CommunityStat::getShotCount)
+                .orElse(0L);
+    }
+
+    @Test
+    void shotsMoveWithTheirBeansOrigin() {
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, origin, null);
+        var shot = shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, bean.getId());
+        assertThat(shotsOf(origin)).isEqualTo(1);
+
+        beanService.updateBean(bean.getId(), bean.getVersion(), "Guji", RoastLevel.LIGHT, otherOrigin, null);
+        assertThat(shotsOf(origin)).isZero();
+        assertThat(shotsOf(otherOrigin)).isEqualTo(1);
+
+        shotService.deleteShot(shot.getId());
+        assertThat(shotsOf(otherOrigin)).isZero();
+    }
+
+    @Test
+    void shotsOfDeletedBeansAreSubtracted() {
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, origin, null);
+        shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, bean.getId());
+        shotService.createShot(UUID.randomUUID(), 12.5, 18.0, 38.0, 30, bean.getId());
+        assertThat(shotsOf(origin)).isEqualTo(2);
+
+        beanService.deleteBeans(List.of(bean.getId()));
+
+        assertThat(shotsOf(origin)).isZero();
+    }
+}
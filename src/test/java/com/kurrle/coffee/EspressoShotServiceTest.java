@@ -0,0 +1,93 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EspressoShotServiceTest extends ServiceTest {
+
+    @Autowired
+    EspressoShotService shotService;
+
+    @Autowired
+    CoffeeBeanService beanService;
+
+    @Autowired
+    ShotSubmissionCache submissions;
+
+    private EspressoShot createShot() {
+        return shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, null);
+    }
+
+    @Test
+    void deleteShotsRemovesShotsAndReviews() {
+        signIn();
+        var reviewed = createShot();
+        shotService.reviewShot(reviewed.getId(), TasteProfile.SOUR, null);
+        var kept = createShot();
+
+        assertThat(shotService.deleteShots(List.of(reviewed.getId()))).isEqualTo(1);
+
+        assertThat(shotService.findById(reviewed.getId())).isEmpty();
+        assertThat(shotService.findReviewByShot(reviewed.getId())).isEmpty();
+        assertThat(shotService.findById(kept.getId())).isPresent();
+    }
+
+    @Test
+    void deleteShotsSkipsOtherUsersShots() {
+        var owner = signIn();
+        var shot = createShot();
+
+        signIn();
+        assertThat(shotService.deleteShots(List.of(shot.getId()))).isZero();
+
+        signIn(owner);
+        assertThat(shotService.findById(shot.getId())).isPresent();
+    }
+
+    @Test
+    void repeatedSubmissionReturnsTheFirstShot() {
+        signIn();
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        beanService.setRemainingGrams(bean.getId(), 250.0);
+        var token = UUID.randomUUID();
+
+        var first = shotService.createShot(token, 12.0, 18.0, 36.0, 28, bean.getId());
+        var repeated = shotService.createShot(token, 12.0, 18.0, 36.0, 28, bean.getId());
+
+        assertThat(repeated.getId()).isEqualTo(first.getId());
+        assertThat(shotService.list(PageRequest.of(0, 20))).hasSize(1);
+        assertThat(beanService.findById(bean.getId()))
+                .hasValueSatisfying(stocked -> assertThat(stocked.getRemainingGrams()).isEqualTo(232.0));
+    }
+
+    @Test
+    void repeatedSubmissionForgottenByTheCacheReturnsTheFirstShot() {
+        var user = signIn();
+        var token = UUID.randomUUID();
+        var first = shotService.createShot(token, 12.0, 18.0, 36.0, 28, null);
+        submissions.remove(user.getId(), token);
+
+        var repeated = shotService.createShot(token, 12.0, 18.0, 36.0, 28, null);
+
+        assertThat(repeated.getId()).isEqualTo(first.getId());
+        assertThat(shotService.list(PageRequest.of(0, 20))).hasSize(1);
+    }
+
+    @Test
+    void submissionTokensAreScopedToTheUser() {
+        var token = UUID.randomUUID();
+        signIn();
+        var first = shotService.createShot(token, 12.0, 18.0, 36.0, 28, null);
+
+        signIn();
+        var other = shotService.createShot(token, 12.0, 18.0, 36.0, 28, null);
+
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+    }
+}
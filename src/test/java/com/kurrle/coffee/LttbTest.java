@@ -0,0 +1,57 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LttbTest {
+
+    @Test
+    void copiesSmallSeriesUnchanged() {
+        long[] times = {1, 2, 3, 0};
+        double[] values = {4, 5, 6, 0};
+
+        var series = Lttb.downsample(times, values, 3, 10);
+
+        assertThat(series.timesMillis()).containsExactly(1, 2, 3);
+        assertThat(series.values()).containsExactly(4.0, 5.0, 6.0);
+    }
+
+    @Test
+    void keepsEndpointsAndPeaks() {
+        var size = 1000;
+        var times = new long[size];
+        var values = new double[size];
+        for (var i = 0; i < size; i++) {
+            times[i] = 1_700_000_000_000L + i * 60_000L;
+            values[i] = 20;
+        }
+        values[333] = 40;
+        values[666] = 5;
+
+        var series = Lttb.downsample(times, values, size, 50);
+
+        assertThat(series.timesMillis()).hasSize(50).isSorted();
+        assertThat(series.timesMillis()[0]).isEqualTo(times[0]);
+        assertThat(series.timesMillis()[49]).isEqualTo(times[size - 1]);
+        assertThat(series.values()).contains(40.0, 5.0);
+    }
+
+    @Test
+    void sampledPointsComeFromTheSeries() {
+        var size = 500;
+        var times = new long[size];
+        var values = new double[size];
+        for (var i = 0; i < size; i++) {
+            times[i] = i * 1000L;
+            values[i] = Math.sin(i / 10.0);
+        }
+
+        var series = Lttb.downsample(times, values, size, 40);
+
+        for (var i = 0; i < series.timesMillis().length; i++) {
+            var index = (int) (series.timesMillis()[i] / 1000);
+            assertThat(series.values()[i]).isEqualTo(values[index]);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0, 0.1, 0.25, 0.5, 0.75, 0.9, 1};
+
+    private static void assertQuantiles(QuantileSketch sketch, double[] values) {
+        var sorted = values.clone();
+        Arrays.sort(sorted);
+        assertThat(sketch.count()).isEqualTo(sorted.length);
+        for (var quantile : QUANTILES) {
+            var exact = sorted[(int) (quantile * (sorted.length - 1))];
+            assertThat(sketch.quantile(quantile))
+                    .isCloseTo(exact, within(exact * QuantileSketch.RELATIVE_ACCURACY + 1e-12));
+        }
+    }
+
+    private static double[] randomValues(Random random, int count) {
+        var values = new double[count];
+        for (var i = 0; i < count; i++) {
+            values[i] = 5 + random.nextDouble() * 20;
+        }
+        return values;
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        var sketch = new QuantileSketch();
+
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.quantile(0.5)).isNaN();
+    }
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        var values = randomValues(new Random(1), 5000);
+        var sketch = new QuantileSketch();
+        for (var value : values) {
+            sketch.add(value);
+        }
+
+        assertQuantiles(sketch, values);
+    }
+
+    @Test
+    void removingValuesRestoresTheRemainingDistribution() {
+        var random = new Random(2);
+        var kept = randomValues(random, 1000);
+        var removed = Arrays.stream(randomValues(random, 1000)).map(value -> value + 20).toArray();
+        var sketch = new QuantileSketch();
+        for (var value : kept) {
+            sketch.add(value);
+        }
+        for (var value : removed) {
+            sketch.add(value);
+        }
+
+        for (var value : removed) {
+            sketch.remove(value);
+        }
+        // A value that was never added must not disturb the counts
+        sketch.remove(1_000_000);
+
+        assertQuantiles(sketch, kept);
+    }
+
+    @Test
+    void mergeEqualsAddingAllValues() {
+        var random = new Random(3);
+        var first = randomValues(random, 700);
+        var second = Arrays.stream(randomValues(random, 300)).map(value -> value * 3).toArray();
+        var merged = new QuantileSketch();
+        var other = new QuantileSketch();
+        for (var value : first) {
+            merged.add(value);
+        }
+        for (var value : second) {
+            other.add(value);
+        }
+
+        merged.merge(other);
+
+        var all = new double[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        assertQuantiles(merged, all);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        var sketch = new QuantileSketch();
+        sketch.add(0);
+        for (var value : randomValues(new Random(4), 500)) {
+            sketch.add(value);
+        }
+
+        var restored = QuantileSketch.fromBytes(sketch.toBytes());
+
+        assertThat(restored.count()).isEqualTo(sketch.count());
+        for (var quantile : QUANTILES) {
+            assertThat(restored.quantile(quantile)).isEqualTo(sketch.quantile(quantile));
+        }
+        assertThat(QuantileSketch.fromBytes(new byte[0]).isEmpty()).isTrue();
+    }
+}
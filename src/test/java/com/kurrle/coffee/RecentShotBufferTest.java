@@ -0,0 +1,90 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The first shot list page is served from the buffer once it is loaded; these tests read it after every
+ * kind of write, outside any transaction, as the grid does.
+ */
+class RecentShotBufferTest extends ServiceTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20, ShotSortKey.NEWEST_FIRST);
+
+    @Autowired
+    EspressoShotService shotService;
+
+    @Autowired
+    CoffeeBeanService beanService;
+
+    private CoffeeBean bean;
+
+    @BeforeEach
+    void setUp() {
+        signIn();
+        bean = beanService.createBean("Guji", RoastLevel.LIGHT, "Ethiopia", null);
+    }
+
+    private EspressoShot createShot(double grindSize) {
+        return shotService.createShot(UUID.randomUUID(), grindSize, 18.0, 36.0, 28, bean.getId());
+    }
+
+    @Test
+    void firstPageShowsBeanAndReviewOfReviewedShot() {
+        var shot = createShot(12);
+        // Loads the buffer, so the review below is applied to it
+        assertThat(shotService.list(FIRST_PAGE)).hasSize(1);
+
+        shotService.reviewShot(shot.getId(), TasteProfile.BALANCED, "Sweet");
+
+        assertThat(shotService.list(FIRST_PAGE)).singleElement().satisfies(listed -> {
+            assertThat(listed.getCoffeeBean().getName()).isEqualTo("Guji");
+            assertThat(listed.getReview().getTasteProfile()).isEqualTo(TasteProfile.BALANCED);
+        });
+    }
+
+    @Test
+    void firstPageShowsBeanOfUpdatedShot() {
+        var shot = createShot(12);
+        assertThat(shotService.list(FIRST_PAGE)).hasSize(1);
+
+        shotService.updateShot(shot.getId(), 13.0, 18.0, 38.0, 30, bean.getId());
+
+        assertThat(shotService.list(FIRST_PAGE)).singleElement().satisfies(listed -> {
+            assertThat(listed.getGrindSize()).isEqualTo(13.0);
+            assertThat(listed.getCoffeeBean().getName()).isEqualTo("Guji");
+        });
+    }
+
+    @Test
+    void firstPageFollowsCreatesAndDeletes() {
+        var first = createShot(12);
+        var second = createShot(13);
+        assertThat(shotService.list(FIRST_PAGE)).extracting(EspressoShot::getId)
+                .containsExactly(second.getId(), first.getId());
+
+        var third = createShot(14);
+        shotService.deleteShots(List.of(second.getId()));
+
+        assertThat(shotService.list(FIRST_PAGE)).extracting(EspressoShot::getId)
+                .containsExactly(third.getId(), first.getId());
+    }
+
+    @Test
+    void nextShotParametersUseReviewOfBufferedShot() {
+        var shot = createShot(12);
+        assertThat(shotService.list(FIRST_PAGE)).hasSize(1);
+
+        shotService.reviewShot(shot.getId(), TasteProfile.WATERY, null);
+
+        assertThat(shotService.nextShotParameters(bean.getId())).hasValueSatisfying(parameters ->
+                assertThat(parameters.grindSize()).isEqualTo(12 - TasteProfile.GRIND_STEP));
+    }
+}
@@ -0,0 +1,80 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RunningStatsTest {
+
+    private static void assertMatches(RunningStats stats, List<Double> values) {
+        var mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        var squares = values.stream().mapToDouble(value -> (value - mean) * (value - mean)).sum();
+        assertThat(stats.getCount()).isEqualTo(values.size());
+        assertThat(stats.getMean()).isCloseTo(mean, within(1e-9));
+        assertThat(stats.getStandardDeviation())
+                .isCloseTo(values.size() < 2 ? 0 : Math.sqrt(squares / (values.size() - 1)), within(1e-9));
+    }
+
+    @Test
+    void matchesTwoPassComputation() {
+        var random = new Random(5);
+        var stats = new RunningStats();
+        var values = new ArrayList<Double>();
+        for (var i = 0; i < 1000; i++) {
+            var value = 25 + random.nextGaussian() * 4;
+            stats.add(value);
+            values.add(value);
+        }
+
+        assertMatches(stats, values);
+    }
+
+    @Test
+    void removalsUndoAdds() {
+        var random = new Random(6);
+        var stats = new RunningStats();
+        var values = new ArrayList<Double>();
+        for (var i = 0; i < 500; i++) {
+            var value = 18 + random.nextDouble() * 2;
+            stats.add(value);
+            values.add(value);
+        }
+
+        for (var i = 0; i < 300; i++) {
+            stats.remove(values.remove(random.nextInt(values.size())));
+        }
+
+        assertMatches(stats, values);
+    }
+
+    @Test
+    void removingTheLastValueResets() {
+        var stats = new RunningStats();
+        stats.add(3);
+        stats.add(5);
+
+        stats.remove(5);
+        assertMatches(stats, List.of(3.0));
+
+        stats.remove(3);
+        assertMatches(stats, List.of());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        var stats = new RunningStats();
+        stats.add(3);
+        stats.add(5);
+
+        var copy = stats.copy();
+        copy.remove(5);
+
+        assertMatches(stats, List.of(3.0, 5.0));
+        assertMatches(copy, List.of(3.0));
+    }
+}
@@ -0,0 +1,46 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.AuthenticatedUser;
+import com.kurrle.security.User;
+import com.kurrle.security.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Base of the service tests: one application context against PostgreSQL, with the signed-in user replaced
+ * by {@link #signIn}. Every test works with users of its own, so tests need no cleanup. The outbox relay
+ * does not tick on its own; tests that check outbox consumers call {@link ShotOutboxRelay#relay()}.
+ */
+@SpringBootTest(properties = "outbox.relay-interval=PT1H")
+@Import(TestcontainersConfiguration.class)
+abstract class ServiceTest {
+
+    @MockitoBean
+    AuthenticatedUser authenticatedUser;
+
+    @Autowired
+    UserRepository userRepository;
+
+    User newUser() {
+        return userRepository.save(new User("Test", "User", UUID.randomUUID() + "@example.com", "{noop}secret"));
+    }
+
+    /**
+     * Makes the user the current user of the services.
+     */
+    User signIn(User user) {
+        when(authenticatedUser.get()).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    User signIn() {
+        return signIn(newUser());
+    }
+}
@@ -0,0 +1,75 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShotEventCodecTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private static ShotSnapshot snapshot(Long beanId, TasteProfile tasteProfile, boolean outlier) {
+        var withBean = beanId != null;
+        return new ShotSnapshot(42L, USER_ID, beanId, withBean ? 3L : null, withBean ? RoastLevel.MEDIUM_LIGHT : null,
+                withBean ? "são paulo" : null, 12.5, 18.2, 36.7, 28, Instant.parse("2025-03-14T07:26:53.123456789Z"),
+                tasteProfile, outlier);
+    }
+
+    @Test
+    void roundTripsCreatedShot() {
+        var event = ShotChangedEvent.created(snapshot(7L, null, false));
+
+        assertThat(ShotEventCodec.decode(ShotEventCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsUpdatedShotWithReviewAndOutlier() {
+        var event = ShotChangedEvent.updated(snapshot(7L, null, false), snapshot(8L, TasteProfile.BALANCED, true));
+
+        assertThat(ShotEventCodec.decode(ShotEventCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsDeletedShotWithoutBean() {
+        var event = ShotChangedEvent.deleted(snapshot(null, TasteProfile.SOUR, false));
+
+        var decoded = ShotEventCodec.decode(ShotEventCodec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.after()).isNull();
+        assertThat(decoded.before().beanId()).isNull();
+    }
+
+    @Test
+    void roundTripsEveryTasteProfile() {
+        for (var tasteProfile : TasteProfile.values()) {
+            var event = ShotChangedEvent.created(snapshot(7L, tasteProfile, false));
+
+            assertThat(ShotEventCodec.decode(ShotEventCodec.encode(event))).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void roundTripsChangeOfTeam() {
+        var shared = snapshot(7L, TasteProfile.BALANCED, false);
+        var event = ShotChangedEvent.updated(shared, shared.withTeam(null));
+
+        var decoded = ShotEventCodec.decode(ShotEventCodec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.before().teamId()).isEqualTo(3L);
+        assertThat(decoded.after().teamId()).isNull();
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        var bytes = ShotEventCodec.encode(ShotChangedEvent.created(snapshot(7L, null, false)));
+        bytes[0] = 99;
+
+        assertThatThrownBy(() -> ShotEventCodec.decode(bytes)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
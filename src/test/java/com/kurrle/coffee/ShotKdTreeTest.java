@@ -0,0 +1,142 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ShotKdTreeTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final long BEAN_ID = 1L;
+    private static final long OTHER_BEAN_ID = 2L;
+
+    private final Random random = new Random(7);
+
+    private ShotSnapshot randomShot(long shotId, long beanId) {
+        return new ShotSnapshot(shotId, USER_ID, beanId, null, null, null, 8 + random.nextDouble() * 12,
+                16 + random.nextDouble() * 4, 30 + random.nextDouble() * 15, 20 + random.nextInt(20),
+                Instant.ofEpochSecond(shotId * 60), null, false);
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        var shots = new ArrayList<ShotSnapshot>();
+        var columns = ShotColumns.EMPTY;
+        for (long id = 1; id <= 500; id++) {
+            var shot = randomShot(id, id % 5 == 0 ? OTHER_BEAN_ID : BEAN_ID);
+            columns = columns.upsert(shot);
+            if (shot.beanId() == BEAN_ID) {
+                shots.add(shot);
+            }
+        }
+        var tree = ShotKdTree.build(columns, BEAN_ID);
+        var scales = scales(shots);
+
+        assertThat(tree.size()).isEqualTo(shots.size());
+        for (var query = 0; query < 50; query++) {
+            var probe = randomShot(-1, BEAN_ID);
+            assertNearest(tree, shots, scales, probe, 10, -1);
+        }
+        // Querying a shot of the tree leaves the shot itself out
+        var own = shots.get(17);
+        assertNearest(tree, shots, scales, own, 5, own.shotId());
+    }
+
+    @Test
+    void nearestFollowsInsertsAndRemovals() {
+        var shots = new ArrayList<ShotSnapshot>();
+        var columns = ShotColumns.EMPTY;
+        for (long id = 1; id <= 400; id++) {
+            var shot = randomShot(id, BEAN_ID);
+            columns = columns.upsert(shot);
+            shots.add(shot);
+        }
+        var tree = ShotKdTree.build(columns, BEAN_ID);
+        // Scales are only recomputed when the tree is rebuilt, which neither change below triggers
+        var scales = scales(shots);
+
+        for (long id = 401; id <= 440; id++) {
+            var shot = randomShot(id, BEAN_ID);
+            tree.insert(shot);
+            shots.add(shot);
+        }
+        for (var i = 0; i < 60; i++) {
+            var removed = shots.remove(random.nextInt(shots.size()));
+            tree.remove(removed.shotId());
+        }
+
+        assertThat(tree.size()).isEqualTo(shots.size());
+        for (var query = 0; query < 50; query++) {
+            assertNearest(tree, shots, scales, randomShot(-1, BEAN_ID), 8, -1);
+        }
+    }
+
+    @Test
+    void returnsAllShotsWhenFewerThanRequested() {
+        var columns = ShotColumns.EMPTY;
+        for (long id = 1; id <= 3; id++) {
+            columns = columns.upsert(randomShot(id, BEAN_ID));
+        }
+
+        var nearest = ShotKdTree.build(columns, BEAN_ID).nearest(12, 18, 36, 28, 10, -1);
+
+        assertThat(nearest).extracting(SimilarShot::shotId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    private static void assertNearest(ShotKdTree tree, List<ShotSnapshot> shots, double[] scales, ShotSnapshot probe,
+                                      int k, long excludedShotId) {
+        var expected = shots.stream()
+                .filter(shot -> shot.shotId() != excludedShotId)
+                .sorted(Comparator.comparingDouble(shot -> distance(scales, probe, shot)))
+                .limit(k)
+                .toList();
+
+        var actual = tree.nearest(probe.grindSize(), probe.grindAmount(), probe.yield(), probe.extractionTime(), k,
+                excludedShotId);
+
+        assertThat(actual).extracting(SimilarShot::shotId)
+                .containsExactlyElementsOf(expected.stream().map(ShotSnapshot::shotId).toList());
+        for (var i = 0; i < actual.size(); i++) {
+            assertThat(actual.get(i).distance()).isCloseTo(Math.sqrt(distance(scales, probe, expected.get(i))),
+                    within(1e-9));
+        }
+    }
+
+    /**
+     * Inverse standard deviation per dimension, as the tree scales its axes.
+     */
+    private static double[] scales(List<ShotSnapshot> shots) {
+        var scales = new double[4];
+        for (var axis = 0; axis < 4; axis++) {
+            var stats = new RunningStats();
+            for (var shot : shots) {
+                stats.add(coordinates(shot)[axis]);
+            }
+            scales[axis] = 1 / stats.getStandardDeviation();
+        }
+        return scales;
+    }
+
+    private static double[] coordinates(ShotSnapshot shot) {
+        return new double[]{shot.grindSize(), shot.grindAmount(), shot.yield(), shot.extractionTime()};
+    }
+
+    private static double distance(double[] scales, ShotSnapshot a, ShotSnapshot b) {
+        var from = coordinates(a);
+        var to = coordinates(b);
+        var sum = 0.0;
+        for (var axis = 0; axis < 4; axis++) {
+            var delta = (from[axis] - to[axis]) * scales[axis];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+}
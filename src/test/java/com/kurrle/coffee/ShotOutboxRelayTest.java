@@ -0,0 +1,85 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShotOutboxRelayTest extends ServiceTest {
+
+    @Autowired
+    ShotOutboxRelay relay;
+
+    @Autowired
+    CoffeeBeanService beanService;
+
+    @Autowired
+    EspressoShotService shotService;
+
+    @Autowired
+    BeanStatisticsRepository statisticsRepository;
+
+    private OutboxLag lagOf(String consumer) {
+        return relay.lag().stream()
+                .filter(lag -> lag.consumer().equals(consumer))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void relayDeliversEachEventOnceAndAdvancesOffsets() {
+        var user = signIn();
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, bean.getId());
+
+        relay.relay();
+        relay.relay();
+
+        assertThat(relay.lag()).isNotEmpty().allSatisfy(lag -> {
+            assertThat(lag.pendingEvents()).isZero();
+            assertThat(lag.oldestPending()).isNull();
+        });
+        assertThat(statisticsRepository.findByUserId(user.getId())).singleElement()
+                .satisfies(statistics -> assertThat(statistics.getDoseStats().getCount()).isEqualTo(1));
+    }
+
+    @Test
+    void replayMovesIdempotentConsumerBack() {
+        signIn();
+        shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, null);
+        relay.relay();
+        var head = lagOf("shot-insights-cache").headPosition();
+
+        relay.replay("shot-insights-cache", head);
+
+        assertThat(lagOf("shot-insights-cache").pendingEvents()).isEqualTo(1);
+        relay.relay();
+        assertThat(lagOf("shot-insights-cache").pendingEvents()).isZero();
+    }
+
+    @Test
+    void replayRejectsConsumersThatApplyDeltas() {
+        signIn();
+        shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, null);
+        relay.relay();
+        var head = lagOf("bean-statistics").headPosition();
+
+        assertThatThrownBy(() -> relay.replay("bean-statistics", head))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(lagOf("bean-statistics").position()).isEqualTo(head);
+    }
+
+    @Test
+    void replayRejectsPositionsOutsideTheOutbox() {
+        signIn();
+        shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, null);
+        relay.relay();
+        var head = lagOf("shot-insights-cache").headPosition();
+
+        assertThatThrownBy(() -> relay.replay("shot-insights-cache", head + 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
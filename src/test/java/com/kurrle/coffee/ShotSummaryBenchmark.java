@@ -0,0 +1,120 @@
+package com.kurrle.coffee;
+
+import com.kurrle.security.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares summarizing a user's shot history from {@link ShotColumns} with the same computation over
+ * {@link EspressoShot} entities and their boxed getters. Not part of the test run; start {@link #main}
+ * from the IDE, or after {@code mvn test-compile} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShotSummaryBenchmark {
+
+    @Param({"1000", "100000"})
+    int shots;
+
+    private ShotColumns columns;
+    private List<EspressoShot> entities;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        var user = new User("Bench", "Mark", "bench@example.com", "");
+        var userId = UUID.randomUUID();
+        var start = Instant.parse("2024-01-01T00:00:00Z");
+        columns = ShotColumns.EMPTY;
+        entities = new ArrayList<>(shots);
+        for (var i = 0; i < shots; i++) {
+            var grindSize = 10 + random.nextInt(20) / 2.0;
+            var dose = 16 + random.nextDouble() * 4;
+            var yield = dose * (1.6 + random.nextDouble() * 0.8);
+            var time = 20 + random.nextInt(20);
+            var taste = random.nextInt(4) == 0 ? null : TasteProfile.values()[random.nextInt(TasteProfile.values().length)];
+            var outlier = random.nextInt(50) == 0;
+            var createdAt = start.plusSeconds(i * 3600L);
+
+            columns = columns.upsert(new ShotSnapshot((long) i + 1, userId, 1L, null, RoastLevel.MEDIUM, null,
+                    grindSize, dose, yield, time, createdAt, taste, outlier));
+
+            var shot = new EspressoShot(grindSize, dose, yield, time, user);
+            shot.setOutlier(outlier);
+            if (taste != null) {
+                shot.setReview(new ShotReview(shot, taste));
+            }
+            entities.add(shot);
+        }
+    }
+
+    @Benchmark
+    public ShotSummary columns() {
+        return ShotSummary.of(columns, DailyShotRollup.NO_BEAN);
+    }
+
+    @Benchmark
+    public ShotSummary entities() {
+        return summarize(entities);
+    }
+
+    /**
+     * What {@link ShotSummary#of} computes, written against the entities as analytics code did before the
+     * column store.
+     */
+    private static ShotSummary summarize(List<EspressoShot> shots) {
+        int count = 0;
+        int reviewed = 0;
+        int balanced = 0;
+        double grind = 0, dose = 0, yield = 0, time = 0, ratio = 0;
+        for (var shot : shots) {
+            if (shot.isOutlier()) {
+                continue;
+            }
+            count++;
+            grind += shot.getGrindSize();
+            dose += shot.getGrindAmount();
+            yield += shot.getYield();
+            time += shot.getExtractionTime();
+            ratio += shot.getBrewRatio();
+            if (shot.getReview() != null) {
+                reviewed++;
+                if (shot.getReview().getTasteProfile() == TasteProfile.BALANCED) {
+                    balanced++;
+                }
+            }
+        }
+        if (count == 0) {
+            return new ShotSummary(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new ShotSummary(count, grind / count, dose / count, yield / count, time / count, ratio / count,
+                reviewed == 0 ? 0 : (double) balanced / reviewed);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ShotSummaryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
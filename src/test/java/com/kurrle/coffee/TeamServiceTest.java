@@ -0,0 +1,100 @@
+package com.kurrle.coffee;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TeamServiceTest extends ServiceTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    TeamService teamService;
+
+    @Autowired
+    CoffeeBeanService beanService;
+
+    @Autowired
+    EspressoShotService shotService;
+
+    private EspressoShot createShot(Long beanId) {
+        return shotService.createShot(UUID.randomUUID(), 12.0, 18.0, 36.0, 28, beanId);
+    }
+
+    @Test
+    void membersShareBeansAndSeeEachOthersShots() {
+        var owner = signIn();
+        var team = teamService.createTeam("Roastery");
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        beanService.shareWithTeam(bean.getId(), team.getId());
+        var member = newUser();
+        teamService.addMember(team.getId(), member.getEmail());
+        createShot(bean.getId());
+
+        signIn(member);
+        assertThat(beanService.listUsable()).extracting(CoffeeBean::getId).contains(bean.getId());
+        var shot = createShot(bean.getId());
+        assertThat(shot.getCoffeeBean()).isNotNull();
+
+        signIn(owner);
+        assertThat(teamService.listShots(team.getId(), ShotFilter.NONE, FIRST_PAGE)).hasSize(2);
+    }
+
+    @Test
+    void nonMembersCannotSeeTheTeam() {
+        signIn();
+        var team = teamService.createTeam("Roastery");
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        beanService.shareWithTeam(bean.getId(), team.getId());
+        createShot(bean.getId());
+
+        signIn();
+        assertThatThrownBy(() -> teamService.listShots(team.getId(), ShotFilter.NONE, FIRST_PAGE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> teamService.listBeans(team.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> teamService.beanTotals(team.getId(), LocalDate.EPOCH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nonMembersCannotUseSharedBeans() {
+        signIn();
+        var team = teamService.createTeam("Roastery");
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        beanService.shareWithTeam(bean.getId(), team.getId());
+
+        signIn();
+        assertThat(beanService.listUsable()).extracting(CoffeeBean::getId).doesNotContain(bean.getId());
+        assertThat(createShot(bean.getId()).getCoffeeBean()).isNull();
+        assertThatThrownBy(() -> beanService.shareWithTeam(bean.getId(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void removedMembersLoseAccess() {
+        signIn();
+        var team = teamService.createTeam("Roastery");
+        var bean = beanService.createBean("Guji", RoastLevel.LIGHT, null, null);
+        beanService.shareWithTeam(bean.getId(), team.getId());
+        var member = newUser();
+        teamService.addMember(team.getId(), member.getEmail());
+        var membership = teamService.listMembers(team.getId(), FIRST_PAGE).stream()
+                .filter(found -> found.getUser().getId().equals(member.getId()))
+                .findFirst()
+                .orElseThrow();
+        teamService.removeMember(team.getId(), membership.getId());
+
+        signIn(member);
+        assertThat(teamService.listMyTeams()).isEmpty();
+        assertThat(createShot(bean.getId()).getCoffeeBean()).isNull();
+        assertThatThrownBy(() -> teamService.listShots(team.getId(), ShotFilter.NONE, FIRST_PAGE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}